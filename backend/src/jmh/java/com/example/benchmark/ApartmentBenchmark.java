@@ -0,0 +1,35 @@
+package com.example.benchmark;
+
+import com.example.entity.Apartment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apartment.onLoad, which Hibernate runs for every loaded apartment: three streams over the
+ * resident and vehicle lists for the member, car and motorbike counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ApartmentBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int apartments;
+
+    private BillingDataset dataset;
+
+    @Setup
+    public void setUp() {
+        dataset = BillingDataset.create(apartments);
+    }
+
+    @Benchmark
+    public long onLoad() {
+        long members = 0;
+        for (Apartment apartment : dataset.apartments) {
+            apartment.onLoad();
+            members += apartment.getNumberOfMembers() + apartment.getNumberOfCars() + apartment.getNumberOfMotorbikes();
+        }
+        return members;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.benchmark;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.PaymentEnum;
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.projection.*;
+import com.example.entity.Apartment;
+import com.example.entity.Fee;
+import com.example.entity.Resident;
+import com.example.entity.Vehicle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Synthetic building for the benchmarks: every apartment has 1-5 residents, 0-2 cars and 0-3 motorbikes,
+ * and is billed four invoices. The first invoice has frozen line amounts, the others are priced live, the
+ * last one is a contribution fund. Built from a fixed seed so runs compare.
+ */
+public final class BillingDataset {
+    public static final int INVOICES = 4;
+
+    public final List<Apartment> apartments = new ArrayList<>();
+    public final Map<Long, ApartmentBillingSummary> summaries = new HashMap<>();
+    public final Map<Long, List<ApartmentInvoiceFeeRow>> invoiceFeeRows = new HashMap<>();
+    public final Map<Long, List<InvoiceFeeAmountRow>> feeAmountRows = new HashMap<>();
+    public final List<Fee> fees = new ArrayList<>();
+    public final List<InvoiceFeeLink> feeLinks = new ArrayList<>();
+    public final List<String> invoiceIds = new ArrayList<>();
+    // Grouped rows as the invoice totals queries return them, per invoice and payment status
+    public final List<InvoiceAreaSummary> areaSummaries = new ArrayList<>();
+    public final List<InvoiceVehicleSummary> vehicleSummaries = new ArrayList<>();
+    public final List<InvoiceAmountSummary> lineAmountSummaries = new ArrayList<>();
+    public final List<InvoiceAmountSummary> contributionSummaries = new ArrayList<>();
+
+    private BillingDataset() {
+    }
+
+    public static BillingDataset create(int apartmentCount) {
+        BillingDataset dataset = new BillingDataset();
+        Random random = new Random(42);
+        Fee departmentFee = dataset.fee(1L, "Department Fee", FeeTypeEnum.DepartmentFee, 7000);
+        Fee vehicleFee = dataset.fee(2L, "Vehicle Fee", FeeTypeEnum.VehicleFee, 1);
+        Fee contributionFee = dataset.fee(3L, "Flood relief", FeeTypeEnum.ContributionFund, 0);
+        List<List<Fee>> feesByInvoice = List.of(
+                List.of(departmentFee, vehicleFee),
+                List.of(departmentFee, vehicleFee),
+                List.of(departmentFee, vehicleFee),
+                List.of(contributionFee, departmentFee));
+        for (int i = 0; i < INVOICES; i++) {
+            String invoiceId = "INV-" + (i + 1);
+            dataset.invoiceIds.add(invoiceId);
+            for (Fee fee : feesByInvoice.get(i)) {
+                dataset.feeLinks.add(new InvoiceFeeLink(invoiceId, fee.getId()));
+            }
+        }
+
+        // invoice -> payment status -> {area, cars, motorbikes, apartments, frozen, contribution}
+        Map<String, Map<PaymentEnum, double[]>> groups = new LinkedHashMap<>();
+        LocalDate createdAt = LocalDate.of(2025, 5, 1);
+        for (int a = 0; a < apartmentCount; a++) {
+            long addressNumber = 100_000L + a;
+            double area = 35 + random.nextInt(90) + random.nextInt(4) * 0.25;
+            int cars = random.nextInt(3);
+            int motorbikes = random.nextInt(4);
+            dataset.apartments.add(apartment(addressNumber, area, 1 + random.nextInt(5), cars, motorbikes));
+            dataset.summaries.put(addressNumber, new ApartmentBillingSummary(addressNumber, area, (long) cars, (long) motorbikes));
+
+            List<ApartmentInvoiceFeeRow> rows = new ArrayList<>();
+            List<InvoiceFeeAmountRow> amounts = new ArrayList<>();
+            for (int i = 0; i < INVOICES; i++) {
+                long invoiceApartmentId = addressNumber * INVOICES + i;
+                String invoiceId = dataset.invoiceIds.get(i);
+                PaymentEnum status = random.nextBoolean() ? PaymentEnum.Paid : PaymentEnum.Unpaid;
+                boolean frozen = i == 0;
+                double[] group = groups.computeIfAbsent(invoiceId, key -> new EnumMap<>(PaymentEnum.class))
+                        .computeIfAbsent(status, key -> new double[6]);
+                group[3]++;
+                for (Fee fee : feesByInvoice.get(i)) {
+                    Double lineAmount = null;
+                    if (frozen) {
+                        lineAmount = fee == departmentFee ? area * 7000 : cars * 1_200_000.0 + motorbikes * 70_000.0;
+                        group[4] += lineAmount;
+                    }
+                    rows.add(new ApartmentInvoiceFeeRow(invoiceApartmentId, invoiceId, "Invoice " + invoiceId, null,
+                            null, createdAt, status, frozen ? Instant.EPOCH : null,
+                            fee.getId(), fee.getName(), fee.getFeeTypeEnum(), fee.getUnitPrice(), lineAmount));
+                }
+                if (!frozen) {
+                    group[0] += area;
+                    group[1] += cars;
+                    group[2] += motorbikes;
+                }
+                if (feesByInvoice.get(i).contains(contributionFee)) {
+                    double amount = 10_000 * (1 + random.nextInt(50));
+                    amounts.add(new InvoiceFeeAmountRow(invoiceApartmentId, contributionFee.getId(), amount));
+                    group[5] += amount;
+                }
+            }
+            dataset.invoiceFeeRows.put(addressNumber, rows);
+            dataset.feeAmountRows.put(addressNumber, amounts);
+        }
+
+        groups.forEach((invoiceId, byStatus) -> byStatus.forEach((status, group) -> {
+            dataset.areaSummaries.add(new InvoiceAreaSummary(invoiceId, "Invoice " + invoiceId, createdAt, status, group[0], (long) group[3]));
+            dataset.vehicleSummaries.add(new InvoiceVehicleSummary(invoiceId, status, VehicleEnum.Car, (long) group[1]));
+            dataset.vehicleSummaries.add(new InvoiceVehicleSummary(invoiceId, status, VehicleEnum.Motorbike, (long) group[2]));
+            dataset.lineAmountSummaries.add(new InvoiceAmountSummary(invoiceId, status, group[4]));
+            dataset.contributionSummaries.add(new InvoiceAmountSummary(invoiceId, status, group[5]));
+        }));
+        return dataset;
+    }
+
+    private Fee fee(long id, String name, FeeTypeEnum type, long unitPrice) {
+        Fee fee = new Fee();
+        fee.setId(id);
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(BigDecimal.valueOf(unitPrice));
+        fees.add(fee);
+        return fee;
+    }
+
+    private static Apartment apartment(long addressNumber, double area, int residents, int cars, int motorbikes) {
+        Apartment apartment = Apartment.builder()
+                .addressNumber(addressNumber)
+                .area(area)
+                .status(ApartmentEnum.Residential)
+                .createdAt(Instant.EPOCH)
+                .residentList(new ArrayList<>())
+                .vehicleList(new ArrayList<>())
+                .build();
+        for (int r = 0; r < residents; r++) {
+            Resident resident = Resident.builder()
+                    .id(addressNumber * 10 + r)
+                    .name("Resident " + addressNumber + "-" + r)
+                    .cic(String.format("%012d", addressNumber * 10 + r))
+                    .dob(LocalDate.of(1960 + r * 7, 1 + r, 10))
+                    .status(r == residents - 1 && residents > 2 ? ResidentEnum.Moved : ResidentEnum.Resident)
+                    .apartment(apartment)
+                    .apartmentId(addressNumber)
+                    .build();
+            apartment.getResidentList().add(resident);
+        }
+        apartment.setOwner(apartment.getResidentList().get(0));
+        for (int v = 0; v < cars + motorbikes; v++) {
+            apartment.getVehicleList().add(Vehicle.builder()
+                    .id(addressNumber + "-" + v)
+                    .category(v < cars ? VehicleEnum.Car : VehicleEnum.Motorbike)
+                    .apartment(apartment)
+                    .registerDate(LocalDate.of(2024, 1, 1))
+                    .build());
+        }
+        return apartment;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.benchmark;
+
+import com.example.dto.response.FormatApiResponse;
+import com.example.dto.response.PaginatedResponse;
+import com.example.entity.Apartment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response path of the apartment list: FormatApiResponse wrapping the page in an ApiResponse, and
+ * Jackson writing a PaginatedResponse of apartment entities with the ObjectMapper settings Spring Boot uses.
+ * The page holds the whole dataset, as an unpaginated export would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int apartments;
+
+    private PaginatedResponse<Apartment> page;
+    private FormatApiResponse formatApiResponse;
+    private ObjectMapper objectMapper;
+    private ServletServerHttpRequest request;
+    private ServletServerHttpResponse response;
+
+    @Setup
+    public void setUp() {
+        BillingDataset dataset = BillingDataset.create(apartments);
+        dataset.apartments.forEach(Apartment::onLoad);
+        page = PaginatedResponse.<Apartment>builder()
+                .curPage(0)
+                .pageSize(apartments)
+                .totalPages(1)
+                .totalElements(apartments)
+                .result(dataset.apartments)
+                .build();
+        formatApiResponse = new FormatApiResponse();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new ServletServerHttpRequest(new MockHttpServletRequest("GET", "/api/v1/apartments"));
+        response = new ServletServerHttpResponse(new MockHttpServletResponse());
+    }
+
+    // independent of the page size, the body is only referenced
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object wrap() {
+        return formatApiResponse.beforeBodyWrite(page, null, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, request, response);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] wrapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(wrap());
+    }
+}
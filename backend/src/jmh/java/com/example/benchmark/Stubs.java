@@ -0,0 +1,30 @@
+package com.example.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository interfaces answered from in-memory data by method name, so the benchmarks measure the
+ * service code and not a database or a mocking framework. Unlisted methods throw.
+ */
+public final class Stubs {
+    private Stubs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+}
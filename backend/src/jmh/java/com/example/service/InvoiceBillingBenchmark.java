@@ -0,0 +1,85 @@
+package com.example.service;
+
+import com.example.benchmark.BillingDataset;
+import com.example.benchmark.Stubs;
+import com.example.dto.response.InvoiceApartmentResponse;
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.Apartment;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.FeeInvoiceRepository;
+import com.example.repository.FeeRepository;
+import com.example.repository.InvoiceApartmentRepository;
+import com.example.service.fee.ContributionFundStrategy;
+import com.example.service.fee.DepartmentFeeStrategy;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.VehicleFeeStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice pricing over a whole building with in-memory repositories: the per-apartment path
+ * (fetchAllInvoicesByApartmentId for every apartment, merged as the old getAllTotalInvoices did)
+ * against the grouped computation behind the invoice_totals read model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class InvoiceBillingBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int apartments;
+
+    private BillingDataset dataset;
+    private InvoiceService invoiceService;
+    private InvoiceTotalsService invoiceTotalsService;
+
+    @Setup
+    public void setUp() {
+        dataset = BillingDataset.create(apartments);
+        FeeCalculator feeCalculator = new FeeCalculator(List.of(new DepartmentFeeStrategy(),
+                new VehicleFeeStrategy(BigDecimal.valueOf(1_200_000), BigDecimal.valueOf(70_000)), new ContributionFundStrategy()));
+
+        ApartmentRepository apartmentRepository = Stubs.of(ApartmentRepository.class, Map.of(
+                "findBillingSummaryById", args -> Optional.ofNullable(dataset.summaries.get((Long) args[0]))));
+        InvoiceApartmentRepository invoiceApartmentRepository = Stubs.of(InvoiceApartmentRepository.class, Map.of(
+                "findInvoiceFeeRowsByApartmentId", args -> dataset.invoiceFeeRows.get((Long) args[0]),
+                "findFeeAmountsByApartmentId", args -> dataset.feeAmountRows.get((Long) args[0]),
+                "sumAreaByInvoiceAndPaymentStatus", args -> dataset.areaSummaries,
+                "countVehiclesByInvoiceAndPaymentStatus", args -> dataset.vehicleSummaries,
+                "sumLineAmountsByInvoiceAndPaymentStatus", args -> dataset.lineAmountSummaries,
+                "sumContributionsByInvoiceAndPaymentStatus", args -> dataset.contributionSummaries));
+        FeeCatalog feeCatalog = new FeeCatalog(
+                Stubs.of(FeeRepository.class, Map.of("findAll", args -> dataset.fees)),
+                Stubs.of(FeeInvoiceRepository.class, Map.of("findAllLinks", args -> dataset.feeLinks)),
+                Duration.ofHours(1));
+
+        invoiceTotalsService = new InvoiceTotalsService(invoiceApartmentRepository, null, feeCalculator, feeCatalog);
+        invoiceService = new InvoiceService(null, null, null, apartmentRepository, invoiceApartmentRepository,
+                null, null, feeCalculator, null, feeCatalog, invoiceTotalsService);
+    }
+
+    // Fee amounts of every invoice of every apartment, one apartment at a time as the apartment view loads them
+    @Benchmark
+    public void fetchAllInvoicesByApartmentId(Blackhole blackhole) {
+        for (Apartment apartment : dataset.apartments) {
+            List<InvoiceApartmentResponse> invoices = invoiceService.fetchAllInvoicesByApartmentId(apartment.getAddressNumber());
+            blackhole.consume(invoices);
+        }
+    }
+
+    @Benchmark
+    public List<TotalInvoiceResponse> getAllTotalInvoicesPerApartment() {
+        return PerApartmentInvoiceTotals.compute(invoiceService, dataset.apartments);
+    }
+
+    @Benchmark
+    public Map<String, TotalInvoiceResponse> computeGroupedTotals() {
+        return invoiceTotalsService.compute(dataset.invoiceIds);
+    }
+}
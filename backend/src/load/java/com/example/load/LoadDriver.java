@@ -0,0 +1,240 @@
+package com.example.load;
+
+import com.example.service.generator.SyntheticDataGenerator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Replays a read-heavy mix of API calls against a running backend loaded by SyntheticDataGenerator and
+ * reports throughput and latency percentiles per endpoint. Run with mvn -P load test, options in
+ * -Dload.args, e.g. "--apartments 50000 --concurrency 32 --duration 120".
+ * <p>
+ * Without --rate every worker sends its next request as soon as the previous one returns. With --rate the
+ * requests are spread over the workers on a fixed schedule and latency is measured from the scheduled
+ * time, so a slow response also counts against the requests queued behind it.
+ */
+public final class LoadDriver {
+    private static final String[] SURNAMES = {"nguyen", "tran", "le", "pham", "hoang", "phan", "vu", "dang", "bui", "do",
+            "ho", "ngo", "duong", "dao", "doan", "trinh", "dinh", "lam", "mai", "truong"};
+    private static final String[] GIVEN_NAMES = {"nam", "trung", "thanh", "van", "thi", "quoc", "minh", "duc", "long",
+            "ngoc", "thu", "hai", "son", "phong", "khang"};
+
+    private record Endpoint(String name, int weight, Function<Random, String> path) {
+    }
+
+    // Weights are requests per hundred, roughly the screens of the admin frontend
+    private static List<Endpoint> mix(int apartments) {
+        return List.of(
+                new Endpoint("GET /residents", 20, r -> "/api/v1/residents?page=" + (1 + r.nextInt(50)) + "&size=20"),
+                new Endpoint("GET /residents/search", 20, r -> "/api/v1/residents/search?q=" + searchQuery(r)),
+                new Endpoint("GET /invoiceapartment/{id}", 20, r -> "/api/v1/invoiceapartment/"
+                        + SyntheticDataGenerator.addressNumber(r.nextInt(apartments))),
+                new Endpoint("GET /utilitybills", 10, r -> "/api/v1/utilitybills?page=" + (1 + r.nextInt(50)) + "&size=20"),
+                new Endpoint("GET /invoices", 10, r -> "/api/v1/invoices?page=" + (1 + r.nextInt(3)) + "&size=20"),
+                new Endpoint("GET /invoices/total", 5, r -> "/api/v1/invoices/total"),
+                new Endpoint("GET /vehicles", 10, r -> "/api/v1/vehicles?page=" + (1 + r.nextInt(50)) + "&size=20"),
+                new Endpoint("GET /fees", 5, r -> "/api/v1/fees"));
+    }
+
+    private static String searchQuery(Random random) {
+        String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+        // half the searches are still being typed
+        return random.nextBoolean() ? surname + "+" + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]
+                : surname.substring(0, 1 + random.nextInt(surname.length()));
+    }
+
+    // Latencies in nanoseconds, one per request; every worker has its own so recording is not contended
+    private static final class Recorder {
+        final long[][] latencies;
+        final int[] sizes;
+        final long[] errors;
+
+        Recorder(int endpoints) {
+            latencies = new long[endpoints][1024];
+            sizes = new int[endpoints];
+            errors = new long[endpoints];
+        }
+
+        void record(int endpoint, long nanos, boolean ok) {
+            if (sizes[endpoint] == latencies[endpoint].length) {
+                latencies[endpoint] = Arrays.copyOf(latencies[endpoint], sizes[endpoint] * 2);
+            }
+            latencies[endpoint][sizes[endpoint]++] = nanos;
+            if (!ok) {
+                errors[endpoint]++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int apartments = Integer.parseInt(options.getOrDefault("apartments", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0")); // requests per second, 0 for closed loop
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        String report = options.get("report");
+
+        List<Endpoint> mix = mix(apartments);
+        int[] picks = new int[mix.stream().mapToInt(Endpoint::weight).sum()];
+        for (int e = 0, p = 0; e < mix.size(); e++) {
+            for (int w = 0; w < mix.get(e).weight(); w++) {
+                picks[p++] = e;
+            }
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("%s: %d workers, %s, %d s warmup, %d s measured%n", baseUrl, concurrency,
+                rate > 0 ? String.format("%.0f req/s", rate) : "closed loop", warmup.toSeconds(), duration.toSeconds());
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long interval = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0; // between two requests of one worker
+        List<Recorder> recorders = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Recorder recorder = new Recorder(mix.size());
+            recorders.add(recorder);
+            Random random = new Random(seed + w);
+            long offset = interval * w / concurrency;
+            workers.execute(() -> {
+                long scheduled = System.nanoTime() + offset;
+                while (true) {
+                    if (interval > 0) {
+                        long wait = scheduled - System.nanoTime();
+                        if (wait > 0) {
+                            sleep(wait);
+                        }
+                    } else {
+                        scheduled = System.nanoTime();
+                    }
+                    if (scheduled >= end) {
+                        return;
+                    }
+                    int endpoint = picks[random.nextInt(picks.length)];
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + mix.get(endpoint).path().apply(random)))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long done = System.nanoTime();
+                    if (scheduled >= warmupEnd) {
+                        recorder.record(endpoint, done - scheduled, ok);
+                    }
+                    scheduled += interval;
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        String json = report(mix, recorders, duration);
+        if (report != null) {
+            Path path = Path.of(report);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, json);
+            System.out.println("Results written to " + path);
+        }
+    }
+
+    // Prints the table and returns the same numbers as JSON
+    private static String report(List<Endpoint> mix, List<Recorder> recorders, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        StringBuilder json = new StringBuilder("[\n");
+        System.out.printf("%-30s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long[] all = new long[0];
+        long allErrors = 0;
+        for (int e = 0; e <= mix.size(); e++) {
+            long[] latencies;
+            long errors = 0;
+            String name;
+            if (e < mix.size()) {
+                name = mix.get(e).name();
+                latencies = new long[0];
+                for (Recorder recorder : recorders) {
+                    latencies = concat(latencies, recorder.latencies[e], recorder.sizes[e]);
+                    errors += recorder.errors[e];
+                }
+                all = concat(all, latencies, latencies.length);
+                allErrors += errors;
+            } else {
+                name = "all";
+                latencies = all;
+                errors = allErrors;
+            }
+            Arrays.sort(latencies);
+            double throughput = latencies.length / seconds;
+            System.out.printf("%-30s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, latencies.length, errors, throughput,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99), percentile(latencies, 1.0));
+            json.append(String.format(Locale.ROOT, "  {\"endpoint\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughput\": %.2f, "
+                            + "\"p50\": %.3f, \"p95\": %.3f, \"p99\": %.3f, \"max\": %.3f}%s%n", name, latencies.length, errors, throughput,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99), percentile(latencies, 1.0),
+                    e < mix.size() ? "," : ""));
+        }
+        return json.append("]\n").toString();
+    }
+
+    // Nearest rank, in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static long[] concat(long[] head, long[] tail, int tailSize) {
+        long[] joined = Arrays.copyOf(head, head.length + tailSize);
+        System.arraycopy(tail, 0, joined, head.length, tailSize);
+        return joined;
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --name value pairs
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most a fixed number of requests run at once. The others wait up to maxWait for a slot and
+ * then get a 503 with Retry-After. On platform threads Tomcat's thread pool is the limit. On virtual
+ * threads there is none, so this keeps thousands of requests from queueing on the connection pool
+ * until they time out there. Actuator endpoints are not limited, so health checks answer under load.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitFilter(int permits, Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.meterRegistry = meterRegistry;
+        if (meterRegistry != null) {
+            meterRegistry.gauge("http.server.requests.limit.available", this.permits, Semaphore::availablePermits);
+            meterRegistry.gauge("http.server.requests.limit.waiting", this.permits, Semaphore::getQueueLength);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            if (meterRegistry != null) {
+                meterRegistry.counter("http.server.requests.limited").increment();
+            }
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportConfig {
+    // Background imports: a few workers and a short queue, submits beyond that are refused.
+    // With virtual threads the workers are virtual, the worker count and queue still bound the imports.
+    @Bean
+    public ThreadPoolTaskExecutor importExecutor(@Value("${import.executor.threads:2}") int threads,
+                                                 @Value("${import.executor.queue-capacity:10}") int queueCapacity,
+                                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("import-", 1).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
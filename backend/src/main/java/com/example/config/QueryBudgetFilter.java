@@ -0,0 +1,95 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the statements of each request with QueryCounter. Records them as metrics tagged with the
+ * route when a MeterRegistry is present, adds X-Query-* headers when enabled (dev), and logs a
+ * warning with the most repeated statement when a request goes over the budget.
+ */
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time-Ms";
+    public static final String DUPLICATES_HEADER = "X-Query-Duplicates";
+
+    private final int budget;
+    private final boolean headers;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(int budget, boolean headers, MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.headers = headers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // headers must be set before the body is written, so the body is held back until the counts are known
+        final var wrapped = headers ? new ContentCachingResponseWrapper(response) : null;
+        final var stats = QueryCounter.start();
+        try {
+            chain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            stats.close();
+            final var route = route(request);
+            if (wrapped != null) {
+                wrapped.setHeader(COUNT_HEADER, String.valueOf(stats.getStatements()));
+                wrapped.setHeader(TIME_HEADER, String.format("%.1f", stats.getMillis()));
+                wrapped.setHeader(DUPLICATES_HEADER, String.valueOf(stats.getDuplicates()));
+                wrapped.copyBodyToResponse();
+            }
+            if (meterRegistry != null && stats.getStatements() > 0) {
+                record(request.getMethod(), route, stats);
+            }
+            if (stats.getStatements() > budget) {
+                final var repeated = stats.getMostRepeated();
+                log.warn("{} {} ran {} statements (budget {}) in {} ms, {} duplicates; most repeated x{}: {}",
+                        request.getMethod(), request.getRequestURI(), stats.getStatements(), budget,
+                        String.format("%.1f", stats.getMillis()), stats.getDuplicates(),
+                        repeated.getValue(), repeated.getKey());
+            }
+        }
+    }
+
+    private void record(final String method, final String route, final QueryCounter.Stats stats) {
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("JDBC statements per request")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.queries.duplicates")
+                .description("Statements per request repeating an earlier statement shape")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record(stats.getDuplicates());
+        Timer.builder("http.server.requests.queries.time")
+                .description("JDBC time per request")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record((long) (stats.getMillis() * 1_000_000), TimeUnit.NANOSECONDS);
+        if (stats.getStatements() > budget) {
+            meterRegistry.counter("http.server.requests.queries.over.budget", "method", method, "uri", route).increment();
+        }
+    }
+
+    // The mapped pattern, e.g. /api/v1/residents/{id}, so ids do not create a metric per value
+    private static String route(final HttpServletRequest request) {
+        final var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
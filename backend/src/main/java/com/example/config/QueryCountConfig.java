@@ -0,0 +1,46 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class QueryCountConfig {
+    // Every DataSource reports its statements to QueryCounter; a statement outside a counting scope costs a ThreadLocal read
+    @Bean
+    public static BeanPostProcessor queryCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Ahead of the security filters, whose user lookups count towards the request
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            @Value("${query-budget.max-statements:30}") int budget,
+            @Value("${query-budget.headers:false}") boolean headers,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(budget, headers, meterRegistry.getIfAvailable()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
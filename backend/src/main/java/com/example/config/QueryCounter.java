@@ -0,0 +1,111 @@
+package com.example.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the JDBC statements run by the current thread between start() and close(), with their total time
+ * and how often each statement shape (the SQL with literals replaced by ?) repeats. Statements outside a
+ * scope, e.g. on import or scheduler threads, are not counted.
+ */
+public final class QueryCounter implements QueryExecutionListener {
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LISTS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    /**
+     * Start counting on this thread until the returned stats are closed. Scopes nest: a statement
+     * counts in every open scope, so a request counted inside a test still adds up in the test.
+     */
+    public static Stats start() {
+        final var stats = new Stats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final var stats = CURRENT.get();
+        if (stats != null) {
+            stats.startedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final var stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(System.nanoTime() - stats.startedAt, queryInfoList);
+        }
+    }
+
+    // "... WHERE id = 42 AND name IN ('a', 'b')" and "... WHERE id = ? AND name IN (?)" have the same shape
+    static String shape(final String sql) {
+        final var withoutLiterals = LITERALS.matcher(sql).replaceAll("?");
+        return IN_LISTS.matcher(withoutLiterals).replaceAll("(?)").replaceAll("\\s+", " ").trim();
+    }
+
+    public static final class Stats implements AutoCloseable {
+        private final Stats outer;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private long startedAt;
+        private int statements;
+        private long nanos;
+
+        private Stats(Stats outer) {
+            this.outer = outer;
+        }
+
+        private void record(final long elapsed, final List<QueryInfo> queries) {
+            for (var stats = this; stats != null; stats = stats.outer) {
+                stats.statements++;
+                stats.nanos += elapsed;
+                for (QueryInfo query : queries) {
+                    stats.shapes.merge(shape(query.getQuery()), 1, Integer::sum);
+                }
+            }
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        // Statements that repeat a shape already run in this scope, the usual sign of an N+1
+        public int getDuplicates() {
+            int duplicates = 0;
+            for (int count : shapes.values()) {
+                duplicates += count - 1;
+            }
+            return duplicates;
+        }
+
+        public Map.Entry<String, Integer> getMostRepeated() {
+            return shapes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+            }
+        }
+    }
+}
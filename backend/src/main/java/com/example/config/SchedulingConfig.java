@@ -0,0 +1,10 @@
+package com.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Housekeeping jobs, e.g. sweeping expired idempotency keys
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
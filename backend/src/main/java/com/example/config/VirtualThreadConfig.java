@@ -0,0 +1,34 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * With spring.threads.virtual.enabled Boot runs Tomcat requests, @Async methods and scheduled jobs on
+ * virtual threads, and ImportConfig does the same for imports. What remains here is the limit on
+ * concurrent requests that Tomcat's thread pool used to provide.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    // 0 permits: twice the pool size, a request holds a connection only for its transactions
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${request-limit.permits:0}") int permits,
+            @Value("${request-limit.max-wait:2s}") Duration maxWait,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(permits > 0 ? permits : poolSize * 2, maxWait, meterRegistry.getIfAvailable()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
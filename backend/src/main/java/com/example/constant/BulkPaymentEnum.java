@@ -0,0 +1,5 @@
+package com.example.constant;
+
+public enum BulkPaymentEnum {
+    Paid, AlreadyPaid, NotFound
+}
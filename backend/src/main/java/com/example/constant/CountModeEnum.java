@@ -0,0 +1,14 @@
+package com.example.constant;
+
+//How a paginated list computes totalElements and totalPages
+public enum CountModeEnum {
+    Exact, Estimate, None;
+    public static CountModeEnum fromString(String mode){
+        for(CountModeEnum val : CountModeEnum.values()){
+            if(val.name().equalsIgnoreCase(mode))
+                return val;
+        }
+        throw new IllegalArgumentException("Invalid count mode "+mode);
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.example.constant;
+
+public enum ImportJobEnum {
+    Queued, Running, Completed, Failed
+}
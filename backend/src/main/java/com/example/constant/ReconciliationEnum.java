@@ -0,0 +1,6 @@
+package com.example.constant;
+
+// Why a statement line was not matched to an unpaid row
+public enum ReconciliationEnum {
+    NoApartmentReference, NoInvoiceReference, NotFoundOrPaid, Ambiguous, AmountMismatch, Duplicate
+}
@@ -0,0 +1,25 @@
+package com.example.controller;
+
+import com.example.dto.response.CacheRegionStatsResponse;
+import com.example.service.CacheStatisticsService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/cache")
+@CrossOrigin(origins = "http://localhost:5173")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    // hits, misses and size of every second-level cache region
+    @GetMapping("/regions")
+    public ResponseEntity<List<CacheRegionStatsResponse>> getRegionStatistics() {
+        return ResponseEntity.status(HttpStatus.OK).body(this.cacheStatisticsService.getRegionStatistics());
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.controller;
 
 import com.example.dto.request.FeeCreateRequest;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.ApiResponse;
+import com.example.dto.response.FeeCatalogStatsResponse;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Fee;
 import com.example.entity.Resident;
+import com.example.service.FeeCatalog;
 import com.example.service.FeeService;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.validation.Valid;
@@ -23,19 +26,33 @@ import org.springframework.web.bind.annotation.*;
 public class FeeController {
 
     private final FeeService feeService;
+    private final FeeCatalog feeCatalog;
 
     // fetch all fees
     @GetMapping("")
     public ResponseEntity<PaginatedResponse<Fee>> getAllFees(
             @Filter Specification<Fee> spec,
             @RequestParam(value = "page", defaultValue = "1") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @RequestParam(value = "filter", required = false) String filter
     ) {
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.feeService.fetchAllFees(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<Fee> feeResponses = this.feeService.fetchAllFees(spec, pageable);
+        PaginatedResponse<Fee> feeResponses = this.feeService.fetchAllFees(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(feeResponses);
     }
 
+    // hit, miss and reload counters of the in-process fee catalog
+    @GetMapping("/catalog/stats")
+    public ResponseEntity<FeeCatalogStatsResponse> getCatalogStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(this.feeCatalog.stats());
+    }
+
     // fetch fee by feeCode
     @GetMapping("/{id}")
     public ResponseEntity<Fee> getFeeByFeeCode(
@@ -1,9 +1,8 @@
 package com.example.controller;
 
+import com.example.dto.request.BulkPaymentRequest;
 import com.example.dto.response.InvoiceApartmentResponse;
-import com.example.entity.Invoice;
-import com.example.entity.InvoiceApartment;
-import com.example.repository.InvoiceApartmentRepository;
+import com.example.service.IdempotencyService;
 import com.example.service.InvoiceService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -22,22 +21,36 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:5173")
 public class InvoiceApartmentController {
     InvoiceService invoiceService;
-    private final InvoiceApartmentRepository invoiceApartmentRepository;
+    IdempotencyService idempotencyService;
 
     @GetMapping("/{id}")
     public ResponseEntity<List<InvoiceApartmentResponse>> getAllInvoicesByApartmentId(@PathVariable("id") Long apartmentId) {
         return ResponseEntity.status(HttpStatus.OK).body(invoiceService.fetchAllInvoicesByApartmentId(apartmentId));
     }
 
+    // a retry with the same Idempotency-Key replays the first response instead of updating again
     @PostMapping("/update/{id}")
-    public ResponseEntity<InvoiceApartment> updateInvoice(@PathVariable("id") Long id) {
-        return ResponseEntity.status(HttpStatus.OK).body(invoiceService.updateInvoiceApartment(id));
+    public ResponseEntity<?> updateInvoice(@PathVariable("id") Long id,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.OK).body(idempotencyService.execute(idempotencyKey,
+                "POST /invoiceapartment/update", id, () -> invoiceService.updateInvoiceApartment(id)));
     }
 
+    // mark many invoice apartments paid at once, by id or (invoiceId, apartmentId), returns the outcome of each
+    @PostMapping("/payments")
+    public ResponseEntity<?> payInvoiceApartments(@RequestBody BulkPaymentRequest request,
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.OK).body(idempotencyService.execute(idempotencyKey,
+                "POST /invoiceapartment/payments", request, () -> invoiceService.payInvoiceApartments(request)));
+    }
+
+    // pays the invoice and merges its contribution amounts; returns only that invoice, or every invoice of the apartment with full=true
     @PutMapping("/update/{apartmentId}/{invoiceId}")
-    public ResponseEntity<List<InvoiceApartmentResponse>> updateInvoiceApartment(@PathVariable("apartmentId") Long apartmentId, @PathVariable("invoiceId") String invoiceId, @RequestBody Map<Long, Double> feeAmounts) {
-        InvoiceApartment invoiceApartment = invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber(invoiceId, apartmentId);
-        invoiceService.updateInvoiceApartment(invoiceApartment.getId());
-        return ResponseEntity.status(HttpStatus.OK).body(invoiceService.updateContributionFund(apartmentId, invoiceId, feeAmounts));
+    public ResponseEntity<?> updateInvoiceApartment(@PathVariable("apartmentId") Long apartmentId, @PathVariable("invoiceId") String invoiceId, @RequestBody Map<Long, Double> feeAmounts,
+                                                    @RequestParam(value = "full", defaultValue = "false") boolean full,
+                                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.OK).body(idempotencyService.execute(idempotencyKey,
+                "PUT /invoiceapartment/update", List.of(apartmentId, invoiceId, feeAmounts, full),
+                () -> invoiceService.payAndUpdateContributionFund(apartmentId, invoiceId, feeAmounts, full)));
     }
 }
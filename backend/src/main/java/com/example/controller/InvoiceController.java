@@ -1,12 +1,15 @@
 package com.example.controller;
 
 import com.example.dto.request.InvoiceRequest;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.ApiResponse;
 import com.example.dto.response.InvoiceResponse;
+import com.example.dto.response.InvoiceTotalsRebuildResponse;
 import com.example.dto.response.PaginatedResponse;
 import com.example.dto.response.TotalInvoiceResponse;
 import com.example.entity.Invoice;
 import com.example.service.InvoiceService;
+import com.example.service.InvoiceTotalsService;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -25,14 +28,22 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class InvoiceController {
     private final InvoiceService invoiceService;
+    private final InvoiceTotalsService invoiceTotalsService;
 
     //fetch all invoices
     @GetMapping
     public ResponseEntity<PaginatedResponse<InvoiceResponse>> getAllInvoices(@Filter Specification<Invoice> spec,
                                                                              @RequestParam(value = "page", defaultValue = "1") int page,
-                                                                             @RequestParam(value = "size", defaultValue = "10") int size){
+                                                                             @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                             @RequestParam(value = "after", required = false) String after,
+                                                                             @RequestParam(value = "count", defaultValue = "exact") String count,
+                                                                             @RequestParam(value = "filter", required = false) String filter){
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.invoiceService.fetchAllInvoices(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<InvoiceResponse> invoiceResponses = this.invoiceService.fetchAllInvoices(spec, pageable);
+        PaginatedResponse<InvoiceResponse> invoiceResponses = this.invoiceService.fetchAllInvoices(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(invoiceResponses);
     }
 
@@ -49,6 +60,12 @@ public class InvoiceController {
         return ResponseEntity.status(HttpStatus.OK).body(invoiceService.getAllTotalInvoices());
     }
 
+    //recompute the summary read model, dryRun only reports the invoices whose stored totals drifted
+    @PostMapping("/total/rebuild")
+    public ResponseEntity<InvoiceTotalsRebuildResponse> rebuildInvoiceTotal(@RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.status(HttpStatus.OK).body(invoiceTotalsService.rebuild(dryRun));
+    }
+
     @PostMapping
     public ResponseEntity<InvoiceResponse> createInvoice(@Valid @RequestBody InvoiceRequest apiInvoice) throws Exception  {
         InvoiceResponse invoice = this.invoiceService.createInvoice(apiInvoice);
@@ -62,6 +79,13 @@ public class InvoiceController {
         return ResponseEntity.status(HttpStatus.OK).body(invoice);
     }
 
+    //price the invoice again from current fees, areas and vehicles
+    @PostMapping("/{id}/recalculate")
+    public ResponseEntity<ApiResponse<String>> recalculateInvoice(@PathVariable("id") String id) throws Exception {
+        ApiResponse<String> response = this.invoiceService.recalculateInvoice(id);
+        return ResponseEntity.ok(response);
+    }
+
     //Delete resident by feeCode
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteInvoice(@PathVariable("id") String id) throws Exception {
@@ -0,0 +1,27 @@
+package com.example.controller;
+
+import com.example.dto.response.ReconciliationResponse;
+import com.example.service.ReconciliationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/reconciliations")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    // match a bank CSV statement to unpaid invoices and utility bills; dryRun only reports
+    @PostMapping("")
+    public ResponseEntity<ReconciliationResponse> reconcile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(this.reconciliationService.reconcile(file, dryRun));
+    }
+}
@@ -2,9 +2,14 @@ package com.example.controller;
 
 import com.example.dto.request.ResidentCreateRequest;
 import com.example.dto.request.ResidentUpdateRequest;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.ApiResponse;
+import com.example.dto.response.ImportJobResponse;
+import com.example.dto.response.ResidentSearchResponse;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Resident;
+import com.example.service.ResidentImportService;
+import com.example.service.ResidentSearchIndex;
 import com.example.service.ResidentService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -14,23 +19,35 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.turkraft.springfilter.boot.Filter;
 
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/v1/residents")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ResidentController {
     private final ResidentService residentService;
+    private final ResidentImportService residentImportService;
+    private final ResidentSearchIndex residentSearchIndex;
 
     // fetch all residents
     @GetMapping("")
     public ResponseEntity<PaginatedResponse<Resident>> getAllResidents(@Filter Specification<Resident> spec,
             @RequestParam(value = "page", defaultValue = "1") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @RequestParam(value = "filter", required = false) String filter) {
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.residentService.fetchAllResidents(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<Resident> residentResponses = this.residentService.fetchAllResidents(spec, pageable);
+        PaginatedResponse<Resident> residentResponses = this.residentService.fetchAllResidents(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(residentResponses);
     }
 
@@ -42,6 +59,25 @@ public class ResidentController {
         return new ResponseEntity<>(resident, HttpStatus.CREATED);
     }
 
+    // Ranked name / CIC autocomplete from the in-memory index, instead of a '*name*' filter
+    @GetMapping("/search")
+    public ResponseEntity<List<ResidentSearchResponse>> searchResidents(@RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(this.residentSearchIndex.search(query, limit));
+    }
+
+    // Bulk import from a .csv or .xlsx file, runs in the background
+    @PostMapping("/import")
+    public ResponseEntity<ImportJobResponse> importResidents(@RequestParam("file") MultipartFile file) {
+        // poll GET /import/{jobId} for progress and rejected rows
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(this.residentImportService.submit(file));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(this.residentImportService.getJob(jobId));
+    }
+
     // fetch resident by id
     @GetMapping("/{id}")
     public ResponseEntity<Resident> getResidentById(@PathVariable("id") long id) throws Exception {
@@ -67,9 +103,16 @@ public class ResidentController {
     @GetMapping("/all")
     public ResponseEntity<PaginatedResponse<Resident>> getAll(@Filter Specification<Resident> spec,
             @RequestParam(value = "page", defaultValue = "1") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @RequestParam(value = "filter", required = false) String filter) {
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.residentService.fetchAll(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<Resident> residentResponses = this.residentService.fetchAll(spec, pageable);
+        PaginatedResponse<Resident> residentResponses = this.residentService.fetchAll(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(residentResponses);
     }
     
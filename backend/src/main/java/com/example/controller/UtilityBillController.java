@@ -1,10 +1,15 @@
 package com.example.controller;
 
+import com.example.dto.request.BulkPaymentRequest;
+import com.example.dto.request.PageCountRequest;
+import com.example.dto.response.ImportJobResponse;
 import com.example.dto.response.InvoiceResponse;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.InvoiceApartment;
 import com.example.entity.Resident;
 import com.example.entity.UtilityBill;
+import com.example.service.IdempotencyService;
+import com.example.service.UtilityBillImportService;
 import com.example.service.UtilityBillService;
 import com.turkraft.springfilter.boot.Filter;
 import lombok.AccessLevel;
@@ -28,24 +33,39 @@ import java.util.List;
 public class UtilityBillController {
 
     UtilityBillService utilityBillService;
+    UtilityBillImportService utilityBillImportService;
+    IdempotencyService idempotencyService;
 
     @PostMapping("/import")
     public ResponseEntity<?> importUtilityBills(
             @RequestParam("file") MultipartFile file,
             @RequestParam("name") String name
     ) {
-        List<UtilityBill> utilityBills = utilityBillService.importExcel(file, name);
-        return ResponseEntity.ok(utilityBills);
+        // runs in the background, poll GET /import/{jobId} for progress and rejected rows
+        ImportJobResponse job = utilityBillImportService.submit(file, name);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(utilityBillImportService.getJob(jobId));
     }
 
     @GetMapping
     public ResponseEntity<?> getAllUtilityBills(
             @Filter Specification<UtilityBill> spec,
             @RequestParam(value = "page", defaultValue = "1") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", defaultValue = "exact") String count,
+            @RequestParam(value = "filter", required = false) String filter
     ) {
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.utilityBillService.fetchUtilityBills(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<UtilityBill> responses = this.utilityBillService.fetchUtilityBills(spec, pageable);
+        PaginatedResponse<UtilityBill> responses = this.utilityBillService.fetchUtilityBills(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(responses);
     }
 
@@ -58,12 +78,21 @@ public class UtilityBillController {
         );
     }
 
+    // a retry with the same Idempotency-Key replays the first response instead of updating again
     @PostMapping("/update/{id}")
-    public ResponseEntity<UtilityBill> updateUtilityBill(
-            @PathVariable("id") Long id
+    public ResponseEntity<?> updateUtilityBill(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        return ResponseEntity.status(HttpStatus.OK).body(
-                utilityBillService.updateUtilityBill(id)
-        );
+        return ResponseEntity.status(HttpStatus.OK).body(idempotencyService.execute(idempotencyKey,
+                "POST /utilitybills/update", id, () -> utilityBillService.updateUtilityBill(id)));
+    }
+
+    // mark many bills paid at once, returns the outcome of every id
+    @PostMapping("/payments")
+    public ResponseEntity<?> payUtilityBills(@RequestBody BulkPaymentRequest request,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.OK).body(idempotencyService.execute(idempotencyKey,
+                "POST /utilitybills/payments", request, () -> utilityBillService.payUtilityBills(request)));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.example.controller;
 
 
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.ApiResponse;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Vehicle;
@@ -34,9 +35,16 @@ public class VehicleController {
     @GetMapping
     public ResponseEntity<PaginatedResponse<Vehicle>> getAllVehicles(@Filter Specification<Vehicle> spec,
                                                                      @RequestParam(value = "page", defaultValue = "1") int page,
-                                                                     @RequestParam(value = "size", defaultValue = "10") int size){
+                                                                     @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                     @RequestParam(value = "after", required = false) String after,
+                                                                     @RequestParam(value = "count", defaultValue = "exact") String count,
+                                                                     @RequestParam(value = "filter", required = false) String filter){
+        // cursor mode when "after" is sent, empty for the first page
+        if (after != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(vehicleService.getAll(spec, after, size));
+        }
         Pageable pageable = PageRequest.of(page - 1, size);
-        PaginatedResponse<Vehicle> result = vehicleService.getAll(spec, pageable);
+        PaginatedResponse<Vehicle> result = vehicleService.getAll(spec, pageable, PageCountRequest.of(count, filter));
         return ResponseEntity.status(HttpStatus.OK).body(result);
     }
 
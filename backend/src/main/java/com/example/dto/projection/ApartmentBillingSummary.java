@@ -0,0 +1,15 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Billing inputs of one apartment, read without loading its residents and vehicles
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ApartmentBillingSummary {
+    Long addressNumber;
+    double area;
+    Long numberOfCars;
+    Long numberOfMotorbikes;
+}
@@ -0,0 +1,30 @@
+package com.example.dto.projection;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.PaymentEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+//One (invoice, fee) pair billed to an apartment; fee columns are null when the invoice has no fee
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ApartmentInvoiceFeeRow {
+    Long invoiceApartmentId;
+    String invoiceId;
+    String invoiceName;
+    String invoiceDescription;
+    Instant updatedAt;
+    LocalDate createdAt;
+    PaymentEnum paymentStatus;
+    Instant pricedAt;
+    Long feeId;
+    String feeName;
+    FeeTypeEnum feeType;
+    BigDecimal unitPrice;
+    Double lineAmount; // frozen amount of this fee, null when not priced at issuance
+}
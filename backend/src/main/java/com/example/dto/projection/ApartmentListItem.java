@@ -0,0 +1,75 @@
+package com.example.dto.projection;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.VehicleEnum;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+//One row of the apartment list, with member and vehicle counts computed in the page query.
+//Residents and vehicles are filled by one query each for the whole page; the edit form opened from the list sends the residents back
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ApartmentListItem {
+    Long addressNumber;
+    double area;
+    ApartmentEnum status;
+    Instant createdAt;
+    Instant updatedAt;
+    Owner owner;
+    Long ownerPhone;
+    Long numberOfMembers;
+    Long numberOfMotorbikes;
+    Long numberOfCars;
+    List<Member> residentList = new ArrayList<>();
+    List<VehicleItem> vehicleList = new ArrayList<>();
+
+    public ApartmentListItem(Long addressNumber, double area, ApartmentEnum status, Instant createdAt, Instant updatedAt,
+                             Long ownerId, String ownerName, Long ownerPhone,
+                             Long numberOfMembers, Long numberOfMotorbikes, Long numberOfCars) {
+        this.addressNumber = addressNumber;
+        this.area = area;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.owner = ownerId == null ? null : new Owner(ownerId, ownerName);
+        this.ownerPhone = ownerPhone;
+        this.numberOfMembers = numberOfMembers;
+        this.numberOfMotorbikes = numberOfMotorbikes;
+        this.numberOfCars = numberOfCars;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Owner {
+        Long id;
+        String name;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Member {
+        @JsonIgnore
+        Long apartmentId;
+        Long id;
+        String name;
+        LocalDate dob;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class VehicleItem {
+        @JsonIgnore
+        Long apartmentId;
+        String id;
+        VehicleEnum category;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.dto.projection;
+
+import com.example.constant.PaymentEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Sum of an amount column over the apartments of one invoice, split by payment status
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceAmountSummary {
+    String invoiceId;
+    PaymentEnum paymentStatus;
+    Double amount;
+}
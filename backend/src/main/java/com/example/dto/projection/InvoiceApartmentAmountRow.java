@@ -0,0 +1,18 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+//Unpaid InvoiceApartment with the amount a transfer must cover
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceApartmentAmountRow {
+    Long id;
+    String invoiceId;
+    Long apartmentId;
+    Instant pricedAt; // null when issued before amounts were frozen, the amount is then unknown
+    Double amount; // sum of the frozen line amounts, null without lines
+}
@@ -0,0 +1,15 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Billing inputs of one InvoiceApartment: the apartment's area and vehicle counts
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceApartmentBillingRow {
+    Long invoiceApartmentId;
+    double area;
+    Long numberOfCars;
+    Long numberOfMotorbikes;
+}
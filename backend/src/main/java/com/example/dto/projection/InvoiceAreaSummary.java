@@ -0,0 +1,20 @@
+package com.example.dto.projection;
+
+import com.example.constant.PaymentEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+
+//Sum of apartment areas billed by one invoice, split by payment status
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceAreaSummary {
+    String invoiceId;
+    String name;
+    LocalDate createdAt;
+    PaymentEnum paymentStatus;
+    Double totalArea;
+    Long apartments;
+}
@@ -0,0 +1,14 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//One entry of InvoiceApartment.feeAmounts
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceFeeAmountRow {
+    Long invoiceApartmentId;
+    Long feeId;
+    Double amount;
+}
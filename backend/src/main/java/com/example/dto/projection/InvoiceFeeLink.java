@@ -0,0 +1,13 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//One fee_invoice row, without loading the fee or the invoice
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceFeeLink {
+    String invoiceId;
+    Long feeId;
+}
@@ -0,0 +1,17 @@
+package com.example.dto.projection;
+
+import com.example.constant.PaymentEnum;
+import com.example.constant.VehicleEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Number of vehicles of one category billed by one invoice, split by payment status
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceVehicleSummary {
+    String invoiceId;
+    PaymentEnum paymentStatus;
+    VehicleEnum category;
+    Long count;
+}
@@ -0,0 +1,16 @@
+package com.example.dto.projection;
+
+import com.example.constant.PaymentEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Payment status of one InvoiceApartment or UtilityBill, read before a bulk payment
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PaymentStatusRow {
+    Long id;
+    String invoiceId; // null for utility bills
+    Long apartmentId;
+    PaymentEnum paymentStatus;
+}
@@ -0,0 +1,14 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//The resident columns the search index is built from
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ResidentSearchRow {
+    Long id;
+    String name;
+    String cic;
+}
@@ -0,0 +1,14 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Unpaid apartments of one invoice among the rows of a payment, and how many of them have no frozen amounts
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UnpaidInvoiceSummary {
+    String invoiceId;
+    Long apartments;
+    Long unpriced;
+}
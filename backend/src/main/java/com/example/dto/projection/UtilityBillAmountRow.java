@@ -0,0 +1,14 @@
+package com.example.dto.projection;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Unpaid utility bill with the amount a transfer must match
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UtilityBillAmountRow {
+    Long id;
+    Long apartmentId;
+    Double amount; // electricity + water + internet
+}
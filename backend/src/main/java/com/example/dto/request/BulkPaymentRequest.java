@@ -0,0 +1,26 @@
+package com.example.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Rows to mark paid, by id and/or by (invoiceId, apartmentId)
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaymentRequest {
+    List<Long> ids = new ArrayList<>();
+    List<InvoiceApartmentKey> pairs = new ArrayList<>();
+
+    @Data
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvoiceApartmentKey {
+        String invoiceId;
+        Long apartmentId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.dto.request;
+
+import com.example.constant.CountModeEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+//Count mode of a list request, with the raw filter used as the key of cached counts
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PageCountRequest {
+    CountModeEnum mode;
+    String filter;
+
+    public static PageCountRequest of(String mode, String filter) {
+        return new PageCountRequest(CountModeEnum.fromString(mode), filter);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.dto.response;
+
+import com.example.constant.BulkPaymentEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPaymentResponse {
+    int paid;
+    int alreadyPaid;
+    int notFound;
+    List<Outcome> outcomes; // one per requested id or pair, in request order
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Outcome {
+        Long id; // null for a pair that matched no row
+        String invoiceId;
+        Long apartmentId;
+        BulkPaymentEnum outcome;
+    }
+}
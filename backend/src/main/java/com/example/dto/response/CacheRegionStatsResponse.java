@@ -0,0 +1,19 @@
+package com.example.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsResponse {
+    String region;
+    long hits;
+    long misses;
+    long puts;
+    long elementsInMemory; // -1 when the provider does not report it
+    double hitRatio;
+}
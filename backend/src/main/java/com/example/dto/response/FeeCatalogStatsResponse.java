@@ -0,0 +1,21 @@
+package com.example.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeCatalogStatsResponse {
+    long version;
+    long hits;
+    long misses;
+    long reloads; // successful snapshot loads
+    long loadFailures;
+    double averageLoadMillis;
+    int fees;
+    int invoices;
+}
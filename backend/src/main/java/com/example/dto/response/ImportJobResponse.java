@@ -0,0 +1,37 @@
+package com.example.dto.response;
+
+import com.example.constant.ImportJobEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobResponse {
+    String jobId;
+    String name;
+    ImportJobEnum status;
+    long rowsProcessed;
+    long rowsImported;
+    long rowsRejected;
+    double rowsPerSecond;
+    List<RejectedRow> rejectedRows; // first rejected rows only, see rowsRejected for the count
+    String error;
+    Instant submittedAt;
+    Instant startedAt;
+    Instant finishedAt;
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RejectedRow {
+        int rowNumber; // as shown in Excel, the header is row 1
+        String reason;
+    }
+}
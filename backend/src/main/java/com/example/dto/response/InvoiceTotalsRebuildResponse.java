@@ -0,0 +1,18 @@
+package com.example.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceTotalsRebuildResponse {
+    boolean dryRun; // drift reported, the read model was not replaced
+    int invoices;
+    List<String> drifted; // invoices whose stored totals differed from the recomputed ones
+}
@@ -15,6 +15,8 @@ public class PaginatedResponse <T> {
     int totalPages;
     int pageSize;
     int curPage;
-    int totalElements;
+    long totalElements;
     List<T> result;
+    Boolean hasNext; // set by lists that know it without counting, null otherwise
+    String nextCursor; // only in cursor mode, null on the last page
 }
@@ -0,0 +1,46 @@
+package com.example.dto.response;
+
+import com.example.constant.ReconciliationEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationResponse {
+    boolean dryRun; // nothing was marked paid
+    int transactions;
+    int matched;
+    int invoiceApartmentsPaid;
+    int utilityBillsPaid;
+    List<Match> matches;
+    List<Issue> exceptions; // every line that needs a manual check
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Match {
+        int line; // line in the statement, the header is line 1
+        String kind; // InvoiceApartment or UtilityBill
+        Long id;
+        Long apartmentId;
+        String invoiceId;
+        Double amount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Issue {
+        int line;
+        String description;
+        Double amount;
+        ReconciliationEnum reason;
+        String detail;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResidentSearchResponse {
+    Long id;
+    String name;
+    String cic;
+    int score; // higher ranks first
+}
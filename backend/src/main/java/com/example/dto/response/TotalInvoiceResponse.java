@@ -18,4 +18,6 @@ public class TotalInvoiceResponse {
     double totalAmount;
     double paidAmount;
     double contributionAmount;
+    long apartmentCount;
+    long unpaidCount;
 }
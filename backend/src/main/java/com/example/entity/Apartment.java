@@ -6,6 +6,8 @@ import com.example.constant.VehicleEnum;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -16,6 +18,8 @@ import java.util.Optional;
 
 @Entity
 @Table(name = "apartments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @AllArgsConstructor
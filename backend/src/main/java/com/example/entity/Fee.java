@@ -3,6 +3,8 @@ package com.example.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.example.constant.FeeTypeEnum;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -12,6 +14,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "fees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -0,0 +1,31 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+// Result of a request sent with an Idempotency-Key header, replayed when the request is retried
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    String key;
+
+    // SHA-256 of the operation and request body, a reused key with another request is refused
+    @Column(name = "request_hash", length = 64, nullable = false)
+    String requestHash;
+
+    @Column(columnDefinition = "TEXT")
+    String response; // JSON, null while the first request is still running
+
+    @Column(name = "expires_at", nullable = false)
+    Instant expiresAt;
+}
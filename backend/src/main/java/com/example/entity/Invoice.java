@@ -2,6 +2,8 @@ package com.example.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -11,6 +13,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "invoices")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -26,6 +30,7 @@ public class Invoice {
 
     @JsonIgnore  //hide this field
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL)  //cascade: used for auto updating at fees and invoices table
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     List<FeeInvoice> feeInvoices;
 
     @JsonIgnore  //hide this field
@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 
+import java.time.Instant;
 import java.util.Map;
 
 @Entity
@@ -35,4 +36,20 @@ public class  InvoiceApartment {
     @MapKeyColumn(name = "fee_id")
     @Column(name = "amount")
     Map<Long, Double> feeAmounts; // Key: Fee ID, Value: Amount
+
+    // Amounts of the priced fees, frozen when the invoice was issued or last recalculated
+    @ElementCollection
+    @CollectionTable(name = "invoice_apartment_lines",
+            joinColumns = @JoinColumn(name = "invoice_apartment_id"))
+    @MapKeyColumn(name = "fee_id")
+    @Column(name = "amount")
+    Map<Long, Double> lineAmounts; // Key: Fee ID, Value: Amount
+
+    Instant pricedAt; // null for rows issued before snapshots, which are still priced on read
+
+    // Optimistic locking: concurrent payment or contribution updates fail instead of overwriting each other.
+    // The column default gives rows created before the column existed version 0.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long version;
 }
@@ -0,0 +1,36 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Read model of the invoice summary, one row per billed invoice, kept up to date by InvoiceTotalsService
+@Entity
+@Table(name = "invoice_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceTotals {
+    @Id
+    @Column(name = "invoice_id")
+    String invoiceId;
+
+    String name;
+    LocalDate createDate;
+    double totalAmount;
+    double paidAmount;
+    double contributionAmount;
+    long apartmentCount;
+    long unpaidCount;
+    Instant updatedAt;
+
+    public InvoiceTotals(String invoiceId, String name, LocalDate createDate) {
+        this.invoiceId = invoiceId;
+        this.name = name;
+        this.createDate = createDate;
+    }
+}
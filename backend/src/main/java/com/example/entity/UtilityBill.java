@@ -34,6 +34,11 @@ public class UtilityBill {
 
     LocalDate createdAt;
 
+    // Optimistic locking, see InvoiceApartment.version
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long version;
+
     @PrePersist
     public void beforeCreate() {
         this.createdAt = LocalDate.now();
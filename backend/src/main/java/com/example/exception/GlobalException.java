@@ -2,6 +2,7 @@ package com.example.exception;
 
 import com.google.api.client.auth.oauth2.TokenResponseException;
 import com.example.dto.response.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -29,6 +30,31 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(res);
     }
 
+    // Concurrent payment updates: the loser gets 409 and should reload before retrying
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiResponse<Object> res = new ApiResponse<>();
+        res.setCode(HttpStatus.CONFLICT.value());
+        res.setMessage("The record was changed by another request, reload and try again");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(res);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        ApiResponse<Object> res = new ApiResponse<>();
+        res.setCode(HttpStatus.CONFLICT.value());
+        res.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(res);
+    }
+
+    @ExceptionHandler(StatisticsDisabledException.class)
+    public ResponseEntity<ApiResponse<Object>> handleStatisticsDisabledException(StatisticsDisabledException ex) {
+        ApiResponse<Object> res = new ApiResponse<>();
+        res.setCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        res.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(res);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse<Object>> handleBadCredentialsException(BadCredentialsException ex) {
         ApiResponse<Object> res = new ApiResponse<>();
@@ -0,0 +1,8 @@
+package com.example.exception;
+
+// An Idempotency-Key is still running or was used for another request
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
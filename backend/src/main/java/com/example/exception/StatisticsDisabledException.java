@@ -0,0 +1,8 @@
+package com.example.exception;
+
+// Hibernate statistics are off (cache.statistics), so there are no cache counters to report
+public class StatisticsDisabledException extends RuntimeException {
+    public StatisticsDisabledException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,46 @@
 package com.example.repository;
 
+import com.example.dto.projection.ApartmentBillingSummary;
 import com.example.entity.Apartment;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ApartmentRepository extends JpaRepository<Apartment, Long>, JpaSpecificationExecutor<Apartment> {
+public interface ApartmentRepository extends JpaRepository<Apartment, Long>, JpaSpecificationExecutor<Apartment>,
+        ApartmentRepositoryCustom {
     @EntityGraph(attributePaths = { "residentList", "owner" })
     Optional<Apartment> findById(Long addressNumber);
 
     @EntityGraph(attributePaths = { "residentList", "owner" })
     Optional<Apartment> findByOwner_Id(Long ownerId);
 
+    @Query("SELECT a.addressNumber FROM Apartment a WHERE a.owner.id = :ownerId")
+    Optional<Long> findAddressNumberByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Owner moved out or deleted, without loading the apartment and its residents
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Apartment a SET a.owner = null, a.ownerPhone = null, a.updatedAt = :now WHERE a.addressNumber = :addressNumber")
+    int clearOwner(@Param("addressNumber") Long addressNumber, @Param("now") Instant now);
+
+    @Query("SELECT new com.example.dto.projection.ApartmentBillingSummary(a.addressNumber, a.area, " +
+            "(SELECT COUNT(v) FROM Vehicle v WHERE v.apartment = a AND v.category = com.example.constant.VehicleEnum.Car), " +
+            "(SELECT COUNT(v) FROM Vehicle v WHERE v.apartment = a AND v.category = com.example.constant.VehicleEnum.Motorbike)) " +
+            "FROM Apartment a WHERE a.addressNumber = :addressNumber")
+    Optional<ApartmentBillingSummary> findBillingSummaryById(@Param("addressNumber") Long addressNumber);
+
+    // Streams ids only, for imports that check many rows against the apartment table; needs a transaction
+    @Query("SELECT a.addressNumber FROM Apartment a")
+    Stream<Long> streamAllAddressNumbers();
+
+    @Query("SELECT COUNT(a) FROM Apartment a")
+    long countAll();
 }
@@ -0,0 +1,29 @@
+package com.example.repository;
+
+import com.example.dto.projection.ApartmentListItem;
+import com.example.entity.Apartment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ApartmentRepositoryCustom {
+    /**
+     * Page of apartments matching the filter, read as projections so no Apartment entity is loaded.
+     * Every finder fills the residents and vehicles of the returned rows with one query each
+     */
+    Page<ApartmentListItem> findListItems(Specification<Apartment> spec, Pageable pageable);
+
+    /**
+     * Up to limit apartments matching the filter from offset, without a count query
+     */
+    List<ApartmentListItem> findListItems(Specification<Apartment> spec, long offset, int limit, Sort sort);
+
+    /**
+     * Up to limit apartments matching the filter with an address number above afterAddressNumber
+     * (all when null), ordered by address number. No count query is run
+     */
+    List<ApartmentListItem> findListItemsAfter(Specification<Apartment> spec, Long afterAddressNumber, int limit);
+}
@@ -0,0 +1,140 @@
+package com.example.repository;
+
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.projection.ApartmentListItem;
+import com.example.entity.Apartment;
+import com.example.entity.Resident;
+import com.example.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Criteria queries for ApartmentRepository that need a Specification and a constructor projection together
+public class ApartmentRepositoryImpl implements ApartmentRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ApartmentListItem> findListItems(Specification<Apartment> spec, Pageable pageable) {
+        TypedQuery<ApartmentListItem> query = listItemQuery(spec, null, pageable.getSort());
+        List<ApartmentListItem> content = withResidentsAndVehicles(pageable.isPaged()
+                ? query.setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize())
+                        .getResultList()
+                : query.getResultList());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ApartmentListItem> findListItems(Specification<Apartment> spec, long offset, int limit, Sort sort) {
+        return withResidentsAndVehicles(listItemQuery(spec, null, sort)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public List<ApartmentListItem> findListItemsAfter(Specification<Apartment> spec, Long afterAddressNumber, int limit) {
+        return withResidentsAndVehicles(listItemQuery(spec, afterAddressNumber, Sort.by("addressNumber"))
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    private TypedQuery<ApartmentListItem> listItemQuery(Specification<Apartment> spec, Long afterAddressNumber, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ApartmentListItem> query = cb.createQuery(ApartmentListItem.class);
+        Root<Apartment> apartment = query.from(Apartment.class);
+        Join<Apartment, Resident> owner = apartment.join("owner", JoinType.LEFT);
+
+        // Same counts as Apartment.onLoad, as correlated subqueries of the page query
+        Subquery<Long> members = query.subquery(Long.class);
+        Root<Resident> resident = members.from(Resident.class);
+        members.select(cb.count(resident)).where(
+                cb.equal(resident.get("apartment"), apartment),
+                cb.or(cb.isNull(resident.get("status")), cb.notEqual(resident.get("status"), ResidentEnum.Moved)));
+
+        query.select(cb.construct(ApartmentListItem.class,
+                apartment.get("addressNumber"), apartment.get("area"), apartment.get("status"),
+                apartment.get("createdAt"), apartment.get("updatedAt"),
+                owner.get("id"), owner.get("name"), apartment.get("ownerPhone"),
+                members, countVehicles(query, cb, apartment, VehicleEnum.Motorbike),
+                countVehicles(query, cb, apartment, VehicleEnum.Car)));
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = spec == null ? null : spec.toPredicate(apartment, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (afterAddressNumber != null) {
+            predicates.add(cb.greaterThan(apartment.get("addressNumber"), afterAddressNumber));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(sort, apartment, cb));
+        return entityManager.createQuery(query);
+    }
+
+    // Residents and vehicles of every apartment on the page, one query each, as Apartment.residentList and vehicleList held them
+    private List<ApartmentListItem> withResidentsAndVehicles(List<ApartmentListItem> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        Map<Long, ApartmentListItem> byAddressNumber = new HashMap<>();
+        items.forEach(item -> byAddressNumber.put(item.getAddressNumber(), item));
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ApartmentListItem.Member> members = cb.createQuery(ApartmentListItem.Member.class);
+        Root<Resident> resident = members.from(Resident.class);
+        Path<Long> residentAddress = resident.get("apartment").get("addressNumber");
+        members.select(cb.construct(ApartmentListItem.Member.class,
+                        residentAddress, resident.get("id"), resident.get("name"), resident.get("dob")))
+                .where(residentAddress.in(byAddressNumber.keySet()))
+                .orderBy(cb.asc(resident.get("id")));
+        for (ApartmentListItem.Member member : entityManager.createQuery(members).getResultList()) {
+            byAddressNumber.get(member.getApartmentId()).getResidentList().add(member);
+        }
+
+        CriteriaQuery<ApartmentListItem.VehicleItem> vehicles = cb.createQuery(ApartmentListItem.VehicleItem.class);
+        Root<Vehicle> vehicle = vehicles.from(Vehicle.class);
+        Path<Long> vehicleAddress = vehicle.get("apartment").get("addressNumber");
+        vehicles.select(cb.construct(ApartmentListItem.VehicleItem.class,
+                        vehicleAddress, vehicle.get("id"), vehicle.get("category")))
+                .where(vehicleAddress.in(byAddressNumber.keySet()))
+                .orderBy(cb.asc(vehicle.get("id")));
+        for (ApartmentListItem.VehicleItem item : entityManager.createQuery(vehicles).getResultList()) {
+            byAddressNumber.get(item.getApartmentId()).getVehicleList().add(item);
+        }
+        return items;
+    }
+
+    private Subquery<Long> countVehicles(CriteriaQuery<?> query, CriteriaBuilder cb, Root<Apartment> apartment, VehicleEnum category) {
+        Subquery<Long> vehicles = query.subquery(Long.class);
+        Root<Vehicle> vehicle = vehicles.from(Vehicle.class);
+        return vehicles.select(cb.count(vehicle)).where(
+                cb.equal(vehicle.get("apartment"), apartment),
+                cb.equal(vehicle.get("category"), category));
+    }
+
+    private long count(Specification<Apartment> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Apartment> apartment = query.from(Apartment.class);
+        query.select(cb.count(apartment));
+        Predicate predicate = spec == null ? null : spec.toPredicate(apartment, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -1,22 +1,38 @@
 package com.example.repository;
 
+import com.example.dto.projection.InvoiceFeeLink;
 import com.example.entity.Fee;
 import com.example.entity.FeeInvoice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FeeInvoiceRepository extends JpaRepository<FeeInvoice, Long>, JpaSpecificationExecutor<FeeInvoice> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT fi.fee FROM FeeInvoice fi WHERE fi.invoice.id = :invoiceId")
     List<Fee> findFeesByInvoiceId(@Param("invoiceId") String invoiceId);
 
+    @Query("SELECT new com.example.dto.projection.InvoiceFeeLink(fi.invoice.id, fi.fee.id) FROM FeeInvoice fi ORDER BY fi.id")
+    List<InvoiceFeeLink> findAllLinks();
+
+    // Link fees to an invoice in a single INSERT ... SELECT; unknown fee ids are skipped like findAllById does.
+    // The native spaces hint limits second-level cache invalidation to fee_invoice instead of every region.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "fee_invoice"))
+    @Query(value = "INSERT INTO fee_invoice (fee_id, invoice_id) SELECT f.id, :invoiceId FROM fees f WHERE f.id IN (:feeIds)", nativeQuery = true)
+    int insertForInvoice(@Param("invoiceId") String invoiceId, @Param("feeIds") Collection<Long> feeIds);
+
     @Modifying //Required to be used in queries that change data such as UPDATE, DELETE (i.e. not a SELECT query.)
     @Transactional
     @Query("DELETE FROM FeeInvoice fi WHERE fi.invoice.id = :invoiceId")
@@ -3,9 +3,18 @@ package com.example.repository;
 import com.example.entity.Fee;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 @Repository
 public interface FeeRepository extends JpaRepository<Fee, Long>, JpaSpecificationExecutor<Fee> {
-
+    // Vehicle fees saved by the old fee form with the placeholder unit price of 1
+    @Modifying
+    @Query("UPDATE Fee f SET f.unitPrice = :carRate WHERE f.feeTypeEnum = com.example.constant.FeeTypeEnum.VehicleFee " +
+            "AND (f.unitPrice IS NULL OR f.unitPrice <= 1)")
+    int replaceVehicleFeePlaceholders(@Param("carRate") BigDecimal carRate);
 }
@@ -0,0 +1,56 @@
+package com.example.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+// JDBC access to invoice_apartment_fees (InvoiceApartment.feeAmounts), merged without loading the entity
+@Repository
+@AllArgsConstructor
+public class InvoiceApartmentFeeRepository {
+    private static final String SELECT_AMOUNTS =
+            "SELECT fee_id, amount FROM invoice_apartment_fees WHERE invoice_apartment_id = ?";
+    private static final String UPDATE_AMOUNT =
+            "UPDATE invoice_apartment_fees SET amount = ? WHERE invoice_apartment_id = ? AND fee_id = ?";
+    private static final String INSERT_AMOUNT =
+            "INSERT INTO invoice_apartment_fees (invoice_apartment_id, fee_id, amount) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<Long, Double> findAmounts(long invoiceApartmentId) {
+        Map<Long, Double> amounts = new HashMap<>();
+        jdbcTemplate.query(SELECT_AMOUNTS, rs -> {
+            double amount = rs.getDouble(2);
+            amounts.put(rs.getLong(1), rs.wasNull() ? null : amount);
+        }, invoiceApartmentId);
+        return amounts;
+    }
+
+    /**
+     * Merge amounts into the ones already stored: fees present are updated in one batch, the others inserted in a second.
+     * Callers lock the InvoiceApartment row first, so two merges of the same row cannot insert the same fee twice.
+     *
+     * @param existing the stored amounts, as read by findAmounts under the same lock
+     */
+    public void upsert(long invoiceApartmentId, Map<Long, Double> existing, Map<Long, Double> amounts) {
+        List<Map.Entry<Long, Double>> updates = new ArrayList<>();
+        List<Map.Entry<Long, Double>> inserts = new ArrayList<>();
+        amounts.entrySet().forEach(entry -> (existing.containsKey(entry.getKey()) ? updates : inserts).add(entry));
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_AMOUNT, updates, updates.size(), (ps, entry) -> {
+                ps.setObject(1, entry.getValue());
+                ps.setLong(2, invoiceApartmentId);
+                ps.setLong(3, entry.getKey());
+            });
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_AMOUNT, inserts, inserts.size(), (ps, entry) -> {
+                ps.setLong(1, invoiceApartmentId);
+                ps.setLong(2, entry.getKey());
+                ps.setObject(3, entry.getValue());
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import com.example.constant.PaymentEnum;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// JDBC access to invoice_apartment_lines (InvoiceApartment.lineAmounts), written in batches when an invoice is priced
+@Repository
+@AllArgsConstructor
+public class InvoiceApartmentLineRepository {
+    private static final String INSERT_LINE =
+            "INSERT INTO invoice_apartment_lines (invoice_apartment_id, fee_id, amount) VALUES (?, ?, ?)";
+    // Lines of paid rows are what was paid, so they are never priced again
+    private static final String DELETE_UNPAID_BY_INVOICE =
+            "DELETE FROM invoice_apartment_lines WHERE invoice_apartment_id IN " +
+            "(SELECT ia.id FROM invoice_apartment ia WHERE ia.invoice_id = ? " +
+            "AND (ia.payment_status IS NULL OR ia.payment_status <> ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int deleteUnpaidByInvoiceId(String invoiceId) {
+        return jdbcTemplate.update(DELETE_UNPAID_BY_INVOICE, invoiceId, PaymentEnum.Paid.ordinal());
+    }
+
+    /**
+     * Insert the amount of one fee for many InvoiceApartments; amounts[i] belongs to invoiceApartmentIds[i]
+     */
+    public void insertLines(long[] invoiceApartmentIds, long feeId, double[] amounts) {
+        jdbcTemplate.batchUpdate(INSERT_LINE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, invoiceApartmentIds[i]);
+                ps.setLong(2, feeId);
+                ps.setDouble(3, amounts[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return invoiceApartmentIds.length;
+            }
+        });
+    }
+}
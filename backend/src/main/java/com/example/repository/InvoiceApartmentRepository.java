@@ -1,25 +1,36 @@
 package com.example.repository;
 
-import com.example.dto.response.InvoiceApartmentResponse;
+import com.example.dto.projection.ApartmentInvoiceFeeRow;
+import com.example.dto.projection.InvoiceAmountSummary;
+import com.example.dto.projection.InvoiceApartmentAmountRow;
+import com.example.dto.projection.InvoiceApartmentBillingRow;
+import com.example.dto.projection.InvoiceAreaSummary;
+import com.example.dto.projection.InvoiceFeeAmountRow;
+import com.example.dto.projection.InvoiceVehicleSummary;
+import com.example.dto.projection.PaymentStatusRow;
+import com.example.dto.projection.UnpaidInvoiceSummary;
 import com.example.entity.InvoiceApartment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceApartmentRepository
         extends JpaRepository<InvoiceApartment, Long>, JpaSpecificationExecutor<InvoiceApartment> {
-    @Query("SELECT new com.example.dto.response.InvoiceApartmentResponse(ia.invoice.id, ia.invoice.name, ia.invoice.description, ia.invoice.updatedAt, ia.invoice.createdAt, ia.paymentStatus, null) "
-            +
-            "FROM InvoiceApartment ia WHERE ia.apartment.addressNumber = :apartmentId")
-    List<InvoiceApartmentResponse> findInvoicesByApartmentId(@Param("apartmentId") Long apartmentId);
-
     @Modifying // Required to be used in queries that change data such as UPDATE, DELETE (i.e.
                // not a SELECT query.)
     @Transactional
@@ -27,4 +38,135 @@ public interface InvoiceApartmentRepository
     void deleteByInvoiceId(String invoiceId);
 
     InvoiceApartment findByInvoiceIdAndApartmentAddressNumber(String invoice_id, Long apartment_addressNumber);
+
+    // Bill one invoice to every apartment in a single INSERT ... SELECT, without loading any apartment.
+    // Only invoice_apartment is written, so cached fees, invoices and apartments stay valid.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "invoice_apartment"))
+    @Query(value = "INSERT INTO invoice_apartment (invoice_id, apartment_id, payment_status, version) " +
+            "SELECT :invoiceId, a.address_number, :paymentStatus, 0 FROM apartments a", nativeQuery = true)
+    int insertForAllApartments(@Param("invoiceId") String invoiceId, @Param("paymentStatus") int paymentStatus);
+
+    // Every invoice of an apartment joined with its fees, one row per (invoice, fee)
+    @Query("SELECT new com.example.dto.projection.ApartmentInvoiceFeeRow(ia.id, i.id, i.name, i.description, i.updatedAt, i.createdAt, ia.paymentStatus, ia.pricedAt, f.id, f.name, f.feeTypeEnum, f.unitPrice, VALUE(la)) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.invoice i LEFT JOIN FeeInvoice fi ON fi.invoice = i LEFT JOIN fi.fee f " +
+            "LEFT JOIN ia.lineAmounts la ON KEY(la) = f.id " +
+            "WHERE ia.apartment.addressNumber = :apartmentId ORDER BY ia.id, fi.id")
+    List<ApartmentInvoiceFeeRow> findInvoiceFeeRowsByApartmentId(@Param("apartmentId") Long apartmentId);
+
+    // Same rows for one invoice of the apartment
+    @Query("SELECT new com.example.dto.projection.ApartmentInvoiceFeeRow(ia.id, i.id, i.name, i.description, i.updatedAt, i.createdAt, ia.paymentStatus, ia.pricedAt, f.id, f.name, f.feeTypeEnum, f.unitPrice, VALUE(la)) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.invoice i LEFT JOIN FeeInvoice fi ON fi.invoice = i LEFT JOIN fi.fee f " +
+            "LEFT JOIN ia.lineAmounts la ON KEY(la) = f.id " +
+            "WHERE i.id = :invoiceId AND ia.apartment.addressNumber = :apartmentId ORDER BY fi.id")
+    List<ApartmentInvoiceFeeRow> findInvoiceFeeRows(@Param("invoiceId") String invoiceId, @Param("apartmentId") Long apartmentId);
+
+    // Bump the version of one row before writing its fee amounts with JDBC, which also locks it until commit
+    @Modifying
+    @Query("UPDATE InvoiceApartment ia SET ia.version = ia.version + 1 " +
+            "WHERE ia.invoice.id = :invoiceId AND ia.apartment.addressNumber = :apartmentId")
+    int touch(@Param("invoiceId") String invoiceId, @Param("apartmentId") Long apartmentId);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceFeeAmountRow(ia.id, KEY(fa), VALUE(fa)) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.feeAmounts fa WHERE ia.apartment.addressNumber = :apartmentId")
+    List<InvoiceFeeAmountRow> findFeeAmountsByApartmentId(@Param("apartmentId") Long apartmentId);
+
+    // Area and vehicles of one invoice's unpaid apartments, used to freeze their line amounts
+    @Query("SELECT new com.example.dto.projection.InvoiceApartmentBillingRow(ia.id, a.area, " +
+            "SUM(CASE WHEN v.category = com.example.constant.VehicleEnum.Car THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN v.category = com.example.constant.VehicleEnum.Motorbike THEN 1L ELSE 0L END)) " +
+            "FROM InvoiceApartment ia JOIN ia.apartment a LEFT JOIN Vehicle v ON v.apartment = a " +
+            "WHERE ia.invoice.id = :invoiceId " +
+            "AND (ia.paymentStatus IS NULL OR ia.paymentStatus <> com.example.constant.PaymentEnum.Paid) " +
+            "GROUP BY ia.id, a.area")
+    List<InvoiceApartmentBillingRow> findUnpaidBillingRowsByInvoiceId(@Param("invoiceId") String invoiceId);
+
+    // Bulk payment: read and lock the rows first, so the outcome of each one is exact
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.dto.projection.PaymentStatusRow(ia.id, ia.invoice.id, ia.apartment.addressNumber, ia.paymentStatus) " +
+            "FROM InvoiceApartment ia WHERE ia.id IN :ids ORDER BY ia.id")
+    List<PaymentStatusRow> lockPaymentStatusByIds(@Param("ids") Collection<Long> ids);
+
+    // Ids of (invoice, apartment) pairs, read without locking before the rows are locked by id
+    @Query("SELECT ia.id FROM InvoiceApartment ia WHERE ia.invoice.id = :invoiceId AND ia.apartment.addressNumber IN :apartmentIds")
+    List<Long> findIdsByInvoiceAndApartments(@Param("invoiceId") String invoiceId,
+                                             @Param("apartmentIds") Collection<Long> apartmentIds);
+
+    // Every unpaid row with its frozen amount, loaded once by the bank statement reconciliation
+    @Query("SELECT new com.example.dto.projection.InvoiceApartmentAmountRow(ia.id, ia.invoice.id, ia.apartment.addressNumber, ia.pricedAt, SUM(VALUE(la))) " +
+            "FROM InvoiceApartment ia LEFT JOIN ia.lineAmounts la " +
+            "WHERE ia.paymentStatus IS NULL OR ia.paymentStatus <> com.example.constant.PaymentEnum.Paid " +
+            "GROUP BY ia.id, ia.invoice.id, ia.apartment.addressNumber, ia.pricedAt")
+    Stream<InvoiceApartmentAmountRow> streamUnpaid();
+
+    @Modifying
+    @Query("UPDATE InvoiceApartment ia SET ia.paymentStatus = com.example.constant.PaymentEnum.Paid, ia.version = ia.version + 1 " +
+            "WHERE ia.id IN :ids AND (ia.paymentStatus IS NULL OR ia.paymentStatus <> com.example.constant.PaymentEnum.Paid)")
+    int markPaid(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE InvoiceApartment ia SET ia.pricedAt = :pricedAt, ia.version = ia.version + 1 WHERE ia.invoice.id = :invoiceId " +
+            "AND (ia.paymentStatus IS NULL OR ia.paymentStatus <> com.example.constant.PaymentEnum.Paid)")
+    int markUnpaidPriced(@Param("invoiceId") String invoiceId, @Param("pricedAt") Instant pricedAt);
+
+    // Grouped aggregates used by the invoice totals: one row per (invoice, payment status) of the given invoices.
+    // Area and vehicles only count for rows issued before line amounts were frozen.
+    @Query("SELECT new com.example.dto.projection.InvoiceAreaSummary(i.id, i.name, i.createdAt, ia.paymentStatus, " +
+            "SUM(CASE WHEN ia.pricedAt IS NULL THEN a.area ELSE 0.0 END), COUNT(ia)) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.invoice i JOIN ia.apartment a WHERE i.id IN :invoiceIds " +
+            "GROUP BY i.id, i.name, i.createdAt, ia.paymentStatus")
+    List<InvoiceAreaSummary> sumAreaByInvoiceAndPaymentStatus(@Param("invoiceIds") Collection<String> invoiceIds);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceVehicleSummary(ia.invoice.id, ia.paymentStatus, v.category, COUNT(v)) "
+            +
+            "FROM InvoiceApartment ia, Vehicle v WHERE v.apartment = ia.apartment AND ia.pricedAt IS NULL " +
+            "AND ia.invoice.id IN :invoiceIds " +
+            "GROUP BY ia.invoice.id, ia.paymentStatus, v.category")
+    List<InvoiceVehicleSummary> countVehiclesByInvoiceAndPaymentStatus(@Param("invoiceIds") Collection<String> invoiceIds);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceAmountSummary(ia.invoice.id, ia.paymentStatus, SUM(VALUE(fa))) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.feeAmounts fa, FeeInvoice fi " +
+            "WHERE fi.invoice = ia.invoice AND fi.fee.id = KEY(fa) " +
+            "AND fi.fee.feeTypeEnum = com.example.constant.FeeTypeEnum.ContributionFund AND ia.invoice.id IN :invoiceIds " +
+            "GROUP BY ia.invoice.id, ia.paymentStatus")
+    List<InvoiceAmountSummary> sumContributionsByInvoiceAndPaymentStatus(@Param("invoiceIds") Collection<String> invoiceIds);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceAmountSummary(ia.invoice.id, ia.paymentStatus, SUM(VALUE(la))) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.lineAmounts la WHERE ia.invoice.id IN :invoiceIds " +
+            "GROUP BY ia.invoice.id, ia.paymentStatus")
+    List<InvoiceAmountSummary> sumLineAmountsByInvoiceAndPaymentStatus(@Param("invoiceIds") Collection<String> invoiceIds);
+
+    @Query("SELECT DISTINCT ia.invoice.id FROM InvoiceApartment ia")
+    List<String> findBilledInvoiceIds();
+
+    // Same aggregates over the unpaid rows among the given ids, read just before they are marked paid
+    @Query("SELECT new com.example.dto.projection.UnpaidInvoiceSummary(ia.invoice.id, COUNT(ia), " +
+            "SUM(CASE WHEN ia.pricedAt IS NULL THEN 1L ELSE 0L END)) "
+            +
+            "FROM InvoiceApartment ia " +
+            "WHERE ia.id IN :ids AND ia.paymentStatus = com.example.constant.PaymentEnum.Unpaid " +
+            "GROUP BY ia.invoice.id")
+    List<UnpaidInvoiceSummary> countUnpaidByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceAmountSummary(ia.invoice.id, ia.paymentStatus, SUM(VALUE(la))) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.lineAmounts la " +
+            "WHERE ia.id IN :ids AND ia.paymentStatus = com.example.constant.PaymentEnum.Unpaid " +
+            "GROUP BY ia.invoice.id, ia.paymentStatus")
+    List<InvoiceAmountSummary> sumUnpaidLineAmountsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.dto.projection.InvoiceAmountSummary(ia.invoice.id, ia.paymentStatus, SUM(VALUE(fa))) "
+            +
+            "FROM InvoiceApartment ia JOIN ia.feeAmounts fa, FeeInvoice fi " +
+            "WHERE fi.invoice = ia.invoice AND fi.fee.id = KEY(fa) " +
+            "AND fi.fee.feeTypeEnum = com.example.constant.FeeTypeEnum.ContributionFund " +
+            "AND ia.id IN :ids AND ia.paymentStatus = com.example.constant.PaymentEnum.Unpaid " +
+            "GROUP BY ia.invoice.id, ia.paymentStatus")
+    List<InvoiceAmountSummary> sumUnpaidContributionsByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.example.repository;
+
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.InvoiceTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface InvoiceTotalsRepository extends JpaRepository<InvoiceTotals, String> {
+    @Query("SELECT new com.example.dto.response.TotalInvoiceResponse(t.invoiceId, t.name, t.createDate, t.totalAmount, " +
+            "t.paidAmount, t.contributionAmount, t.apartmentCount, t.unpaidCount) FROM InvoiceTotals t ORDER BY t.invoiceId")
+    List<TotalInvoiceResponse> findAllTotals();
+
+    // Incremental change of one invoice, applied in the database so concurrent writers add up
+    @Modifying
+    @Query("UPDATE InvoiceTotals t SET t.totalAmount = t.totalAmount + :total, t.paidAmount = t.paidAmount + :paid, " +
+            "t.contributionAmount = t.contributionAmount + :contribution, t.unpaidCount = t.unpaidCount + :unpaid, " +
+            "t.updatedAt = :updatedAt WHERE t.invoiceId = :invoiceId")
+    int addDelta(@Param("invoiceId") String invoiceId, @Param("total") double total, @Param("paid") double paid,
+                 @Param("contribution") double contribution, @Param("unpaid") long unpaid,
+                 @Param("updatedAt") Instant updatedAt);
+}
@@ -0,0 +1,51 @@
+package com.example.repository;
+
+import com.example.entity.Resident;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+// JDBC batch inserts of residents for imports, skipping the persistence context and the apartment's residentList
+@Repository
+@AllArgsConstructor
+public class ResidentJdbcRepository {
+    private static final String INSERT_RESIDENT =
+            "INSERT INTO residents (id, name, dob, gender, cic, address_number, status, is_active, status_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the residents in one JDBC batch; each resident's apartmentId is the apartment it lives in, or null
+     */
+    public void insertAll(List<Resident> residents) {
+        Date statusDate = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(INSERT_RESIDENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Resident resident = residents.get(i);
+                ps.setLong(1, resident.getId());
+                ps.setString(2, resident.getName());
+                ps.setObject(3, resident.getDob() == null ? null : Date.valueOf(resident.getDob()), Types.DATE);
+                ps.setObject(4, resident.getGender() == null ? null : resident.getGender().ordinal(), Types.SMALLINT);
+                ps.setString(5, resident.getCic());
+                ps.setObject(6, resident.getApartmentId(), Types.BIGINT);
+                ps.setString(7, resident.getStatus().name());
+                ps.setDate(8, statusDate);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return residents.size();
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.repository;
 
+import com.example.dto.projection.ResidentSearchRow;
 import com.example.entity.Resident;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -9,10 +10,39 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ResidentRepository extends JpaRepository<Resident, Long>, JpaSpecificationExecutor<Resident> {
     @Query("DELETE FROM Resident r WHERE r.id = :id")
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Transactional
     void delete(@Param("id") Long id);
-}
\ No newline at end of file
+
+    // Household move-out: every resident of the apartment leaves it in one statement, statusDate as set by @PreUpdate
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Resident r SET r.apartment = null, r.isActive = 0, r.status = com.example.constant.ResidentEnum.Moved, " +
+            "r.statusDate = CASE WHEN r.status = com.example.constant.ResidentEnum.Moved THEN r.statusDate ELSE :today END " +
+            "WHERE r.apartment.addressNumber = :addressNumber")
+    int moveOutByApartment(@Param("addressNumber") Long addressNumber, @Param("today") LocalDate today);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Resident r WHERE r.apartment.addressNumber = :addressNumber")
+    int deleteByApartment(@Param("addressNumber") Long addressNumber);
+
+    // Streams ids only, for imports that check many rows for duplicates; needs a transaction
+    @Query("SELECT r.id FROM Resident r")
+    Stream<Long> streamAllIds();
+
+    @Query("SELECT COUNT(r) FROM Resident r")
+    long countAll();
+
+    // Rows for the resident search index; needs a transaction
+    @Query("SELECT new com.example.dto.projection.ResidentSearchRow(r.id, r.name, r.cic) FROM Resident r")
+    Stream<ResidentSearchRow> streamSearchRows();
+
+    @Query("SELECT r.id FROM Resident r WHERE r.apartment.addressNumber = :addressNumber")
+    List<Long> findIdsByApartment(@Param("addressNumber") Long addressNumber);
+}
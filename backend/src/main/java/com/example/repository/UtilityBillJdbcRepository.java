@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import com.example.entity.UtilityBill;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+// JDBC batch inserts of utility_bills for imports, skipping the persistence context
+@Repository
+@AllArgsConstructor
+public class UtilityBillJdbcRepository {
+    private static final String INSERT_BILL =
+            "INSERT INTO utility_bills (apartment_address_number, name, electricity, water, internet, payment_status, created_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the bills in one JDBC batch; each bill's apartmentId is the apartment it belongs to
+     */
+    public void insertAll(List<UtilityBill> bills) {
+        Date createdAt = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(INSERT_BILL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UtilityBill bill = bills.get(i);
+                ps.setLong(1, bill.getApartmentId());
+                ps.setString(2, bill.getName());
+                ps.setDouble(3, bill.getElectricity());
+                ps.setDouble(4, bill.getWater());
+                ps.setDouble(5, bill.getInternet());
+                ps.setInt(6, bill.getPaymentStatus().ordinal());
+                ps.setDate(7, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bills.size();
+            }
+        });
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.repository;
 
+import com.example.dto.projection.PaymentStatusRow;
+import com.example.dto.projection.UtilityBillAmountRow;
 import com.example.entity.UtilityBill;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UtilityBillRepository extends JpaRepository<UtilityBill, Long>, JpaSpecificationExecutor<UtilityBill> {
@@ -16,4 +23,20 @@ public interface UtilityBillRepository extends JpaRepository<UtilityBill, Long>,
 
     @Query("SELECT u FROM UtilityBill u WHERE u.apartment.addressNumber = :apartmentId")
     List<UtilityBill> findByApartmentId(@Param("apartmentId") Long apartmentId);
+
+    // Bulk payment: read and lock the rows first, so the outcome of each one is exact
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.dto.projection.PaymentStatusRow(u.id, CAST(NULL AS String), u.apartment.addressNumber, u.paymentStatus) " +
+            "FROM UtilityBill u WHERE u.id IN :ids ORDER BY u.id")
+    List<PaymentStatusRow> lockPaymentStatusByIds(@Param("ids") Collection<Long> ids);
+
+    // Every unpaid bill with its amount, loaded once by the bank statement reconciliation
+    @Query("SELECT new com.example.dto.projection.UtilityBillAmountRow(u.id, u.apartment.addressNumber, u.electricity + u.water + u.internet) " +
+            "FROM UtilityBill u WHERE u.paymentStatus IS NULL OR u.paymentStatus <> com.example.constant.PaymentEnum.Paid")
+    Stream<UtilityBillAmountRow> streamUnpaid();
+
+    @Modifying
+    @Query("UPDATE UtilityBill u SET u.paymentStatus = com.example.constant.PaymentEnum.Paid, u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND (u.paymentStatus IS NULL OR u.paymentStatus <> com.example.constant.PaymentEnum.Paid)")
+    int markPaid(@Param("ids") Collection<Long> ids);
 }
@@ -3,6 +3,9 @@ package com.example.repository;
 import com.example.entity.Vehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,8 @@ import java.util.Optional;
 public interface VehicleRepository extends JpaRepository<Vehicle, String>, JpaSpecificationExecutor<Vehicle> {
     List<Vehicle> findAllByApartment_AddressNumber(Long addressNumber);
     Optional<Vehicle> findById(String id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Vehicle v WHERE v.apartment.addressNumber = :addressNumber")
+    int deleteByApartment(@Param("addressNumber") Long addressNumber);
 }
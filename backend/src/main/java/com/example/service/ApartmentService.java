@@ -1,8 +1,10 @@
 package com.example.service;
 
 import com.example.constant.ApartmentEnum;
+import com.example.dto.projection.ApartmentListItem;
 import com.example.dto.request.ApartmentCreateRequest;
 import com.example.dto.request.ApartmentUpdateRequest;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Apartment;
 import com.example.entity.Resident;
@@ -36,6 +38,7 @@ public class ApartmentService {
     ApartmentRepository apartmentRepository;
     ResidentRepository residentRepository;
     ResidentService residentService;
+    PageTotals pageTotals;
 
     @Transactional
     public Apartment create(ApartmentCreateRequest request) {
@@ -85,17 +88,51 @@ public class ApartmentService {
         }
     }
 
-    public PaginatedResponse<Apartment> getAll(Specification<Apartment> spec, Pageable pageable) {
-        Page<Apartment> pageApartment = apartmentRepository.findAll(spec, pageable);
-        return PaginatedResponse.<Apartment>builder()
+    /**
+     * List apartments as projections: member and vehicle counts come from the page query, and the
+     * residents and vehicles of the page from one query each, so no entity collection is loaded
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ApartmentListItem> getAll(Specification<Apartment> spec, Pageable pageable) {
+        Page<ApartmentListItem> pageApartment = apartmentRepository.findListItems(spec, pageable);
+        return PaginatedResponse.<ApartmentListItem>builder()
                 .pageSize(pageable.getPageSize())
                 .curPage(pageable.getPageNumber())
                 .totalPages(pageApartment.getTotalPages())
-                .totalElements(pageApartment.getNumberOfElements())
+                .totalElements(pageApartment.getTotalElements())
                 .result(pageApartment.getContent())
                 .build();
     }
 
+    /**
+     * Projected apartment list with totals per the requested count mode, see PageTotals
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ApartmentListItem> getAll(Specification<Apartment> spec, Pageable pageable, PageCountRequest count) {
+        List<ApartmentListItem> rows = apartmentRepository.findListItems(spec, pageable.getOffset(),
+                pageable.getPageSize() + 1, pageable.getSort());
+        return pageTotals.response(rows, pageable,
+                () -> pageTotals.total(Apartment.class, spec, count, "apartments"), item -> item);
+    }
+
+    /**
+     * Cursor page of the apartment list ordered by address number, see KeysetPagination
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ApartmentListItem> getAll(Specification<Apartment> spec, String after, int size) {
+        // one extra row tells whether there is a next page
+        List<ApartmentListItem> rows = apartmentRepository.findListItemsAfter(spec,
+                (Long) KeysetPagination.decode(after, Long.class), size + 1);
+        boolean hasNext = rows.size() > size;
+        List<ApartmentListItem> result = hasNext ? rows.subList(0, size) : rows;
+        return PaginatedResponse.<ApartmentListItem>builder()
+                .pageSize(size)
+                .result(result)
+                .nextCursor(hasNext && !result.isEmpty()
+                        ? KeysetPagination.encode(result.get(result.size() - 1).getAddressNumber()) : null)
+                .build();
+    }
+
     public Apartment getDetail(Long id) {
         return apartmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Can not find apartment with address: " + id));
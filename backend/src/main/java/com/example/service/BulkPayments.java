@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.example.constant.BulkPaymentEnum;
+import com.example.constant.PaymentEnum;
+import com.example.dto.projection.PaymentStatusRow;
+import com.example.dto.request.BulkPaymentRequest;
+import com.example.dto.response.BulkPaymentResponse;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Shared steps of the bulk payment endpoints: the rows are read (and locked) in IN-list chunks of
+ * ascending ids, the unpaid ones are updated with one UPDATE ... WHERE id IN per chunk, and every
+ * requested id or pair gets an outcome from the status read before the update.
+ */
+final class BulkPayments {
+    static final int MAX_PAYMENTS = 10_000;
+    // keeps IN lists well under the bind parameter limits of the drivers
+    static final int CHUNK_SIZE = 1_000;
+
+    private final Map<Long, PaymentStatusRow> rowsById = new HashMap<>();
+    private final Map<BulkPaymentRequest.InvoiceApartmentKey, PaymentStatusRow> rowsByPair = new HashMap<>();
+
+    static void validate(BulkPaymentRequest request) {
+        int size = sizeOf(request.getIds()) + sizeOf(request.getPairs());
+        if (size == 0) {
+            throw new RuntimeException("No payment to post");
+        }
+        if (size > MAX_PAYMENTS) {
+            throw new RuntimeException("At most " + MAX_PAYMENTS + " payments can be posted at once");
+        }
+    }
+
+    // Distinct values in ascending order, split in IN-list chunks. Locking chunk by chunk then takes the
+    // row locks in the same order in every concurrent posting, so overlapping postings cannot deadlock.
+    static <T extends Comparable<? super T>> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = new ArrayList<>(new TreeSet<>(values));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    void addById(List<PaymentStatusRow> rows) {
+        rows.forEach(row -> rowsById.put(row.getId(), row));
+    }
+
+    // Rows that may have been requested by (invoice, apartment) as well as by id
+    void addByPair(List<PaymentStatusRow> rows) {
+        rows.forEach(row -> {
+            rowsById.put(row.getId(), row);
+            rowsByPair.put(new BulkPaymentRequest.InvoiceApartmentKey(row.getInvoiceId(), row.getApartmentId()), row);
+        });
+    }
+
+    // Ids of the rows found unpaid, to be updated
+    List<Long> unpaidIds() {
+        return rowsById.values().stream()
+                .filter(row -> row.getPaymentStatus() != PaymentEnum.Paid)
+                .map(PaymentStatusRow::getId)
+                .toList();
+    }
+
+    // Runs the update chunk by chunk and returns the number of rows changed
+    int markPaid(Function<List<Long>, Integer> update) {
+        int updated = 0;
+        for (List<Long> chunk : chunks(unpaidIds())) {
+            updated += update.apply(chunk);
+        }
+        return updated;
+    }
+
+    BulkPaymentResponse response(BulkPaymentRequest request) {
+        List<BulkPaymentResponse.Outcome> outcomes = new ArrayList<>();
+        Optional.ofNullable(request.getIds()).orElse(List.of()).forEach(id -> {
+            PaymentStatusRow row = rowsById.get(id);
+            outcomes.add(row == null
+                    ? new BulkPaymentResponse.Outcome(id, null, null, BulkPaymentEnum.NotFound)
+                    : outcome(row));
+        });
+        Optional.ofNullable(request.getPairs()).orElse(List.of()).forEach(pair -> {
+            PaymentStatusRow row = rowsByPair.get(pair);
+            outcomes.add(row == null
+                    ? new BulkPaymentResponse.Outcome(null, pair.getInvoiceId(), pair.getApartmentId(), BulkPaymentEnum.NotFound)
+                    : outcome(row));
+        });
+        return BulkPaymentResponse.builder()
+                .paid(count(outcomes, BulkPaymentEnum.Paid))
+                .alreadyPaid(count(outcomes, BulkPaymentEnum.AlreadyPaid))
+                .notFound(count(outcomes, BulkPaymentEnum.NotFound))
+                .outcomes(outcomes)
+                .build();
+    }
+
+    private static BulkPaymentResponse.Outcome outcome(PaymentStatusRow row) {
+        return new BulkPaymentResponse.Outcome(row.getId(), row.getInvoiceId(), row.getApartmentId(),
+                row.getPaymentStatus() == PaymentEnum.Paid ? BulkPaymentEnum.AlreadyPaid : BulkPaymentEnum.Paid);
+    }
+
+    private static int count(List<BulkPaymentResponse.Outcome> outcomes, BulkPaymentEnum outcome) {
+        return (int) outcomes.stream().filter(o -> o.getOutcome() == outcome).count();
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.service;
+
+import com.example.dto.response.CacheRegionStatsResponse;
+import com.example.exception.StatisticsDisabledException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Second-level and query cache statistics per region, as collected by Hibernate when cache.statistics is on
+ */
+@Service
+@AllArgsConstructor
+public class CacheStatisticsService {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsResponse> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) { // every counter would read 0
+            throw new StatisticsDisabledException("Cache statistics are disabled, start the backend with cache.statistics=true");
+        }
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toResponse(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+
+    private CacheRegionStatsResponse toResponse(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) { // region not built yet
+            return CacheRegionStatsResponse.builder().region(region).elementsInMemory(-1).build();
+        }
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        return CacheRegionStatsResponse.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(regionStatistics.getPutCount())
+                .elementsInMemory(regionStatistics.getElementCountInMemory())
+                .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                .build();
+    }
+}
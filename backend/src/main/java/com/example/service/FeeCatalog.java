@@ -0,0 +1,137 @@
+package com.example.service;
+
+import com.example.dto.projection.InvoiceFeeLink;
+import com.example.dto.response.FeeCatalogStatsResponse;
+import com.example.entity.Fee;
+import com.example.repository.FeeInvoiceRepository;
+import com.example.repository.FeeRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process copy of every fee and of the invoice to fee mapping, read by the invoice views and totals
+ * instead of querying fees each time. Writers call invalidate(); the snapshot is reloaded on the next read.
+ * The snapshot is immutable and shared, callers must not modify the returned fees.
+ */
+@Component
+public class FeeCatalog implements MeterBinder {
+    private static final String KEY = "catalog";
+
+    private final FeeRepository feeRepository;
+    private final FeeInvoiceRepository feeInvoiceRepository;
+    private final LoadingCache<String, Snapshot> cache;
+    // Bumped by every invalidation; a snapshot loaded under an older version is never served
+    private final AtomicLong version = new AtomicLong();
+
+    public FeeCatalog(FeeRepository feeRepository, FeeInvoiceRepository feeInvoiceRepository,
+                      @Value("${fee-catalog.expire-after:10m}") Duration expireAfter) {
+        this.feeRepository = feeRepository;
+        this.feeInvoiceRepository = feeInvoiceRepository;
+        // expiry only bounds staleness after writes that bypass the services (manual SQL, other instances)
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .build(key -> load());
+    }
+
+    public record Snapshot(long version, Map<Long, Fee> feesById, Map<String, List<Fee>> feesByInvoice) {
+        public List<Fee> feesOf(String invoiceId) {
+            return feesByInvoice.getOrDefault(invoiceId, List.of());
+        }
+    }
+
+    // Hit, miss and load metrics of the snapshot cache, bound by actuator like any MeterBinder bean
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "fee-catalog");
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = cache.get(KEY);
+        while (snapshot.version() != version.get()) {
+            cache.invalidate(KEY);
+            snapshot = cache.get(KEY);
+        }
+        return snapshot;
+    }
+
+    // Fees linked to the invoice, in link order, empty for an unknown invoice
+    public List<Fee> feesOf(String invoiceId) {
+        return snapshot().feesOf(invoiceId);
+    }
+
+    /**
+     * Drop the snapshot now and, when called inside a transaction, again once it completes:
+     * a read between the write and the commit may have cached the old rows.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        cache.invalidate(KEY);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    cache.invalidate(KEY);
+                }
+            });
+        }
+    }
+
+    public FeeCatalogStatsResponse stats() {
+        var stats = cache.stats();
+        Snapshot current = cache.getIfPresent(KEY);
+        return FeeCatalogStatsResponse.builder()
+                .version(version.get())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .reloads(stats.loadSuccessCount())
+                .loadFailures(stats.loadFailureCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .fees(current == null ? 0 : current.feesById().size())
+                .invoices(current == null ? 0 : current.feesByInvoice().size())
+                .build();
+    }
+
+    private Snapshot load() {
+        long loadedVersion = version.get();
+        Map<Long, Fee> feesById = new HashMap<>();
+        for (Fee fee : feeRepository.findAll()) {
+            feesById.put(fee.getId(), copy(fee));
+        }
+        Map<String, List<Fee>> feesByInvoice = new HashMap<>();
+        for (InvoiceFeeLink link : feeInvoiceRepository.findAllLinks()) {
+            Fee fee = feesById.get(link.getFeeId());
+            if (fee != null) { // deleted between the two queries
+                feesByInvoice.computeIfAbsent(link.getInvoiceId(), key -> new ArrayList<>()).add(fee);
+            }
+        }
+        feesByInvoice.replaceAll((invoiceId, fees) -> List.copyOf(fees));
+        return new Snapshot(loadedVersion, Map.copyOf(feesById), Map.copyOf(feesByInvoice));
+    }
+
+    // Detached copy so the snapshot does not hold managed entities or their lazy collections
+    private static Fee copy(Fee fee) {
+        Fee copy = new Fee();
+        copy.setId(fee.getId());
+        copy.setName(fee.getName());
+        copy.setDescription(fee.getDescription());
+        copy.setFeeTypeEnum(fee.getFeeTypeEnum());
+        copy.setUnitPrice(fee.getUnitPrice());
+        copy.setCreatedAt(fee.getCreatedAt());
+        copy.setUpdatedAt(fee.getUpdatedAt());
+        return copy;
+    }
+}
@@ -3,35 +3,62 @@ package com.example.service;
 import com.example.constant.FeeTypeEnum;
 import com.example.dto.request.FeeCreateRequest;
 import com.example.dto.response.ApiResponse;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Fee;
 import com.example.entity.Resident;
 import com.example.exception.UserInfoException;
 import com.example.repository.FeeRepository;
+import com.example.service.fee.VehicleFeeStrategy;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
 
 @Service
 @AllArgsConstructor
+@Slf4j
 public class FeeService {
     private final FeeRepository feeRepository;
+    private final PageTotals pageTotals;
+    private final FeeCatalog feeCatalog;
+    private final VehicleFeeStrategy vehicleFeeStrategy;
 
-    public PaginatedResponse<Fee> fetchAllFees(Specification<Fee> spec, Pageable pageable) {
-        Page<Fee> pageFee = feeRepository.findAll(spec, pageable);
-        PaginatedResponse<Fee> page = new PaginatedResponse<>();
-        page.setPageSize(pageable.getPageSize());
-        page.setCurPage(pageable.getPageNumber());
-        page.setTotalPages(pageFee.getTotalPages());
-        page.setTotalElements(pageFee.getNumberOfElements());
-        page.setResult(pageFee.getContent());
-        return page;
+    /**
+     * Give vehicle fees still holding the placeholder unit price of 1 the configured car rate, the amount
+     * they were billed at while the unit price was ignored. Their invoices keep the same amounts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int migrateVehicleFeePlaceholders() {
+        int migrated = feeRepository.replaceVehicleFeePlaceholders(vehicleFeeStrategy.getCarRate());
+        if (migrated > 0) {
+            log.info("Set the unit price of {} vehicle fees to the car rate {}", migrated, vehicleFeeStrategy.getCarRate());
+            feeCatalog.invalidate();
+        }
+        return migrated;
+    }
+
+    /**
+     * Page of fees with totals computed per the requested count mode, see PageTotals
+     */
+    public PaginatedResponse<Fee> fetchAllFees(Specification<Fee> spec, Pageable pageable, PageCountRequest count) {
+        return pageTotals.page(Fee.class, spec, pageable, count, "fees", fee -> fee);
+    }
+
+    /**
+     * Cursor page of fees ordered by id, see KeysetPagination
+     */
+    public PaginatedResponse<Fee> fetchAllFees(Specification<Fee> spec, String after, int size) {
+        return KeysetPagination.scroll(feeRepository, spec, "id", Long.class, after, size, fee -> fee);
     }
 
     public Fee fetchFeeById (Long id) throws RuntimeException {
@@ -53,7 +80,9 @@ public class FeeService {
             fee.setUnitPrice(BigDecimal.ZERO); // ContributionFund không cần unitPrice
         }
 
-        return this.feeRepository.save(fee);
+        Fee saved = this.feeRepository.save(fee);
+        feeCatalog.invalidate();
+        return saved;
     }
 
     public Fee updateFee (Fee fee) throws RuntimeException {
@@ -66,13 +95,16 @@ public class FeeService {
         } else {
             throw new RuntimeException("Fee with code = " + fee.getId() + " is not found");
         }
-        return this.feeRepository.save(oldFee);
+        Fee saved = this.feeRepository.save(oldFee);
+        feeCatalog.invalidate();
+        return saved;
     }
 
     //No exception handling is needed in this method
     public ApiResponse<String> deleteFee(Long id) throws RuntimeException {
        Fee fee = this.fetchFeeById(id);
        this.feeRepository.delete(fee);
+       feeCatalog.invalidate();
 
        ApiResponse<String> response = new ApiResponse<>();
        response.setCode(HttpStatus.OK.value());
@@ -0,0 +1,153 @@
+package com.example.service;
+
+import com.example.entity.IdempotencyRecord;
+import com.example.exception.IdempotencyConflictException;
+import com.example.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for state changing requests: the first request with a key runs and its JSON
+ * result is stored, a retry with the same key and body gets the stored result without running again.
+ * Records expire after idempotency.ttl and are swept on a schedule.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // records are written in their own transaction, whatever the caller runs in
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Run the action once per key. Without a key the action simply runs.
+     *
+     * @param key       Idempotency-Key header, may be null
+     * @param operation method and path of the endpoint, part of the request fingerprint
+     * @param request   path variables and body of the request, part of the request fingerprint
+     * @return the action result, or the stored result as JSON when the key was already used
+     */
+    public Object execute(String key, String operation, Object request, Supplier<?> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(operation, request);
+        JsonNode stored = reserve(key, requestHash);
+        if (stored != null) {
+            return stored;
+        }
+
+        Object result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            // the action runs in one transaction that was rolled back, the client may retry with the same key
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(key));
+            throw e;
+        }
+        String response = toJson(result);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.findById(key)
+                .ifPresent(record -> record.setResponse(response)));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval:PT10M}")
+    public void sweepExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        if (deleted != null && deleted > 0) {
+            log.debug("Swept {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Insert the key, or return the stored response of a completed request with the same key
+    private JsonNode reserve(String key, String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> {
+                IdempotencyRecord existing = idempotencyRecordRepository.findById(key).orElse(null);
+                if (existing != null && existing.getExpiresAt().isBefore(Instant.now())) {
+                    idempotencyRecordRepository.delete(existing);
+                    idempotencyRecordRepository.flush();
+                    existing = null;
+                }
+                if (existing == null) {
+                    IdempotencyRecord record = new IdempotencyRecord();
+                    record.setKey(key);
+                    record.setRequestHash(requestHash);
+                    record.setExpiresAt(Instant.now().plus(ttl));
+                    idempotencyRecordRepository.saveAndFlush(record);
+                    return null;
+                }
+                if (!existing.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyConflictException("Idempotency-Key " + key + " was used for a different request");
+                }
+                if (existing.getResponse() == null) {
+                    throw new IdempotencyConflictException("A request with Idempotency-Key " + key + " is still in progress");
+                }
+                return readJson(existing.getResponse());
+            });
+        } catch (DataIntegrityViolationException e) { // the same key inserted concurrently
+            throw new IdempotencyConflictException("A request with Idempotency-Key " + key + " is still in progress");
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Failed to fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to store idempotent response", e);
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read idempotent response", e);
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.example.service;
 
 import com.example.constant.FeeTypeEnum;
 import com.example.constant.PaymentEnum;
+import com.example.dto.projection.ApartmentBillingSummary;
+import com.example.dto.projection.ApartmentInvoiceFeeRow;
+import com.example.dto.projection.InvoiceApartmentBillingRow;
+import com.example.dto.request.BulkPaymentRequest;
 import com.example.dto.request.InvoiceRequest;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.*;
 import com.example.entity.*;
 import com.example.exception.UserInfoException;
 import com.example.repository.*;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.Money;
+import com.example.service.fee.PricingPlan;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -20,6 +28,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,43 +39,47 @@ public class InvoiceService {
     private final FeeInvoiceRepository feeInvoiceRepository;
     private final ApartmentRepository apartmentRepository;
     private final InvoiceApartmentRepository invoiceApartmentRepository;
+    private final InvoiceApartmentLineRepository invoiceApartmentLineRepository;
+    private final InvoiceApartmentFeeRepository invoiceApartmentFeeRepository;
+    private final FeeCalculator feeCalculator;
+    private final PageTotals pageTotals;
+    private final FeeCatalog feeCatalog;
+    private final InvoiceTotalsService invoiceTotalsService;
+
+    /**
+     * Page of invoices with totals computed per the requested count mode, see PageTotals
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<InvoiceResponse> fetchAllInvoices(Specification<Invoice> spec, Pageable pageable, PageCountRequest count) {
+        return pageTotals.page(Invoice.class, spec, pageable, count, "invoices", this::toInvoiceResponse);
+    }
+
+    /**
+     * Cursor page of invoices ordered by id, see KeysetPagination
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<InvoiceResponse> fetchAllInvoices(Specification<Invoice> spec, String after, int size) {
+        return KeysetPagination.scroll(invoiceRepository, spec, "id", String.class, after, size, this::toInvoiceResponse);
+    }
 
-    public PaginatedResponse<InvoiceResponse> fetchAllInvoices(Specification<Invoice> spec, Pageable pageable) {
-        Page<Invoice> pageInvoice = invoiceRepository.findAll(spec, pageable);
-        PaginatedResponse<InvoiceResponse> page = new PaginatedResponse<>();
-        page.setPageSize(pageable.getPageSize());
-        page.setCurPage(pageable.getPageNumber());
-        page.setTotalPages(pageInvoice.getTotalPages());
-        page.setTotalElements(pageInvoice.getNumberOfElements());
-        //map Invoice to InvoiceResponse
-        page.setResult(
-                pageInvoice.getContent()
-                        .stream()
-                        .map(invoice -> {
-                            // transform Instant to LocalDate
-                            LocalDate updatedAtLocalDate = invoice.getUpdatedAt()
-                                    .atZone(ZoneId.systemDefault())
-                                    .toLocalDate();
-
-                            // Extract Fee from FeeInvoice
-                            List<Fee> feeList = invoice.getFeeInvoices()
-                                    .stream()
-                                    .map(FeeInvoice::getFee)
-                                    .collect(Collectors.toList());
-
-                            // Create InvoiceResponse
-                            return new InvoiceResponse(
-                                    invoice.getIsActive(),
-                                    invoice.getId(),
-                                    invoice.getName(),
-                                    invoice.getDescription(),
-                                    updatedAtLocalDate,
-                                    feeList
-                            );
-                        })
-                        .collect(Collectors.toList())
+    private InvoiceResponse toInvoiceResponse(Invoice invoice) {
+        // transform Instant to LocalDate
+        LocalDate updatedAtLocalDate = invoice.getUpdatedAt()
+                .atZone(ZoneId.systemDefault())
+                .toLocalDate();
+
+        // Fees from the catalog instead of the lazy feeInvoices collection of every invoice
+        List<Fee> feeList = feeCatalog.feesOf(invoice.getId());
+
+        // Create InvoiceResponse
+        return new InvoiceResponse(
+                invoice.getIsActive(),
+                invoice.getId(),
+                invoice.getName(),
+                invoice.getDescription(),
+                updatedAtLocalDate,
+                feeList
         );
-        return page;
     }
 
     @Transactional
@@ -76,7 +89,7 @@ public class InvoiceService {
             throw new RuntimeException("Invoice with id " + id + " is not active");
         }
         LocalDate localDate = invoice.getUpdatedAt().atZone(ZoneId.systemDefault()).toLocalDate();
-        List<Fee> feeList = feeInvoiceRepository.findFeesByInvoiceId(id);
+        List<Fee> feeList = feeCatalog.feesOf(id);
 
         return InvoiceResponse.builder()
                 .id(invoice.getId())
@@ -88,74 +101,184 @@ public class InvoiceService {
                 .build();
     }
 
+    /**
+     * Load every invoice of an apartment with its fees and contribution amounts.
+     * Uses one billing summary query, one (invoice, fee) tuple query and one fee amount query,
+     * whatever the number of invoices. Invoices priced at issuance are read from their frozen line amounts.
+     */
+    @Transactional(readOnly = true)
     public List<InvoiceApartmentResponse> fetchAllInvoicesByApartmentId(Long id) throws RuntimeException {
-        Apartment apartment = apartmentRepository.findById(id)
+        ApartmentBillingSummary apartment = apartmentRepository.findBillingSummaryById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Not found apartment " + id));
-        List<InvoiceApartmentResponse> invoiceApartmentResponseList = invoiceApartmentRepository.findInvoicesByApartmentId(id);
-        invoiceApartmentResponseList.forEach(response -> {
-            InvoiceApartment invoiceApartment = invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber(response.getId(),id);
-            // Fetch fees by invoice ID
-            List<Fee> feeList = feeInvoiceRepository.findFeesByInvoiceId(response.getId());
-
-            // Map fees to FeeResponse and calculate amount
-            List<FeeResponse> feeResponses = feeList.stream()
-                    .map(fee -> {
-                        double amount;
-
-                        // Process the amount based on the fee type
-                        if (fee.getFeeTypeEnum() == FeeTypeEnum.DepartmentFee) {
-                            // Apartment fee: calculated based on the apartment area
-                            amount = fee.getUnitPrice().doubleValue() * apartment.getArea();
-                        } else if (fee.getFeeTypeEnum() == FeeTypeEnum.VehicleFee) {
-                            // Vehicle fee: calculated based on the number of cars and motorbikes
-//                            long totalVehicles = 3*apartment.getNumberOfCars() + apartment.getNumberOfMotorbikes();
-//                            amount = fee.getUnitPrice().doubleValue() * totalVehicles;
-                            double carFee = apartment.getNumberOfCars() * 1200000; // 1.200.000 VND/ô tô
-                            double motorbikeFee = apartment.getNumberOfMotorbikes() * 70000; // 70.000 VND/xe máy
-                            amount = carFee + motorbikeFee;
-                        } else if (fee.getFeeTypeEnum() == FeeTypeEnum.ContributionFund) {
-                            // Contribution fee: retrieved from `feeAmount` stored in InvoiceApartment
-                            amount = invoiceApartment.getFeeAmounts().getOrDefault(fee.getId(), 0.0); // feeAmountMap contains {feeId -> amount}
-                        } else {
-                            // Default: amount is 0
-                            amount = 0.0;
-                        }
-
-                        // Create FeeResponse
-                        return new FeeResponse(fee.getName(), fee.getId(), fee.getFeeTypeEnum(), amount);
-                    })
-                    .toList();
-
-
-            // Set the feeResponses to the response (Assuming there's a setter for fees)
-            response.setFeeList(feeResponses);
+        List<ApartmentInvoiceFeeRow> rows = invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(id);
+
+        // feeAmounts of every InvoiceApartment of this apartment: {invoiceApartmentId -> {feeId -> amount}}
+        Map<Long, Map<Long, Double>> feeAmountsByInvoiceApartment = new HashMap<>();
+        if (!rows.isEmpty()) {
+            invoiceApartmentRepository.findFeeAmountsByApartmentId(id).forEach(row ->
+                    feeAmountsByInvoiceApartment
+                            .computeIfAbsent(row.getInvoiceApartmentId(), key -> new HashMap<>())
+                            .put(row.getFeeId(), row.getAmount()));
+        }
+
+        return toInvoiceApartmentResponses(rows, feeAmountsByInvoiceApartment, () -> apartment);
+    }
+
+    // Assemble the invoices of one apartment from its (invoice, fee) rows; the billing summary is only needed
+    // for invoices issued before amounts were frozen
+    private List<InvoiceApartmentResponse> toInvoiceApartmentResponses(List<ApartmentInvoiceFeeRow> rows,
+                                                                       Map<Long, Map<Long, Double>> feeAmountsByInvoiceApartment,
+                                                                       Supplier<ApartmentBillingSummary> apartment) {
+        // Rows are ordered by invoiceApartmentId, so each invoice is assembled from consecutive rows
+        Map<Long, InvoiceApartmentResponse> responseByInvoiceApartment = new LinkedHashMap<>();
+        Map<Long, List<Fee>> feesByInvoiceApartment = new HashMap<>();
+        Map<Long, Map<Long, Double>> lineAmountsByInvoiceApartment = new HashMap<>();
+        for (ApartmentInvoiceFeeRow row : rows) {
+            responseByInvoiceApartment.computeIfAbsent(row.getInvoiceApartmentId(),
+                    key -> new InvoiceApartmentResponse(row.getInvoiceId(), row.getInvoiceName(), row.getInvoiceDescription(),
+                            row.getUpdatedAt(), row.getCreatedAt(), row.getPaymentStatus(), null));
+            List<Fee> feeList = feesByInvoiceApartment.computeIfAbsent(row.getInvoiceApartmentId(), key -> new ArrayList<>());
+            if (row.getPricedAt() != null) {
+                lineAmountsByInvoiceApartment.computeIfAbsent(row.getInvoiceApartmentId(), key -> new HashMap<>());
+            }
+            if (row.getFeeId() != null) { // null when the invoice has no fee
+                feeList.add(toFee(row));
+                if (row.getPricedAt() != null && row.getLineAmount() != null) {
+                    lineAmountsByInvoiceApartment.get(row.getInvoiceApartmentId()).put(row.getFeeId(), row.getLineAmount());
+                }
+            }
+        }
+
+        // Frozen invoices read their line amounts, older ones are priced from the apartment's current data
+        responseByInvoiceApartment.forEach((invoiceApartmentId, response) -> {
+            PricingPlan plan = feeCalculator.compile(feesByInvoiceApartment.get(invoiceApartmentId));
+            Map<Long, Double> feeAmounts = feeAmountsByInvoiceApartment.get(invoiceApartmentId);
+            Map<Long, Double> lineAmounts = lineAmountsByInvoiceApartment.get(invoiceApartmentId);
+            if (lineAmounts != null) {
+                response.setFeeList(plan.price(lineAmounts, feeAmounts));
+            } else {
+                ApartmentBillingSummary summary = apartment.get();
+                response.setFeeList(plan.price(summary.getArea(), summary.getNumberOfCars(), summary.getNumberOfMotorbikes(), feeAmounts));
+            }
         });
 
-        return invoiceApartmentResponseList;
+        return new ArrayList<>(responseByInvoiceApartment.values());
     }
 
+    private Fee toFee(ApartmentInvoiceFeeRow row) {
+        Fee fee = new Fee();
+        fee.setId(row.getFeeId());
+        fee.setName(row.getFeeName());
+        fee.setFeeTypeEnum(row.getFeeType());
+        fee.setUnitPrice(row.getUnitPrice());
+        return fee;
+    }
+
+    /**
+     * Merge contribution amounts into one invoice of an apartment and return every invoice of the apartment
+     */
     @Transactional
     public List<InvoiceApartmentResponse> updateContributionFund(Long apartmentId, String invoiceId, Map<Long, Double> feeAmounts) throws RuntimeException {
+        updateContributionFundLine(apartmentId, invoiceId, feeAmounts);
+        return fetchAllInvoicesByApartmentId(apartmentId);
+    }
+
+    /**
+     * Merge contribution amounts into one invoice of an apartment and return only that invoice, repriced.
+     * The amounts are upserted with JDBC, so the InvoiceApartment and its other fee amounts are never loaded.
+     */
+    @Transactional
+    public InvoiceApartmentResponse updateContributionFundLine(Long apartmentId, String invoiceId, Map<Long, Double> feeAmounts) throws RuntimeException {
+        // lock the row first: the amounts and payment status read below cannot change until commit
+        if (invoiceApartmentRepository.touch(invoiceId, apartmentId) == 0) {
+            throw new EntityNotFoundException("Not found invoice " + invoiceId + " of apartment " + apartmentId);
+        }
+        List<ApartmentInvoiceFeeRow> rows = invoiceApartmentRepository.findInvoiceFeeRows(invoiceId, apartmentId);
+        long invoiceApartmentId = rows.get(0).getInvoiceApartmentId();
+
+        Map<Long, Double> before = invoiceApartmentFeeRepository.findAmounts(invoiceApartmentId);
+        invoiceApartmentFeeRepository.upsert(invoiceApartmentId, before, feeAmounts);
+        Map<Long, Double> after = new HashMap<>(before);
+        after.putAll(feeAmounts);
+        invoiceTotalsService.recordContribution(invoiceId, rows.get(0).getPaymentStatus(),
+                contributionOf(invoiceId, after) - contributionOf(invoiceId, before));
+
+        return toInvoiceApartmentResponses(rows, Map.of(invoiceApartmentId, after), () -> apartmentRepository.findBillingSummaryById(apartmentId)
+                .orElseThrow(() -> new EntityNotFoundException("Not found apartment " + apartmentId))).get(0);
+    }
+
+    /**
+     * Pay one invoice of an apartment and merge its contribution amounts in a single transaction,
+     * so a failed merge also rolls back the payment. Returns only that invoice, or every invoice
+     * of the apartment when full is set.
+     */
+    @Transactional
+    public Object payAndUpdateContributionFund(Long apartmentId, String invoiceId, Map<Long, Double> feeAmounts, boolean full) throws RuntimeException {
         InvoiceApartment invoiceApartment = invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber(invoiceId, apartmentId);
-        // Update the feeAmountMap field
-        if (invoiceApartment.getFeeAmounts() == null) {
-            invoiceApartment.setFeeAmounts(new HashMap<>());
+        if (invoiceApartment == null) {
+            throw new EntityNotFoundException("Not found invoice " + invoiceId + " of apartment " + apartmentId);
         }
-        invoiceApartment.getFeeAmounts().putAll(feeAmounts);
-        // Save the updated entity
-        invoiceApartmentRepository.save(invoiceApartment);
-        return fetchAllInvoicesByApartmentId(apartmentId);
+        updateInvoiceApartment(invoiceApartment.getId());
+        return full
+                ? updateContributionFund(apartmentId, invoiceId, feeAmounts)
+                : updateContributionFundLine(apartmentId, invoiceId, feeAmounts);
     }
 
+    // Contribution amounts counted in the invoice totals, in minor units: ContributionFund fees of the invoice, once per link
+    private long contributionOf(String invoiceId, Map<Long, Double> feeAmounts) {
+        long sum = 0;
+        for (Fee fee : feeCatalog.feesOf(invoiceId)) {
+            if (fee.getFeeTypeEnum() == FeeTypeEnum.ContributionFund && feeAmounts.get(fee.getId()) != null) {
+                sum += Money.toMinor(feeAmounts.get(fee.getId()));
+            }
+        }
+        return sum;
+    }
+
+
     @Transactional
     public InvoiceApartment updateInvoiceApartment(Long id) throws RuntimeException {
         InvoiceApartment invoiceApartment = invoiceApartmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Not found id " + id));
+        if (invoiceApartment.getPaymentStatus() == PaymentEnum.Unpaid) {
+            invoiceTotalsService.recordPayments(List.of(id));
+        }
         invoiceApartment.setPaymentStatus(PaymentEnum.Paid);
         return invoiceApartmentRepository.save(invoiceApartment);
     }
 
+    /**
+     * Mark many InvoiceApartment rows paid in one transaction, by id and/or by (invoiceId, apartmentId).
+     * Rows are locked and updated with set-based statements, see BulkPayments.
+     */
     @Transactional
+    public BulkPaymentResponse payInvoiceApartments(BulkPaymentRequest request) {
+        BulkPayments.validate(request);
+        BulkPayments payments = new BulkPayments();
+        Set<Long> rowIds = new HashSet<>(Optional.ofNullable(request.getIds()).orElse(List.of()));
+        if (request.getPairs() != null) {
+            // pairs are resolved to ids first, so all rows are locked together in id order
+            Map<String, List<Long>> apartmentsByInvoice = request.getPairs().stream()
+                    .collect(Collectors.groupingBy(BulkPaymentRequest.InvoiceApartmentKey::getInvoiceId, LinkedHashMap::new,
+                            Collectors.mapping(BulkPaymentRequest.InvoiceApartmentKey::getApartmentId, Collectors.toList())));
+            apartmentsByInvoice.forEach((invoiceId, apartmentIds) -> {
+                for (List<Long> chunk : BulkPayments.chunks(apartmentIds)) {
+                    rowIds.addAll(invoiceApartmentRepository.findIdsByInvoiceAndApartments(invoiceId, chunk));
+                }
+            });
+        }
+        for (List<Long> chunk : BulkPayments.chunks(rowIds)) {
+            payments.addByPair(invoiceApartmentRepository.lockPaymentStatusByIds(chunk));
+        }
+        payments.markPaid(ids -> {
+            invoiceTotalsService.recordPayments(ids);
+            return invoiceApartmentRepository.markPaid(ids);
+        });
+        return payments.response(request);
+    }
+
+    @Transactional
+    @Timed(value = "invoice.create", histogram = true)
     public InvoiceResponse createInvoice(InvoiceRequest request) throws RuntimeException {
         Invoice invoice = new Invoice();
         //Check if the invoice exists or not
@@ -175,15 +298,14 @@ public class InvoiceService {
         invoice.setDescription(request.getDescription());
         invoice = invoiceRepository.save(invoice); //Must save here early to have information provided for side table 'fee_invoice'
 
-        List<Fee> feeList = feeRepository.findAllById(request.getFeeIds()); //Get all feeIDs from the request and save it as a list
-        for (Fee f : feeList) {
-            FeeInvoice feeInvoice = new FeeInvoice();
-            feeInvoice.setFee(f);
-//            feeInvoice.setInvoice(invoiceRepository.findById(request.getInvoiceId()).orElse(null));
-            feeInvoice.setInvoice(invoice);
-            feeInvoiceRepository.save(feeInvoice);
-        }
         if (request.getApartmentId() != null) {
+            List<Fee> feeList = feeRepository.findAllById(request.getFeeIds()); //Get all feeIDs from the request and save it as a list
+            for (Fee f : feeList) {
+                FeeInvoice feeInvoice = new FeeInvoice();
+                feeInvoice.setFee(f);
+                feeInvoice.setInvoice(invoice);
+                feeInvoiceRepository.save(feeInvoice);
+            }
             // Tạo hóa đơn cho một căn hộ cụ thể (dành cho ContributionFund)
             Apartment apartment = apartmentRepository.findById(request.getApartmentId())
                     .orElseThrow(() -> new RuntimeException("Apartment not found: " + request.getApartmentId()));
@@ -194,19 +316,19 @@ public class InvoiceService {
             invoiceApartmentRepository.save(invoiceApartment);
         } else {
             // Tạo hóa đơn cho tất cả căn hộ (dành cho DepartmentFee, VehicleFee)
-            List<Apartment> apartmentList = apartmentRepository.findAll();
-            for (Apartment a : apartmentList) {
-                InvoiceApartment invoiceApartment = new InvoiceApartment();
-                invoiceApartment.setApartment(a);
-                invoiceApartment.setInvoice(invoice);
-                invoiceApartment.setPaymentStatus(PaymentEnum.Unpaid);
-                invoiceApartmentRepository.save(invoiceApartment);
+            // Bulk issuance: fee_invoice and invoice_apartment rows are written set-based, in this transaction
+            if (request.getFeeIds() != null && !request.getFeeIds().isEmpty()) {
+                feeInvoiceRepository.insertForInvoice(invoice.getId(), request.getFeeIds());
             }
+            invoiceApartmentRepository.insertForAllApartments(invoice.getId(), PaymentEnum.Unpaid.ordinal());
         }
 
         Instant updatedAt = invoice.getUpdatedAt();
         LocalDate localDate = (updatedAt != null) ? updatedAt.atZone(ZoneId.systemDefault()).toLocalDate() : LocalDate.now();
         List<Fee> feeListAfterCreate = feeInvoiceRepository.findFeesByInvoiceId(request.getInvoiceId());
+        freezeLineAmounts(invoice.getId(), feeListAfterCreate);
+        feeCatalog.invalidate();
+        invoiceTotalsService.refresh(List.of(invoice.getId()));
 
         return InvoiceResponse.builder()
                 .isActive(invoice.getIsActive())
@@ -218,51 +340,19 @@ public class InvoiceService {
                 .build();
     }
 
+    /**
+     * Totals of every invoice, read from the invoice_totals read model maintained by InvoiceTotalsService
+     */
+    @Timed(value = "invoice.totals", histogram = true)
     public List<TotalInvoiceResponse> getAllTotalInvoices() {
-        // Map to store TotalInvoiceResponse by invoiceId
-        Map<String, TotalInvoiceResponse> totalInvoiceMap = new HashMap<>();
-
-        // Fetch all apartments
-        List<Apartment> apartmentList = apartmentRepository.findAll();
-
-        for (Apartment apartment : apartmentList) {
-            // Fetch all invoices for the apartment
-            List<InvoiceApartmentResponse> invoiceList = this.fetchAllInvoicesByApartmentId(apartment.getAddressNumber());
-
-            for (InvoiceApartmentResponse invoiceResponse : invoiceList) {
-                String invoiceId = invoiceResponse.getId(); // Assuming the response has getId()
-                double amountToAdd = invoiceResponse.getFeeList().stream().mapToDouble(FeeResponse::getAmount).sum(); // Assuming the response has getTotalAmount()
-                double amountPaid = (invoiceResponse.getPaymentStatus() == PaymentEnum.Unpaid) ? 0 : amountToAdd;
-                double amountContribution = invoiceResponse.getFeeList().stream().filter(feeResponse -> feeResponse.getFeeType() == FeeTypeEnum.ContributionFund).mapToDouble(FeeResponse::getAmount).sum();
-                // Check if the invoiceId is already in the map
-                if (totalInvoiceMap.containsKey(invoiceId)) {
-                    // Update the totalAmount for the existing entry
-                    TotalInvoiceResponse existingResponse = totalInvoiceMap.get(invoiceId);
-                    existingResponse.setTotalAmount(existingResponse.getTotalAmount() + amountToAdd);
-                    existingResponse.setPaidAmount(existingResponse.getPaidAmount() + amountPaid);
-                    existingResponse.setContributionAmount(existingResponse.getContributionAmount() + amountContribution);
-                } else {
-                    // Create a new TotalInvoiceResponse and add it to the map
-                    TotalInvoiceResponse newResponse = new TotalInvoiceResponse();
-                    newResponse.setId(invoiceId);
-                    newResponse.setName(invoiceResponse.getName());
-                    newResponse.setCreateDate(invoiceResponse.getCreatedAt());
-                    newResponse.setTotalAmount(amountToAdd);
-                    newResponse.setPaidAmount(amountPaid);
-                    newResponse.setContributionAmount(amountContribution);
-                    totalInvoiceMap.put(invoiceId, newResponse);
-                }
-            }
-        }
-
-        // Return the values of the map as a list
-        return new ArrayList<>(totalInvoiceMap.values());
+        return invoiceTotalsService.findAll();
     }
 
-
+    @Transactional
     public InvoiceResponse updateInvoice (InvoiceRequest request) throws RuntimeException {
         // Fetch invoice by ID
         Invoice invoice = invoiceRepository.findById(request.getInvoiceId()).orElseThrow(() -> new RuntimeException("Invoice with code = " + request.getInvoiceId() + " is not found"));
+        List<Long> feeIdsBeforeUpdate = feeIds(feeInvoiceRepository.findFeesByInvoiceId(invoice.getId()));
 
         // Update invoice fields
         invoice.setId(request.getInvoiceId());
@@ -284,6 +374,12 @@ public class InvoiceService {
         LocalDate localDate = Objects.requireNonNull(invoiceRepository.findById(invoice.getId()).orElse(null)).getUpdatedAt().atZone(ZoneId.systemDefault()).toLocalDate();
         // Fetch updated fee list
         List<Fee> feeListAfterUpdate = feeInvoiceRepository.findFeesByInvoiceId(invoice.getId());
+        // Frozen amounts are only priced again when the fee list changed; a rename keeps them
+        if (!feeIds(feeListAfterUpdate).equals(feeIdsBeforeUpdate)) {
+            freezeLineAmounts(invoice.getId(), feeListAfterUpdate);
+        }
+        feeCatalog.invalidate();
+        invoiceTotalsService.refresh(List.of(invoice.getId()));
 
         return InvoiceResponse.builder()
                 .isActive(invoice.getIsActive())
@@ -295,12 +391,67 @@ public class InvoiceService {
                 .build();
     }
 
+    /**
+     * Price an invoice again from the current fees, areas and vehicles, replacing the frozen line amounts of its unpaid apartments
+     */
+    @Transactional
+    public ApiResponse<String> recalculateInvoice(String id) throws RuntimeException {
+        Invoice invoice = invoiceRepository.findById(id).orElseThrow(() -> new RuntimeException("Invoice with code = " + id + " is not found"));
+        int pricedApartments = freezeLineAmounts(invoice.getId(), feeInvoiceRepository.findFeesByInvoiceId(invoice.getId()));
+        invoiceTotalsService.refresh(List.of(invoice.getId()));
+        ApiResponse<String> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("recalculate invoice success");
+        response.setData(pricedApartments + " apartments priced");
+        return response;
+    }
+
+    // Freeze the priced fee amounts of every unpaid apartment billed by the invoice into invoice_apartment_lines.
+    // Paid rows keep the amounts they were paid at.
+    private int freezeLineAmounts(String invoiceId, List<Fee> fees) {
+        invoiceApartmentLineRepository.deleteUnpaidByInvoiceId(invoiceId);
+        List<InvoiceApartmentBillingRow> rows = invoiceApartmentRepository.findUnpaidBillingRowsByInvoiceId(invoiceId);
+        long[] invoiceApartmentIds = new long[rows.size()];
+        double[] area = new double[rows.size()];
+        long[] cars = new long[rows.size()];
+        long[] motorbikes = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            invoiceApartmentIds[i] = rows.get(i).getInvoiceApartmentId();
+            area[i] = rows.get(i).getArea();
+            cars[i] = rows.get(i).getNumberOfCars();
+            motorbikes[i] = rows.get(i).getNumberOfMotorbikes();
+        }
+
+        PricingPlan plan = feeCalculator.compile(fees);
+        Set<Long> frozenFeeIds = new HashSet<>();
+        for (int i = 0; i < plan.size(); i++) {
+            // One line per fee, even if the fee is linked to the invoice twice
+            if (!rows.isEmpty() && plan.isPriced(i) && frozenFeeIds.add(plan.getFeeId(i))) {
+                long[] amounts = plan.lineAmounts(i, area, cars, motorbikes);
+                double[] lineAmounts = new double[amounts.length];
+                for (int j = 0; j < amounts.length; j++) {
+                    lineAmounts[j] = Money.toDouble(amounts[j]);
+                }
+                invoiceApartmentLineRepository.insertLines(invoiceApartmentIds, plan.getFeeId(i), lineAmounts);
+            }
+        }
+        invoiceApartmentRepository.markUnpaidPriced(invoiceId, Instant.now());
+        return rows.size();
+    }
+
+    private static List<Long> feeIds(List<Fee> fees) {
+        return fees.stream().map(Fee::getId).sorted().toList();
+    }
+
+    @Transactional
     public ApiResponse<String> deleteInvoice(String id) throws RuntimeException {
         Invoice invoice = invoiceRepository.findById(id).orElseThrow(() -> new RuntimeException("Invoice with code = " + id + " is not found"));
         //Delete all record by invoiceId in fee_invoice table
         feeInvoiceRepository.deleteByInvoiceId(id);
+        feeCatalog.invalidate();
         //Delete all record by invoiceId in invoice_apartment table
         invoiceApartmentRepository.deleteByInvoiceId(id);
+        invoiceTotalsService.remove(id);
         invoice.setIsActive(0);
         invoiceRepository.save(invoice);
         ApiResponse<String> response = new ApiResponse<>();
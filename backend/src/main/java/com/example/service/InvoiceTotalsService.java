@@ -0,0 +1,304 @@
+package com.example.service;
+
+import com.example.constant.PaymentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.projection.InvoiceAmountSummary;
+import com.example.dto.projection.InvoiceAreaSummary;
+import com.example.dto.projection.InvoiceVehicleSummary;
+import com.example.dto.projection.UnpaidInvoiceSummary;
+import com.example.dto.response.InvoiceTotalsRebuildResponse;
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.Fee;
+import com.example.entity.InvoiceTotals;
+import com.example.repository.InvoiceApartmentRepository;
+import com.example.repository.InvoiceTotalsRepository;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.Money;
+import com.example.service.fee.PricingPlan;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Maintains invoice_totals, the read model behind GET /invoices/total.
+ * Payments and contribution changes apply deltas to the rows of their invoices, issuing or repricing
+ * an invoice recomputes that invoice only, and rebuild recomputes everything and reports the drift.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class InvoiceTotalsService {
+    private static final double TOLERANCE = 0.01;
+
+    private final InvoiceApartmentRepository invoiceApartmentRepository;
+    private final InvoiceTotalsRepository invoiceTotalsRepository;
+    private final FeeCalculator feeCalculator;
+    private final FeeCatalog feeCatalog;
+
+    @Transactional(readOnly = true)
+    public List<TotalInvoiceResponse> findAll() {
+        return invoiceTotalsRepository.findAllTotals();
+    }
+
+    /**
+     * Recompute the rows of the given invoices, removing the ones no longer billed to any apartment
+     */
+    @Transactional
+    public void refresh(Collection<String> invoiceIds) {
+        Map<String, TotalInvoiceResponse> totals = compute(invoiceIds);
+        Map<String, InvoiceTotals> stored = new HashMap<>();
+        invoiceTotalsRepository.findAllById(invoiceIds).forEach(row -> stored.put(row.getInvoiceId(), row));
+        Instant now = Instant.now();
+        List<InvoiceTotals> rows = new ArrayList<>();
+        for (String invoiceId : new LinkedHashSet<>(invoiceIds)) {
+            TotalInvoiceResponse total = totals.get(invoiceId);
+            InvoiceTotals row = stored.get(invoiceId);
+            if (total == null) {
+                if (row != null) {
+                    invoiceTotalsRepository.delete(row);
+                }
+                continue;
+            }
+            rows.add(copy(total, row != null ? row : new InvoiceTotals(invoiceId, total.getName(), total.getCreateDate()), now));
+        }
+        invoiceTotalsRepository.saveAll(rows);
+    }
+
+    @Transactional
+    public void remove(String invoiceId) {
+        invoiceTotalsRepository.deleteById(invoiceId);
+    }
+
+    /**
+     * Move the unpaid rows among the given invoice apartments to the paid amount of their invoices.
+     * Must run in the paying transaction, before their status is updated, with the rows locked or versioned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayments(Collection<Long> invoiceApartmentIds) {
+        Map<String, Long> amounts = new HashMap<>();
+        for (InvoiceAmountSummary row : invoiceApartmentRepository.sumUnpaidLineAmountsByIds(invoiceApartmentIds)) {
+            amounts.merge(row.getInvoiceId(), Money.toMinor(row.getAmount()), Long::sum);
+        }
+        for (InvoiceAmountSummary row : invoiceApartmentRepository.sumUnpaidContributionsByIds(invoiceApartmentIds)) {
+            amounts.merge(row.getInvoiceId(), Money.toMinor(row.getAmount()), Long::sum);
+        }
+
+        Set<String> stale = new LinkedHashSet<>();
+        Instant now = Instant.now();
+        for (UnpaidInvoiceSummary row : invoiceApartmentRepository.countUnpaidByIds(invoiceApartmentIds)) {
+            // rows issued before amounts were frozen are priced live, their invoice is recomputed instead
+            if (row.getUnpriced() > 0 || invoiceTotalsRepository.addDelta(row.getInvoiceId(), 0,
+                    Money.toDouble(amounts.getOrDefault(row.getInvoiceId(), 0L)), 0, -row.getApartments(), now) == 0) {
+                stale.add(row.getInvoiceId());
+            }
+        }
+        refreshBeforeCommit(stale);
+    }
+
+    /**
+     * Contribution amounts of one invoice apartment changed by delta, in minor units
+     */
+    @Transactional
+    public void recordContribution(String invoiceId, PaymentEnum paymentStatus, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        double amount = Money.toDouble(delta);
+        double paid = paymentStatus == PaymentEnum.Unpaid ? 0 : amount;
+        if (invoiceTotalsRepository.addDelta(invoiceId, amount, paid, amount, 0, Instant.now()) == 0) {
+            refreshBeforeCommit(Set.of(invoiceId));
+        }
+    }
+
+    /**
+     * Recompute every invoice and compare it with the stored rows
+     *
+     * @param dryRun only report the drift, leave the read model as it is
+     */
+    @Transactional
+    public InvoiceTotalsRebuildResponse rebuild(boolean dryRun) {
+        Map<String, TotalInvoiceResponse> totals = new LinkedHashMap<>();
+        for (List<String> chunk : BulkPayments.chunks(invoiceApartmentRepository.findBilledInvoiceIds())) {
+            totals.putAll(compute(chunk));
+        }
+
+        Map<String, InvoiceTotals> stored = new HashMap<>();
+        invoiceTotalsRepository.findAll().forEach(row -> stored.put(row.getInvoiceId(), row));
+        List<String> drifted = new ArrayList<>();
+        totals.forEach((invoiceId, total) -> {
+            if (!matches(stored.get(invoiceId), total)) {
+                drifted.add(invoiceId);
+            }
+        });
+        stored.keySet().stream().filter(invoiceId -> !totals.containsKey(invoiceId)).forEach(drifted::add);
+        Collections.sort(drifted);
+
+        if (!dryRun) {
+            Instant now = Instant.now();
+            invoiceTotalsRepository.saveAll(totals.values().stream()
+                    .map(total -> copy(total, stored.getOrDefault(total.getId(),
+                            new InvoiceTotals(total.getId(), total.getName(), total.getCreateDate())), now))
+                    .toList());
+            invoiceTotalsRepository.deleteAll(stored.values().stream()
+                    .filter(row -> !totals.containsKey(row.getInvoiceId()))
+                    .toList());
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Invoice totals drifted for {} invoices", drifted.size());
+        }
+        return InvoiceTotalsRebuildResponse.builder()
+                .dryRun(dryRun)
+                .invoices(totals.size())
+                .drifted(drifted)
+                .build();
+    }
+
+    // Fill the read model of a database that had invoices before it existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (invoiceTotalsRepository.count() == 0 && !invoiceApartmentRepository.findBilledInvoiceIds().isEmpty()) {
+            rebuild(false);
+        }
+    }
+
+    /**
+     * Summarize the given invoices with a constant number of grouped queries.
+     * Frozen line amounts are summed as they are. Apartments billed before amounts were frozen are priced
+     * live: fee amounts are linear in area and vehicle count, so each invoice is priced once per
+     * payment status group instead of once per apartment, rounded once per group rather than per line.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, TotalInvoiceResponse> compute(Collection<String> invoiceIds) {
+        Map<String, TotalInvoiceResponse> totalInvoiceMap = new LinkedHashMap<>();
+        if (invoiceIds.isEmpty()) {
+            return totalInvoiceMap;
+        }
+        // Fees of every invoice, from the catalog snapshot
+        Map<String, List<Fee>> feesByInvoice = feeCatalog.snapshot().feesByInvoice();
+
+        // Billing inputs summed per invoice, then per payment status (null status is its own group)
+        Map<String, Map<PaymentEnum, BillingGroup>> groupsByInvoice = new HashMap<>();
+
+        for (InvoiceAreaSummary row : invoiceApartmentRepository.sumAreaByInvoiceAndPaymentStatus(invoiceIds)) {
+            totalInvoiceMap.computeIfAbsent(row.getInvoiceId(), invoiceId -> {
+                TotalInvoiceResponse newResponse = new TotalInvoiceResponse();
+                newResponse.setId(invoiceId);
+                newResponse.setName(row.getName());
+                newResponse.setCreateDate(row.getCreatedAt());
+                return newResponse;
+            });
+            BillingGroup group = billingGroup(groupsByInvoice, row.getInvoiceId(), row.getPaymentStatus());
+            group.area += row.getTotalArea();
+            group.apartments += row.getApartments();
+        }
+        for (InvoiceVehicleSummary row : invoiceApartmentRepository.countVehiclesByInvoiceAndPaymentStatus(invoiceIds)) {
+            BillingGroup group = billingGroup(groupsByInvoice, row.getInvoiceId(), row.getPaymentStatus());
+            if (row.getCategory() == VehicleEnum.Car) {
+                group.cars += row.getCount();
+            } else if (row.getCategory() == VehicleEnum.Motorbike) {
+                group.motorbikes += row.getCount();
+            }
+        }
+        for (InvoiceAmountSummary row : invoiceApartmentRepository.sumLineAmountsByInvoiceAndPaymentStatus(invoiceIds)) {
+            billingGroup(groupsByInvoice, row.getInvoiceId(), row.getPaymentStatus()).frozen += Money.toMinor(row.getAmount());
+        }
+        for (InvoiceAmountSummary row : invoiceApartmentRepository.sumContributionsByInvoiceAndPaymentStatus(invoiceIds)) {
+            billingGroup(groupsByInvoice, row.getInvoiceId(), row.getPaymentStatus()).contribution += Money.toMinor(row.getAmount());
+        }
+
+        totalInvoiceMap.forEach((invoiceId, response) -> {
+            List<Map.Entry<PaymentEnum, BillingGroup>> groups = new ArrayList<>(groupsByInvoice.get(invoiceId).entrySet());
+            double[] area = new double[groups.size()];
+            long[] cars = new long[groups.size()];
+            long[] motorbikes = new long[groups.size()];
+            for (int i = 0; i < groups.size(); i++) {
+                area[i] = groups.get(i).getValue().area;
+                cars[i] = groups.get(i).getValue().cars;
+                motorbikes[i] = groups.get(i).getValue().motorbikes;
+            }
+            PricingPlan plan = feeCalculator.compile(feesByInvoice.getOrDefault(invoiceId, Collections.emptyList()));
+            long[] amounts = plan.totals(area, cars, motorbikes);
+            long total = 0;
+            long paid = 0;
+            long contribution = 0;
+            for (int i = 0; i < groups.size(); i++) {
+                BillingGroup group = groups.get(i).getValue();
+                long amount = amounts[i] + group.frozen + group.contribution;
+                total += amount;
+                contribution += group.contribution;
+                response.setApartmentCount(response.getApartmentCount() + group.apartments);
+                if (groups.get(i).getKey() != PaymentEnum.Unpaid) {
+                    paid += amount;
+                } else {
+                    response.setUnpaidCount(response.getUnpaidCount() + group.apartments);
+                }
+            }
+            // amounts are summed in minor units and converted once per invoice
+            response.setTotalAmount(Money.toDouble(total));
+            response.setPaidAmount(Money.toDouble(paid));
+            response.setContributionAmount(Money.toDouble(contribution));
+        });
+
+        return totalInvoiceMap;
+    }
+
+    // Sums of the apartments of one invoice sharing a payment status, amounts in minor units
+    private static class BillingGroup {
+        double area; // area, cars and motorbikes only of apartments without frozen amounts
+        long cars;
+        long motorbikes;
+        long frozen;
+        long contribution;
+        long apartments;
+    }
+
+    private BillingGroup billingGroup(Map<String, Map<PaymentEnum, BillingGroup>> groupsByInvoice, String invoiceId, PaymentEnum paymentStatus) {
+        return groupsByInvoice.computeIfAbsent(invoiceId, key -> new HashMap<>())
+                .computeIfAbsent(paymentStatus, key -> new BillingGroup());
+    }
+
+    // Recompute once the statements of the current transaction have run, right before it commits
+    private void refreshBeforeCommit(Set<String> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                refresh(invoiceIds);
+            }
+        });
+    }
+
+    private static boolean matches(InvoiceTotals row, TotalInvoiceResponse total) {
+        return row != null
+                && Math.abs(row.getTotalAmount() - total.getTotalAmount()) < TOLERANCE
+                && Math.abs(row.getPaidAmount() - total.getPaidAmount()) < TOLERANCE
+                && Math.abs(row.getContributionAmount() - total.getContributionAmount()) < TOLERANCE
+                && row.getApartmentCount() == total.getApartmentCount()
+                && row.getUnpaidCount() == total.getUnpaidCount()
+                && Objects.equals(row.getName(), total.getName());
+    }
+
+    private static InvoiceTotals copy(TotalInvoiceResponse total, InvoiceTotals row, Instant now) {
+        row.setName(total.getName());
+        row.setCreateDate(total.getCreateDate());
+        row.setTotalAmount(total.getTotalAmount());
+        row.setPaidAmount(total.getPaidAmount());
+        row.setContributionAmount(total.getContributionAmount());
+        row.setApartmentCount(total.getApartmentCount());
+        row.setUnpaidCount(total.getUnpaidCount());
+        row.setUpdatedAt(now);
+        return row;
+    }
+}
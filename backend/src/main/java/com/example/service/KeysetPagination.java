@@ -0,0 +1,68 @@
+package com.example.service;
+
+import com.example.dto.response.PaginatedResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cursor (keyset) pages ordered by primary key. The "after" cursor is the opaque, encoded id of the
+ * last row of the previous page; an empty cursor starts at the first row. No count query is run,
+ * so the totals of the response stay 0 and hasNext tells whether another page follows; a deep page
+ * costs the same as the first one.
+ */
+final class KeysetPagination {
+    private KeysetPagination() {
+    }
+
+    static <T, R> PaginatedResponse<R> scroll(JpaSpecificationExecutor<T> repository, Specification<T> spec,
+                                               String idAttribute, Class<?> idType, String after, int size,
+                                               Function<T, R> mapper) {
+        Object afterId = decode(after, idType);
+        ScrollPosition position = afterId == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of(idAttribute, afterId));
+        Window<T> window = repository.findBy(spec == null ? Specification.where(null) : spec,
+                query -> query.sortBy(Sort.by(idAttribute)).limit(size).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(last.getKeys().get(idAttribute));
+        }
+        return PaginatedResponse.<R>builder()
+                .pageSize(size)
+                .result(window.getContent().stream().map(mapper).toList())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    static String encode(Object id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id the cursor points at, or null for an empty cursor
+     */
+    static Object decode(String cursor, Class<?> idType) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return idType == Long.class ? Long.valueOf(id) : id;
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+    }
+}
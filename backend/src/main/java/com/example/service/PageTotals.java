@@ -0,0 +1,170 @@
+package com.example.service;
+
+import com.example.constant.CountModeEnum;
+import com.example.dto.request.PageCountRequest;
+import com.example.dto.response.PaginatedResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Offset pages whose totals follow the requested count mode:
+ * Exact runs a COUNT cached for a short TTL per entity and filter,
+ * Estimate reads pg_class.reltuples for unfiltered lists (exact otherwise),
+ * None skips the count and only reports hasNext.
+ * The content query fetches one extra row, so a page that reaches the end never needs a count.
+ */
+@Component
+@Slf4j
+public class PageTotals {
+    private static final int MAX_CACHED_COUNTS = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long countTtlMillis;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private volatile Boolean postgres;
+
+    public PageTotals(JdbcTemplate jdbcTemplate, @Value("${pagination.count-cache-ttl:30s}") Duration countTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.countTtlMillis = countTtl.toMillis();
+    }
+
+    /**
+     * @param countKey what the spec filters beyond the request filter, e.g. "residents:active"
+     */
+    public <T, R> PaginatedResponse<R> page(Class<T> domain, Specification<T> spec, Pageable pageable,
+                                            PageCountRequest count, String countKey, Function<T, R> mapper) {
+        List<T> rows = content(domain, spec, pageable);
+        return response(rows, pageable, () -> total(domain, spec, count, countKey), mapper);
+    }
+
+    /**
+     * Build the response from rows fetched with one extra row past the page size
+     */
+    public <T, R> PaginatedResponse<R> response(List<T> rows, Pageable pageable, Supplier<Long> total, Function<T, R> mapper) {
+        int size = pageable.getPageSize();
+        boolean hasNext = rows.size() > size;
+        List<T> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        Long totalElements;
+        if (!hasNext && (!pageRows.isEmpty() || pageable.getOffset() == 0)) {
+            totalElements = pageable.getOffset() + pageRows.size(); // last page, the total is known
+        } else {
+            totalElements = total.get();
+        }
+
+        PaginatedResponse<R> page = new PaginatedResponse<>();
+        page.setPageSize(size);
+        page.setCurPage(pageable.getPageNumber());
+        page.setHasNext(hasNext);
+        if (totalElements != null) {
+            page.setTotalElements(totalElements);
+            page.setTotalPages(size == 0 ? 0 : (int) Math.min((totalElements + size - 1) / size, Integer.MAX_VALUE));
+        }
+        page.setResult(pageRows.stream().map(mapper).toList());
+        return page;
+    }
+
+    /**
+     * @return the total for the count mode, or null for None
+     */
+    public <T> Long total(Class<T> domain, Specification<T> spec, PageCountRequest count, String countKey) {
+        if (count.getMode() == CountModeEnum.None) {
+            return null;
+        }
+        if (count.getMode() == CountModeEnum.Estimate && spec == null) {
+            Long estimate = estimate(domain);
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        return cachedCount(domain, spec, countKey + "|" + count.getFilter());
+    }
+
+    private <T> List<T> content(Class<T> domain, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domain);
+        Root<T> root = query.from(domain);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+    }
+
+    private <T> long cachedCount(Class<T> domain, Specification<T> spec, String key) {
+        String cacheKey = domain.getName() + "|" + key;
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(cacheKey);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        long value = count(domain, spec);
+        if (counts.size() >= MAX_CACHED_COUNTS) {
+            counts.clear();
+        }
+        counts.put(cacheKey, new CachedCount(value, now + countTtlMillis));
+        return value;
+    }
+
+    private <T> long count(Class<T> domain, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domain);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Planner row estimate of the whole table, null when not on PostgreSQL or the table was never analyzed
+    private Long estimate(Class<?> domain) {
+        Table table = domain.getAnnotation(Table.class);
+        if (table == null || !isPostgres()) {
+            return null;
+        }
+        Long reltuples = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table.name());
+        return reltuples == null || reltuples < 0 ? null : reltuples;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            log.debug("Row estimates {}", postgres ? "enabled" : "disabled, not on PostgreSQL");
+        }
+        return postgres;
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.dto.projection.InvoiceApartmentAmountRow;
+import com.example.dto.projection.UtilityBillAmountRow;
+import com.example.dto.response.ReconciliationResponse;
+import com.example.repository.InvoiceApartmentRepository;
+import com.example.repository.UtilityBillRepository;
+import com.example.service.importer.CsvRowReader;
+import com.example.service.reconciliation.StatementMatcher;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bank statement reconciliation: the CSV statement is streamed line by line, keys are extracted from the
+ * free text of each transfer and hash-joined against the unpaid rows loaded once, exact matches are marked
+ * paid in IN-list batches and every other line is reported as an exception.
+ */
+@Service
+@AllArgsConstructor
+public class ReconciliationService {
+    private static final int MAX_COLUMNS = 32;
+    private static final List<String> AMOUNT_HEADERS = List.of("AMOUNT", "CREDIT", "SO TIEN", "GHI CO");
+    private static final List<String> DESCRIPTION_HEADERS = List.of("DESCRIPTION", "CONTENT", "MEMO", "DETAIL",
+            "REFERENCE", "NOI DUNG", "DIEN GIAI");
+
+    private final InvoiceApartmentRepository invoiceApartmentRepository;
+    private final UtilityBillRepository utilityBillRepository;
+    private final InvoiceTotalsService invoiceTotalsService;
+
+    /**
+     * @param dryRun report the matches without marking anything paid
+     */
+    @Transactional
+    public ReconciliationResponse reconcile(MultipartFile file, boolean dryRun) {
+        StatementMatcher matcher = new StatementMatcher();
+        try (Stream<InvoiceApartmentAmountRow> rows = invoiceApartmentRepository.streamUnpaid()) {
+            rows.forEach(matcher::addInvoiceApartment);
+        }
+        try (Stream<UtilityBillAmountRow> rows = utilityBillRepository.streamUnpaid()) {
+            rows.forEach(matcher::addUtilityBill);
+        }
+
+        int[] transactions = {0};
+        Columns columns = new Columns();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvRowReader.read(reader, MAX_COLUMNS, (rowNum, cells) -> {
+                if (rowNum == 0) {
+                    columns.detect(cells);
+                    return;
+                }
+                String description = columns.description(cells);
+                if (description.isEmpty() && cells[columns.amount] == null) { // blank line
+                    return;
+                }
+                transactions[0]++;
+                matcher.match(rowNum + 1, description, StatementMatcher.parseAmount(cells[columns.amount]));
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read bank statement", e);
+        }
+
+        int invoiceApartmentsPaid = 0;
+        int utilityBillsPaid = 0;
+        if (!dryRun) {
+            for (List<Long> chunk : BulkPayments.chunks(matcher.getMatchedInvoiceApartments())) {
+                // lock the rows so the invoice totals move each of them from unpaid to paid exactly once
+                invoiceApartmentRepository.lockPaymentStatusByIds(chunk);
+                invoiceTotalsService.recordPayments(chunk);
+                invoiceApartmentsPaid += invoiceApartmentRepository.markPaid(chunk);
+            }
+            for (List<Long> chunk : BulkPayments.chunks(matcher.getMatchedUtilityBills())) {
+                utilityBillsPaid += utilityBillRepository.markPaid(chunk);
+            }
+        }
+        return ReconciliationResponse.builder()
+                .dryRun(dryRun)
+                .transactions(transactions[0])
+                .matched(matcher.getMatches().size())
+                .invoiceApartmentsPaid(invoiceApartmentsPaid)
+                .utilityBillsPaid(utilityBillsPaid)
+                .matches(matcher.getMatches())
+                .exceptions(matcher.getIssues())
+                .build();
+    }
+
+    // Positions of the amount and free text columns, found from the header names
+    private static class Columns {
+        int amount = -1;
+        final List<Integer> descriptions = new ArrayList<>();
+
+        void detect(String[] header) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] == null) {
+                    continue;
+                }
+                String plain = StatementMatcher.normalize(header[i]);
+                if (amount < 0 && AMOUNT_HEADERS.stream().anyMatch(plain::contains)) {
+                    amount = i;
+                } else if (DESCRIPTION_HEADERS.stream().anyMatch(plain::contains)) {
+                    descriptions.add(i);
+                }
+            }
+            if (amount < 0 || descriptions.isEmpty()) {
+                throw new RuntimeException("Bank statement header must have an amount and a description column");
+            }
+        }
+
+        String description(String[] cells) {
+            StringBuilder text = new StringBuilder();
+            for (int column : descriptions) {
+                if (cells[column] != null) {
+                    text.append(text.length() > 0 ? " " : "").append(cells[column]);
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.service;
+
+import com.example.constant.GenderEnum;
+import com.example.constant.ResidentEnum;
+import com.example.dto.response.ImportJobResponse;
+import com.example.entity.Resident;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.ResidentJdbcRepository;
+import com.example.repository.ResidentRepository;
+import com.example.service.importer.CsvRowReader;
+import com.example.service.importer.ImportJobRunner;
+import com.example.service.importer.LongHashSet;
+import com.example.service.importer.RowHandler;
+import com.example.service.importer.RowImport;
+import com.example.service.importer.XlsxRowReader;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Resident imports from CSV or Excel (cic, name, dob, gender, status, apartment id per row) as background jobs,
+ * run by ImportJobRunner. CICs are checked against the ids already in the table and the rows read so far,
+ * apartments against the apartment ids, both loaded once per import.
+ */
+@Service
+@AllArgsConstructor
+public class ResidentImportService {
+    static final String KIND = "resident";
+    static final int IMPORT_COLUMNS = 6;
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private final ResidentRepository residentRepository;
+    private final ApartmentRepository apartmentRepository;
+    private final ResidentJdbcRepository residentJdbcRepository;
+    private final ResidentSearchIndex residentSearchIndex;
+    private final ImportJobRunner importJobRunner;
+
+    /**
+     * Queue the import of a .csv or .xlsx file and return at once; poll getJob with the returned job id
+     */
+    public ImportJobResponse submit(final MultipartFile file) {
+        final boolean csv = file.getOriginalFilename() != null && file.getOriginalFilename().toLowerCase().endsWith(".csv");
+        return importJobRunner.submit(KIND, file, file.getOriginalFilename(), csv ? ".csv" : ".xlsx", new ResidentImport(csv));
+    }
+
+    public ImportJobResponse getJob(final String jobId) {
+        return importJobRunner.getJob(KIND, jobId);
+    }
+
+    private class ResidentImport implements RowImport<Resident> {
+        private final boolean csv;
+        private LongHashSet existingIds;
+        private LongHashSet apartmentIds;
+        private final LongHashSet fileIds = new LongHashSet(ImportJobRunner.BATCH_SIZE);
+
+        ResidentImport(final boolean csv) {
+            this.csv = csv;
+        }
+
+        @Override
+        public void prepare() {
+            existingIds = loadResidentIds();
+            apartmentIds = loadApartmentIds();
+        }
+
+        @Override
+        public void read(final Path file, final RowHandler handler) throws Exception {
+            if (csv) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    CsvRowReader.read(reader, IMPORT_COLUMNS, handler);
+                }
+            } else {
+                XlsxRowReader.read(file, IMPORT_COLUMNS, handler);
+            }
+        }
+
+        @Override
+        public Resident parse(final int rowNum, final String[] cells) {
+            return isEmpty(cells) ? null : parseImportRow(cells, existingIds, fileIds, apartmentIds);
+        }
+
+        @Override
+        public void insert(final List<Resident> chunk) {
+            residentJdbcRepository.insertAll(chunk);
+        }
+
+        @Override
+        public void committed(final List<Resident> chunk) {
+            residentSearchIndex.putAll(chunk);
+        }
+    }
+
+    Resident parseImportRow(final String[] cells, final LongHashSet existingIds, final LongHashSet fileIds,
+                            final LongHashSet apartmentIds) {
+        final var cic = text(cells, 0);
+        if (cic == null || !cic.matches("\\d{1,18}")) {
+            throw new IllegalArgumentException(String.format("CIC must be a number: %s", cic));
+        }
+        final long id = Long.parseLong(cic);
+        if (existingIds.contains(id)) {
+            throw new IllegalArgumentException(String.format("Resident with id = %s already exists", cic));
+        }
+        final var name = text(cells, 1);
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        final var apartmentId = apartmentId(text(cells, 5));
+        if (apartmentId != null && !apartmentIds.contains(apartmentId)) {
+            throw new IllegalArgumentException(String.format("Apartment with id %d not found", apartmentId));
+        }
+        final var status = text(cells, 4);
+        final var resident = Resident.builder()
+                .id(id)
+                .name(name)
+                .dob(date(text(cells, 2)))
+                .gender(gender(text(cells, 3)))
+                .cic(cic)
+                .status(status == null ? ResidentEnum.Resident : ResidentEnum.fromString(status))
+                .apartmentId(apartmentId)
+                .build();
+        // last, so a rejected row does not claim its CIC
+        if (!fileIds.add(id)) {
+            throw new IllegalArgumentException(String.format("CIC %s appears more than once in the file", cic));
+        }
+        return resident;
+    }
+
+    LongHashSet loadResidentIds() {
+        final var residentIds = new LongHashSet((int) this.residentRepository.countAll());
+        try (var ids = this.residentRepository.streamAllIds()) {
+            ids.forEach(residentIds::add);
+        }
+        return residentIds;
+    }
+
+    LongHashSet loadApartmentIds() {
+        final var apartmentIds = new LongHashSet((int) this.apartmentRepository.countAll());
+        try (var ids = this.apartmentRepository.streamAllAddressNumbers()) {
+            ids.forEach(apartmentIds::add);
+        }
+        return apartmentIds;
+    }
+
+    // Private helper methods
+    private static boolean isEmpty(final String[] cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(final String[] cells, final int column) {
+        final var value = cells[column];
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // 0 or empty means the resident is not assigned to an apartment yet, as in createResident
+    private static Long apartmentId(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            final long id = new BigDecimal(value).longValueExact();
+            return id == 0 ? null : id;
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Apartment id is not a number: %s", value));
+        }
+    }
+
+    // ISO dates from CSV, serial day numbers from Excel date cells
+    private static LocalDate date(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.matches("\\d+(\\.0+)?")) {
+                return EXCEL_EPOCH.plusDays(new BigDecimal(value).longValue());
+            }
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Date of birth is not a date (yyyy-MM-dd): %s", value));
+        }
+    }
+
+    private static GenderEnum gender(final String value) {
+        if (value == null) {
+            return null;
+        }
+        for (GenderEnum gender : GenderEnum.values()) {
+            if (gender.name().equalsIgnoreCase(value)) {
+                return gender;
+            }
+        }
+        throw new IllegalArgumentException("Invalid gender: " + value);
+    }
+}
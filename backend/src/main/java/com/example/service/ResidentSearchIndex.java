@@ -0,0 +1,263 @@
+package com.example.service;
+
+import com.example.dto.response.ResidentSearchResponse;
+import com.example.entity.Resident;
+import com.example.repository.ResidentRepository;
+import com.example.service.importer.LongHashSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory word prefix index over resident names and CICs, for autocomplete without leading-wildcard
+ * LIKE scans. Names are folded (lower case, Vietnamese diacritics removed) so "nguyen" finds "Nguyễn".
+ * Every query word must be the prefix of a word of the name or of the CIC; results are ranked by
+ * exact over prefix matches, then by shorter names.
+ * <p>
+ * Built on startup and maintained by ResidentService writes once they commit. Writes that bypass the
+ * services (manual SQL, other instances) are picked up by the periodic rebuild.
+ */
+@Component
+@Slf4j
+public class ResidentSearchIndex {
+    static final int MAX_LIMIT = 50;
+
+    private final ResidentRepository residentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object lock = new Object();
+    private volatile Index index = new Index();
+    // Changes applied while a rebuild reads the table, replayed onto the rebuilt index
+    private List<Consumer<Index>> pending;
+
+    public ResidentSearchIndex(ResidentRepository residentRepository, PlatformTransactionManager transactionManager) {
+        this.residentRepository = residentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    private record Entry(long id, String name, String cic, String folded, List<String> words) {
+    }
+
+    // Word -> ids of the residents with that word, sorted so a prefix is a range of keys
+    private static class Index {
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<String, Set<Long>> words = new ConcurrentSkipListMap<>();
+
+        void put(Entry entry) {
+            remove(entry.id());
+            entries.put(entry.id(), entry);
+            for (String word : entry.words()) {
+                words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+        }
+
+        void remove(long id) {
+            Entry old = entries.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String word : old.words()) {
+                words.computeIfPresent(word, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${resident-search.rebuild-interval:PT30M}",
+            fixedDelayString = "${resident-search.rebuild-interval:PT30M}")
+    public void rebuild() {
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        final var rebuilt = new Index();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (var rows = residentRepository.streamSearchRows()) {
+                    rows.forEach(row -> rebuilt.put(entry(row.getId(), row.getName(), row.getCic())));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            index = rebuilt;
+        }
+        log.info("Resident search index rebuilt with {} residents", rebuilt.entries.size());
+    }
+
+    /**
+     * Index the resident, or re-index it after a change of name or CIC
+     */
+    public void put(final Resident resident) {
+        final var entry = entry(resident.getId(), resident.getName(), resident.getCic());
+        apply(target -> target.put(entry));
+    }
+
+    public void putAll(final Collection<Resident> residents) {
+        final var entries = residents.stream().map(r -> entry(r.getId(), r.getName(), r.getCic())).toList();
+        apply(target -> entries.forEach(target::put));
+    }
+
+    public void remove(final Collection<Long> ids) {
+        final var copy = List.copyOf(ids);
+        apply(target -> copy.forEach(target::remove));
+    }
+
+    /**
+     * Residents matching the query, best first; an empty query matches nothing
+     */
+    public List<ResidentSearchResponse> search(final String query, final int limit) {
+        final var terms = words(fold(query == null ? "" : query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        final int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        final var foldedQuery = String.join(" ", terms);
+        final var current = index;
+
+        // the longest word has the fewest candidates
+        final var driver = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        final Comparator<ResidentSearchResponse> ranking = Comparator
+                .comparingInt(ResidentSearchResponse::getScore)
+                .thenComparing((a, b) -> Integer.compare(b.getName().length(), a.getName().length()))
+                .thenComparing((a, b) -> Long.compare(b.getId(), a.getId()));
+        final var best = new PriorityQueue<>(size + 1, ranking); // worst of the kept results on top
+        final var seen = new LongHashSet(64);
+        for (Set<Long> ids : current.words.subMap(driver, true, driver + Character.MAX_VALUE, true).values()) {
+            for (Long id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                final var entry = current.entries.get(id);
+                final int score = entry == null ? 0 : score(entry, terms, foldedQuery);
+                if (score > 0) {
+                    best.add(ResidentSearchResponse.builder()
+                            .id(entry.id()).name(entry.name()).cic(entry.cic()).score(score).build());
+                    if (best.size() > size) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        final var results = new ArrayList<>(best);
+        results.sort(ranking.reversed());
+        return results;
+    }
+
+    public int size() {
+        return index.entries.size();
+    }
+
+    // Private helper methods
+
+    // Run the change once the current transaction commits, or now outside one
+    private void apply(final Consumer<Index> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void applyNow(final Consumer<Index> change) {
+        synchronized (lock) {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+
+    // 0 when a query word matches no word of the resident, otherwise 2 per exact and 1 per prefix match,
+    // plus 2 when the name starts with the whole query and 10 for the exact CIC
+    private static int score(final Entry entry, final List<String> terms, final String foldedQuery) {
+        int score = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String word : entry.words()) {
+                if (word.equals(term)) {
+                    best = 2;
+                    break;
+                }
+                if (word.startsWith(term)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        if (entry.folded().startsWith(foldedQuery)) {
+            score += 2;
+        }
+        if (foldedQuery.equals(entry.cic())) {
+            score += 10;
+        }
+        return score;
+    }
+
+    private static Entry entry(final long id, final String name, final String cic) {
+        final var safeName = name == null ? "" : name;
+        final var folded = String.join(" ", words(fold(safeName)));
+        final var words = new LinkedHashSet<>(words(folded));
+        if (cic != null && !cic.isBlank()) {
+            words.add(cic.trim());
+        }
+        return new Entry(id, safeName, cic, folded, List.copyOf(words));
+    }
+
+    // Lower case without diacritics; đ is a letter of its own, not d with a mark
+    static String fold(final String text) {
+        final var decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final var folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            folded.append(c == 'đ' || c == 'Đ' ? 'd' : Character.toLowerCase(c));
+        }
+        return folded.toString();
+    }
+
+    private static List<String> words(final String folded) {
+        final var words = new ArrayList<String>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            final boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
@@ -5,10 +5,10 @@ import com.example.dto.request.ApartmentUpdateRequest;
 import com.example.dto.request.ResidentCreateRequest;
 import com.example.dto.request.ResidentUpdateRequest;
 import com.example.dto.response.ApiResponse;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Apartment;
 import com.example.entity.Resident;
-import com.example.entity.Vehicle;
 import com.example.repository.ApartmentRepository;
 import com.example.repository.ResidentRepository;
 import com.example.repository.VehicleRepository;
@@ -16,13 +16,13 @@ import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,39 +33,45 @@ public class ResidentService {
     private final ResidentRepository residentRepository;
     private final ApartmentRepository apartmentRepository;
     private final VehicleRepository vehicleRepository;
+    private final PageTotals pageTotals;
+    private final ResidentSearchIndex residentSearchIndex;
 
     /**
-     * Fetch all active residents with pagination
+     * Fetch a page of active residents with totals per the requested count mode
      */
-    public PaginatedResponse<Resident> fetchAllResidents(final Specification<Resident> spec, final Pageable pageable) {
-        final var notMovedSpec = (root, query, criteriaBuilder) -> 
-            criteriaBuilder.notEqual(root.get("status"), ResidentEnum.Moved);
+    public PaginatedResponse<Resident> fetchAllResidents(final Specification<Resident> spec, final Pageable pageable,
+                                                         final PageCountRequest count) {
+        return this.pageTotals.page(Resident.class, notMoved(spec), pageable, count, "residents:active", resident -> resident);
+    }
 
-        final var combinedSpec = spec == null ? notMovedSpec : spec.and(notMovedSpec);
-        final var pageResident = this.residentRepository.findAll(combinedSpec, pageable);
+    /**
+     * Fetch a page of all residents with totals per the requested count mode
+     */
+    public PaginatedResponse<Resident> fetchAll(final Specification<Resident> spec, final Pageable pageable,
+                                                final PageCountRequest count) {
+        final var page = this.pageTotals.page(Resident.class, spec, pageable, count, "residents", (Resident resident) -> resident);
+        page.setCurPage(pageable.getPageNumber() + 1);
+        return page;
+    }
 
-        return PaginatedResponse.<Resident>builder()
-                .pageSize(pageable.getPageSize())
-                .curPage(pageable.getPageNumber())
-                .totalPages(pageResident.getTotalPages())
-                .totalElements(pageResident.getNumberOfElements())
-                .result(pageResident.getContent())
-                .build();
+    /**
+     * Fetch a cursor page of active residents ordered by id
+     */
+    public PaginatedResponse<Resident> fetchAllResidents(final Specification<Resident> spec, final String after, final int size) {
+        return KeysetPagination.scroll(this.residentRepository, notMoved(spec), "id", Long.class, after, size, resident -> resident);
     }
 
     /**
-     * Fetch all residents with pagination
+     * Fetch a cursor page of all residents ordered by id
      */
-    public PaginatedResponse<Resident> fetchAll(final Specification<Resident> spec, final Pageable pageable) {
-        final var pageResident = this.residentRepository.findAll(spec, pageable);
+    public PaginatedResponse<Resident> fetchAll(final Specification<Resident> spec, final String after, final int size) {
+        return KeysetPagination.scroll(this.residentRepository, spec, "id", Long.class, after, size, resident -> resident);
+    }
 
-        return PaginatedResponse.<Resident>builder()
-                .pageSize(pageable.getPageSize())
-                .curPage(pageable.getPageNumber() + 1)
-                .totalPages(pageResident.getTotalPages())
-                .totalElements(pageResident.getNumberOfElements())
-                .result(pageResident.getContent())
-                .build();
+    private static Specification<Resident> notMoved(final Specification<Resident> spec) {
+        final Specification<Resident> notMovedSpec = (root, query, criteriaBuilder) ->
+            criteriaBuilder.notEqual(root.get("status"), ResidentEnum.Moved);
+        return spec == null ? notMovedSpec : spec.and(notMovedSpec);
     }
 
     /**
@@ -89,7 +95,9 @@ public class ResidentService {
         resident.setIsActive(1);
 
         try {
-            return this.residentRepository.save(resident);
+            final var saved = this.residentRepository.save(resident);
+            this.residentSearchIndex.put(saved);
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException(String.format("Error saving resident: %s", e.getMessage()));
         }
@@ -109,7 +117,9 @@ public class ResidentService {
         updateResidentFields(resident, request);
         
         try {
-            return residentRepository.save(resident);
+            final var saved = residentRepository.save(resident);
+            this.residentSearchIndex.put(saved);
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException(String.format("Error saving resident: %s", e.getMessage()));
         }
@@ -124,6 +134,7 @@ public class ResidentService {
         
         if (resident.getApartment() == null) {
             residentRepository.deleteById(id);
+            residentSearchIndex.remove(List.of(id));
         } else {
             handleResidentDeletion(resident);
         }
@@ -176,10 +187,10 @@ public class ResidentService {
     }
 
     private Resident handleResidentMove(final Resident resident) {
-        final var apartment = apartmentRepository.findByOwner_Id(resident.getId()).orElse(null);
+        final var ownedApartment = apartmentRepository.findAddressNumberByOwnerId(resident.getId()).orElse(null);
 
-        if (apartment != null) {
-            handleOwnerMove(apartment);
+        if (ownedApartment != null) {
+            handleOwnerMove(ownedApartment);
         } else {
             resident.setIsActive(0);
             resident.setStatus(ResidentEnum.Moved);
@@ -190,69 +201,30 @@ public class ResidentService {
         return null;
     }
 
-    private void handleOwnerMove(final Apartment apartment) {
-        apartment.setOwner(null);
-        apartment.setOwnerPhone(null);
-        apartmentRepository.save(apartment);
-
-        final var residentList = apartment.getResidentList();
-        for (final var resident : residentList) {
-            resident.setApartment(null);
-            resident.setIsActive(0);
-            resident.setStatus(ResidentEnum.Moved);
-            residentRepository.save(resident);
-        }
+    // The whole household moves out with two statements, whatever its size
+    private void handleOwnerMove(final Long addressNumber) {
+        apartmentRepository.clearOwner(addressNumber, Instant.now());
+        residentRepository.moveOutByApartment(addressNumber, LocalDate.now());
     }
 
     private void handleResidentDeletion(final Resident resident) {
         final var apartment = resident.getApartment();
-        final var ownedApartment = apartmentRepository.findByOwner_Id(resident.getId()).orElse(null);
+        final var ownedApartment = apartmentRepository.findAddressNumberByOwnerId(resident.getId()).orElse(null);
 
         if (ownedApartment != null) {
-            handleOwnerDeletion(ownedApartment, apartment);
+            handleOwnerDeletion(ownedApartment, apartment.getAddressNumber());
         } else {
-            handleMemberDeletion(resident, apartment);
-        }
-    }
-
-    private void handleOwnerDeletion(final Apartment ownedApartment, final Apartment apartment) {
-        ownedApartment.setOwner(null);
-        ownedApartment.setOwnerPhone(null);
-        apartmentRepository.save(ownedApartment);
-
-        deleteApartmentVehicles(apartment);
-
-        final var allResidents = apartment.getResidentList();
-        disconnectAndDeleteResidents(allResidents);
-    }
-
-    private void deleteApartmentVehicles(final Apartment apartment) {
-        final var vehicles = apartment.getVehicleList();
-        if (vehicles != null && !vehicles.isEmpty()) {
-            vehicles.forEach(vehicle -> vehicleRepository.deleteById(vehicle.getId()));
-            apartment.setVehicleList(Collections.emptyList());
-            apartmentRepository.save(apartment);
+            residentRepository.delete(resident.getId());
+            residentSearchIndex.remove(List.of(resident.getId()));
         }
     }
 
-    private void disconnectAndDeleteResidents(final List<Resident> residents) {
-        residents.forEach(resident -> {
-            resident.setApartment(null);
-            residentRepository.save(resident);
-        });
-
-        residents.forEach(resident -> residentRepository.delete(resident.getId()));
-    }
-
-    private void handleMemberDeletion(final Resident resident, final Apartment apartment) {
-        final var residentList = apartment.getResidentList();
-        residentList.removeIf(r -> r.getId().equals(resident.getId()));
-        apartment.setResidentList(residentList);
-        apartmentRepository.save(apartment);
-
-        resident.setApartment(null);
-        residentRepository.save(resident);
-        residentRepository.deleteById(resident.getId());
+    // Owner deleted: the owner link, the vehicles and every resident of the apartment go with three statements
+    private void handleOwnerDeletion(final Long ownedApartment, final Long addressNumber) {
+        apartmentRepository.clearOwner(ownedApartment, Instant.now());
+        vehicleRepository.deleteByApartment(addressNumber);
+        residentSearchIndex.remove(residentRepository.findIdsByApartment(addressNumber));
+        residentRepository.deleteByApartment(addressNumber);
     }
 
     private void updateResidentFields(final Resident resident, final ResidentUpdateRequest request) {
@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.constant.PaymentEnum;
+import com.example.dto.response.ImportJobResponse;
+import com.example.entity.UtilityBill;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.UtilityBillJdbcRepository;
+import com.example.service.importer.ImportJobRunner;
+import com.example.service.importer.LongHashSet;
+import com.example.service.importer.RowHandler;
+import com.example.service.importer.RowImport;
+import com.example.service.importer.XlsxRowReader;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Utility bill imports from Excel (apartment id, electricity, water, internet per row) as background jobs,
+ * run by ImportJobRunner. Apartments are checked against the apartment ids, loaded once per import.
+ */
+@Service
+@AllArgsConstructor
+public class UtilityBillImportService {
+    static final String KIND = "utility-bill";
+    static final int IMPORT_COLUMNS = 4;
+
+    private final ApartmentRepository apartmentRepository;
+    private final UtilityBillJdbcRepository utilityBillJdbcRepository;
+    private final ImportJobRunner importJobRunner;
+
+    /**
+     * Queue the import of an Excel file and return at once; poll getJob with the returned job id
+     */
+    public ImportJobResponse submit(final MultipartFile file, final String name) {
+        return importJobRunner.submit(KIND, file, name, ".xlsx", new BillImport(name));
+    }
+
+    public ImportJobResponse getJob(final String jobId) {
+        return importJobRunner.getJob(KIND, jobId);
+    }
+
+    private class BillImport implements RowImport<UtilityBill> {
+        private final String name;
+        private LongHashSet apartmentIds;
+
+        BillImport(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void prepare() {
+            apartmentIds = loadApartmentIds();
+        }
+
+        @Override
+        public void read(final Path file, final RowHandler handler) throws Exception {
+            XlsxRowReader.read(file, IMPORT_COLUMNS, handler);
+        }
+
+        @Override
+        public UtilityBill parse(final int rowNum, final String[] cells) {
+            return cells[0] == null ? null : parseImportRow(cells, apartmentIds, name); // empty row
+        }
+
+        @Override
+        public void insert(final List<UtilityBill> chunk) {
+            utilityBillJdbcRepository.insertAll(chunk);
+        }
+    }
+
+    /**
+     * Build the bill of one imported row (apartment id, electricity, water, internet)
+     * @throws RuntimeException with the reason the row is rejected
+     */
+    UtilityBill parseImportRow(final String[] cells, final LongHashSet apartmentIds, final String name) {
+        final var apartmentId = (long) number(cells, 0);
+        if (!apartmentIds.contains(apartmentId)) {
+            throw new EntityNotFoundException(String.format("Apartment with id %d not found", apartmentId));
+        }
+        return UtilityBill.builder()
+                .apartmentId(apartmentId)
+                .electricity(number(cells, 1))
+                .water(number(cells, 2))
+                .internet(number(cells, 3))
+                .name(name)
+                .paymentStatus(PaymentEnum.Unpaid)
+                .build();
+    }
+
+    LongHashSet loadApartmentIds() {
+        final var apartmentIds = new LongHashSet((int) this.apartmentRepository.countAll());
+        try (var ids = this.apartmentRepository.streamAllAddressNumbers()) {
+            ids.forEach(apartmentIds::add);
+        }
+        return apartmentIds;
+    }
+
+    private static double number(final String[] cells, final int column) {
+        if (cells[column] == null) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(cells[column]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Column %d is not a number: %s", column + 1, cells[column]));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.service;
 
 import com.example.dto.response.ApiResponse;
+import com.example.dto.request.PageCountRequest;
 import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Apartment;
 import com.example.entity.Vehicle;
@@ -9,7 +10,6 @@ import com.example.repository.VehicleRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -25,6 +25,7 @@ import java.util.Optional;
 public class VehicleService {
     private final VehicleRepository vehicleRepository;
     private final ApartmentRepository apartmentRepository;
+    private final PageTotals pageTotals;
 
     /**
      * Find all vehicles by apartment ID
@@ -38,19 +39,19 @@ public class VehicleService {
     }
 
     /**
-     * Get all vehicles with pagination
+     * Get a page of vehicles with totals per the requested count mode
      */
     @Transactional(readOnly = true)
-    public PaginatedResponse<Vehicle> getAll(final Specification<Vehicle> spec, final Pageable pageable) {
-        final var pageVehicle = vehicleRepository.findAll(spec, pageable);
-        
-        return PaginatedResponse.<Vehicle>builder()
-                .pageSize(pageable.getPageSize())
-                .curPage(pageable.getPageNumber())
-                .totalPages(pageVehicle.getTotalPages())
-                .totalElements(pageVehicle.getNumberOfElements())
-                .result(pageVehicle.getContent())
-                .build();
+    public PaginatedResponse<Vehicle> getAll(final Specification<Vehicle> spec, final Pageable pageable, final PageCountRequest count) {
+        return pageTotals.page(Vehicle.class, spec, pageable, count, "vehicles", vehicle -> vehicle);
+    }
+
+    /**
+     * Get a cursor page of vehicles ordered by id
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<Vehicle> getAll(final Specification<Vehicle> spec, final String after, final int size) {
+        return KeysetPagination.scroll(vehicleRepository, spec, "id", String.class, after, size, vehicle -> vehicle);
     }
 
     /**
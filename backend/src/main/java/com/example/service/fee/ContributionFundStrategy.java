@@ -0,0 +1,30 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Contribution fund: the amount each apartment chose to give, stored in InvoiceApartment.feeAmounts
+@Component
+public class ContributionFundStrategy implements FeeStrategy {
+    @Override
+    public FeeTypeEnum getFeeType() {
+        return FeeTypeEnum.ContributionFund;
+    }
+
+    @Override
+    public long calculate(BigDecimal unitPrice, double area, long cars, long motorbikes, long recordedAmount) {
+        return recordedAmount;
+    }
+
+    @Override
+    public void accumulate(BigDecimal unitPrice, double[] area, long[] cars, long[] motorbikes, long[] out) {
+        // Recorded amounts are summed by the caller
+    }
+
+    @Override
+    public boolean isRecorded() {
+        return true;
+    }
+}
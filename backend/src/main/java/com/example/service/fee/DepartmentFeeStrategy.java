@@ -0,0 +1,27 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Apartment fee: unit price per square meter
+@Component
+public class DepartmentFeeStrategy implements FeeStrategy {
+    @Override
+    public FeeTypeEnum getFeeType() {
+        return FeeTypeEnum.DepartmentFee;
+    }
+
+    @Override
+    public long calculate(BigDecimal unitPrice, double area, long cars, long motorbikes, long recordedAmount) {
+        return Money.toMinor(unitPrice.multiply(BigDecimal.valueOf(area)));
+    }
+
+    @Override
+    public void accumulate(BigDecimal unitPrice, double[] area, long[] cars, long[] motorbikes, long[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] += Money.toMinor(unitPrice.multiply(BigDecimal.valueOf(area[i])));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.entity.Fee;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of fee pricing: picks one {@link FeeStrategy} per fee type and compiles
+ * the fees of an invoice into a reusable {@link PricingPlan}.
+ */
+@Component
+public class FeeCalculator {
+    private final Map<FeeTypeEnum, FeeStrategy> strategyByType = new EnumMap<>(FeeTypeEnum.class);
+
+    public FeeCalculator(List<FeeStrategy> strategies) {
+        for (FeeStrategy strategy : strategies) {
+            if (strategyByType.put(strategy.getFeeType(), strategy) != null) {
+                throw new IllegalStateException("Duplicate fee strategy for " + strategy.getFeeType());
+            }
+        }
+    }
+
+    public PricingPlan compile(List<Fee> fees) {
+        return new PricingPlan(fees, strategyByType);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+
+import java.math.BigDecimal;
+
+/**
+ * Pricing rule of one fee type. Amounts are in minor units, see {@link Money}.
+ */
+public interface FeeStrategy {
+    FeeTypeEnum getFeeType();
+
+    /**
+     * Amount billed to one apartment
+     */
+    long calculate(BigDecimal unitPrice, double area, long cars, long motorbikes, long recordedAmount);
+
+    /**
+     * Add the amount billed to apartment i to out[i], for every apartment of the batch.
+     * Recorded amounts are not part of the batch inputs, so strategies relying on them add nothing.
+     */
+    void accumulate(BigDecimal unitPrice, double[] area, long[] cars, long[] motorbikes, long[] out);
+
+    /**
+     * Whether the amount is recorded per apartment rather than priced, so it cannot be frozen at issuance
+     */
+    default boolean isRecorded() {
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.service.fee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts in minor units (hundredths), the form every fee amount and total is computed in.
+ * Amounts are rounded half up once, when a priced line is computed; sums of lines are exact.
+ * Conversion to double only happens when a response is built.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Amounts stored as double (recorded contributions, frozen lines) hold at most SCALE decimals
+    public static long toMinor(double amount) {
+        return toMinor(BigDecimal.valueOf(amount));
+    }
+
+    public static long toMinor(Double amount) {
+        return amount == null ? 0 : toMinor(amount.doubleValue());
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static double toDouble(long minor) {
+        return toBigDecimal(minor).doubleValue();
+    }
+}
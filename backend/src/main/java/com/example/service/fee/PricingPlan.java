@@ -0,0 +1,118 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.dto.response.FeeResponse;
+import com.example.entity.Fee;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fees of one invoice resolved to their strategies and unit prices.
+ * Built once per invoice by {@link FeeCalculator#compile(List)}, then reused for every apartment.
+ * Amounts are computed in minor units, see {@link Money}; responses get them as doubles.
+ */
+public final class PricingPlan {
+    private final Long[] feeIds;
+    private final String[] names;
+    private final FeeTypeEnum[] feeTypes;
+    private final BigDecimal[] unitPrices;
+    private final FeeStrategy[] strategies;
+
+    PricingPlan(List<Fee> fees, Map<FeeTypeEnum, FeeStrategy> strategyByType) {
+        int size = fees.size();
+        feeIds = new Long[size];
+        names = new String[size];
+        feeTypes = new FeeTypeEnum[size];
+        unitPrices = new BigDecimal[size];
+        strategies = new FeeStrategy[size];
+        for (int i = 0; i < size; i++) {
+            Fee fee = fees.get(i);
+            feeIds[i] = fee.getId();
+            names[i] = fee.getName();
+            feeTypes[i] = fee.getFeeTypeEnum();
+            unitPrices[i] = fee.getUnitPrice() == null ? BigDecimal.ZERO : fee.getUnitPrice();
+            strategies[i] = fee.getFeeTypeEnum() == null ? null : strategyByType.get(fee.getFeeTypeEnum());
+        }
+    }
+
+    public int size() {
+        return strategies.length;
+    }
+
+    public Long getFeeId(int i) {
+        return feeIds[i];
+    }
+
+    /**
+     * Whether fee i has a priced amount that can be frozen at issuance
+     */
+    public boolean isPriced(int i) {
+        return strategies[i] != null && !strategies[i].isRecorded();
+    }
+
+    /**
+     * Amount of every fee for one apartment, in fee order
+     */
+    public List<FeeResponse> price(double area, long cars, long motorbikes, Map<Long, Double> recordedAmounts) {
+        Map<Long, Double> recorded = recordedAmounts == null ? Collections.emptyMap() : recordedAmounts;
+        List<FeeResponse> feeResponses = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            feeResponses.add(new FeeResponse(names[i], feeIds[i], feeTypes[i],
+                    Money.toDouble(amount(i, area, cars, motorbikes, recorded))));
+        }
+        return feeResponses;
+    }
+
+    /**
+     * Amount of every fee for one apartment from amounts frozen at issuance; nothing is recomputed
+     */
+    public List<FeeResponse> price(Map<Long, Double> lineAmounts, Map<Long, Double> recordedAmounts) {
+        Map<Long, Double> lines = lineAmounts == null ? Collections.emptyMap() : lineAmounts;
+        Map<Long, Double> recorded = recordedAmounts == null ? Collections.emptyMap() : recordedAmounts;
+        List<FeeResponse> feeResponses = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            double amount = strategies[i] == null ? 0.0
+                    : strategies[i].isRecorded() ? recorded.getOrDefault(feeIds[i], 0.0)
+                    : lines.getOrDefault(feeIds[i], 0.0);
+            feeResponses.add(new FeeResponse(names[i], feeIds[i], feeTypes[i], amount));
+        }
+        return feeResponses;
+    }
+
+    /**
+     * Sum of every priced fee for many apartments at once, in minor units; index i of each array is one apartment.
+     * Recorded (contribution) amounts are not included.
+     */
+    public long[] totals(double[] area, long[] cars, long[] motorbikes) {
+        long[] out = new long[area.length];
+        for (int i = 0; i < size(); i++) {
+            if (strategies[i] != null) {
+                strategies[i].accumulate(unitPrices[i], area, cars, motorbikes, out);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Amount of fee i for many apartments at once, in minor units; index j of each array is one apartment.
+     * Only meaningful for priced fees, see {@link #isPriced(int)}.
+     */
+    public long[] lineAmounts(int i, double[] area, long[] cars, long[] motorbikes) {
+        long[] out = new long[area.length];
+        if (isPriced(i)) {
+            strategies[i].accumulate(unitPrices[i], area, cars, motorbikes, out);
+        }
+        return out;
+    }
+
+    private long amount(int i, double area, long cars, long motorbikes, Map<Long, Double> recorded) {
+        if (strategies[i] == null) {
+            return 0;
+        }
+        return strategies[i].calculate(unitPrices[i], area, cars, motorbikes, Money.toMinor(recorded.get(feeIds[i])));
+    }
+}
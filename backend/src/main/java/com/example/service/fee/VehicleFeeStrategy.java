@@ -0,0 +1,55 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Vehicle fee: the fee's unit price is the monthly rate per car, motorbikes pay billing.vehicle.motorbike-rate.
+// Fees still holding the placeholder unit price of 1 stored by the old fee form use billing.vehicle.car-rate.
+@Component
+public class VehicleFeeStrategy implements FeeStrategy {
+    private final BigDecimal carRate;
+    private final BigDecimal motorbikeRate;
+
+    public VehicleFeeStrategy(@Value("${billing.vehicle.car-rate:1200000}") BigDecimal carRate,
+                              @Value("${billing.vehicle.motorbike-rate:70000}") BigDecimal motorbikeRate) {
+        this.carRate = carRate;
+        this.motorbikeRate = motorbikeRate;
+    }
+
+    public BigDecimal getCarRate() {
+        return carRate;
+    }
+
+    public static boolean isPlaceholder(BigDecimal unitPrice) {
+        return unitPrice == null || unitPrice.compareTo(BigDecimal.ONE) <= 0;
+    }
+
+    @Override
+    public FeeTypeEnum getFeeType() {
+        return FeeTypeEnum.VehicleFee;
+    }
+
+    @Override
+    public long calculate(BigDecimal unitPrice, double area, long cars, long motorbikes, long recordedAmount) {
+        return amount(perCar(unitPrice), cars, motorbikes);
+    }
+
+    @Override
+    public void accumulate(BigDecimal unitPrice, double[] area, long[] cars, long[] motorbikes, long[] out) {
+        BigDecimal perCar = perCar(unitPrice);
+        for (int i = 0; i < out.length; i++) {
+            out[i] += amount(perCar, cars[i], motorbikes[i]);
+        }
+    }
+
+    private BigDecimal perCar(BigDecimal unitPrice) {
+        return isPlaceholder(unitPrice) ? carRate : unitPrice;
+    }
+
+    private long amount(BigDecimal perCar, long cars, long motorbikes) {
+        return Money.toMinor(perCar.multiply(BigDecimal.valueOf(cars)).add(motorbikeRate.multiply(BigDecimal.valueOf(motorbikes))));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.service.generator;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Appends rows to tables over one connection: COPY ... FROM STDIN on PostgreSQL, JDBC batches elsewhere (H2).
+ * Rows are buffered per table until flush(), so the caller flushes parents before the rows referencing them.
+ */
+public abstract class BulkLoader implements AutoCloseable {
+    protected final Connection connection;
+
+    protected BulkLoader(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static BulkLoader open(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new CopyLoader(connection, connection.unwrap(PGConnection.class).getCopyAPI());
+        }
+        return new BatchLoader(connection);
+    }
+
+    public abstract Table table(String name, String... columns) throws SQLException;
+
+    /**
+     * Make the identity column of the table continue after the ids that were loaded explicitly
+     */
+    public abstract void restartIdentity(String table, String column, long next) throws SQLException;
+
+    public boolean isCopy() {
+        return false;
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    // Releases what the loader opened, the connection stays with the caller
+    @Override
+    public void close() throws SQLException {
+    }
+
+    public abstract static class Table {
+        protected final String name;
+        protected final String[] columns;
+        private long rows;
+
+        protected Table(String name, String[] columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        public void row(Object... values) throws SQLException {
+            if (values.length != columns.length) {
+                throw new IllegalArgumentException(name + " has " + columns.length + " columns, got " + values.length);
+            }
+            append(values);
+            rows++;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        protected abstract void append(Object[] values) throws SQLException;
+
+        public abstract void flush() throws SQLException;
+    }
+
+    // Text CSV, as COPY reads it: nulls are unquoted empty fields, every other value is quoted
+    private static final class CopyLoader extends BulkLoader {
+        private final CopyManager copyManager;
+
+        CopyLoader(Connection connection, CopyManager copyManager) {
+            super(connection);
+            this.copyManager = copyManager;
+        }
+
+        @Override
+        public boolean isCopy() {
+            return true;
+        }
+
+        @Override
+        public Table table(String name, String... columns) {
+            final String sql = "COPY " + name + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+            return new Table(name, columns) {
+                private final StringBuilder buffer = new StringBuilder(1 << 16);
+
+                @Override
+                protected void append(Object[] values) {
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            buffer.append(',');
+                        }
+                        if (values[i] != null) {
+                            buffer.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+                        }
+                    }
+                    buffer.append('\n');
+                }
+
+                @Override
+                public void flush() throws SQLException {
+                    if (buffer.isEmpty()) {
+                        return;
+                    }
+                    try {
+                        copyManager.copyIn(sql, new StringReader(buffer.toString()));
+                    } catch (IOException e) {
+                        throw new SQLException("COPY into " + name + " failed", e);
+                    }
+                    buffer.setLength(0);
+                }
+            };
+        }
+
+        @Override
+        public void restartIdentity(String table, String column, long next) throws SQLException {
+            // setval(seq, n) makes the next value n + 1
+            execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + column + "'), " + (next - 1) + ")");
+        }
+    }
+
+    private static final class BatchLoader extends BulkLoader {
+        private final List<PreparedStatement> statements = new ArrayList<>();
+
+        BatchLoader(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        public Table table(String name, String... columns) throws SQLException {
+            final String[] marks = new String[columns.length];
+            Arrays.fill(marks, "?");
+            final PreparedStatement statement = connection.prepareStatement("INSERT INTO " + name + " ("
+                    + String.join(", ", columns) + ") VALUES (" + String.join(", ", marks) + ")");
+            statements.add(statement);
+            return new Table(name, columns) {
+                private int pending;
+
+                @Override
+                protected void append(Object[] values) throws SQLException {
+                    for (int i = 0; i < values.length; i++) {
+                        statement.setObject(i + 1, jdbcValue(values[i]));
+                    }
+                    statement.addBatch();
+                    pending++;
+                }
+
+                @Override
+                public void flush() throws SQLException {
+                    if (pending > 0) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void restartIdentity(String table, String column, long next) throws SQLException {
+            execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + next);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                statement.close();
+            }
+            statements.clear();
+        }
+
+        private static Object jdbcValue(Object value) {
+            if (value instanceof LocalDate date) {
+                return Date.valueOf(date);
+            }
+            if (value instanceof Instant instant) {
+                return Timestamp.from(instant);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.service.generator;
+
+import com.example.service.FeeCatalog;
+import com.example.service.InvoiceTotalsService;
+import com.example.service.ResidentSearchIndex;
+import com.example.service.fee.FeeCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Fills an empty database with a synthetic building when started with the generate profile, then
+ * rebuilds the read models that direct inserts bypass. Sizes and seed are under generator.* in
+ * application-generate.yaml, e.g. for 50k units on the local H2 database:
+ * mvn spring-boot:run -Dspring-boot.run.profiles=h2,generate -Dspring-boot.run.arguments=--generator.apartments=50000
+ */
+@Component
+@Profile("generate")
+@Slf4j
+public class DataGeneratorRunner implements ApplicationRunner {
+    private final DataSource dataSource;
+    private final FeeCalculator feeCalculator;
+    private final InvoiceTotalsService invoiceTotalsService;
+    private final FeeCatalog feeCatalog;
+    private final ResidentSearchIndex residentSearchIndex;
+    private final ConfigurableApplicationContext context;
+    private final long seed;
+    private final int apartments;
+    private final int years;
+    private final String lastMonth;
+    private final boolean exit;
+
+    public DataGeneratorRunner(DataSource dataSource, FeeCalculator feeCalculator, InvoiceTotalsService invoiceTotalsService,
+                               FeeCatalog feeCatalog, ResidentSearchIndex residentSearchIndex,
+                               ConfigurableApplicationContext context,
+                               @Value("${generator.seed:42}") long seed,
+                               @Value("${generator.apartments:1000}") int apartments,
+                               @Value("${generator.years:5}") int years,
+                               @Value("${generator.last-month:}") String lastMonth,
+                               @Value("${generator.exit:true}") boolean exit) {
+        this.dataSource = dataSource;
+        this.feeCalculator = feeCalculator;
+        this.invoiceTotalsService = invoiceTotalsService;
+        this.feeCatalog = feeCatalog;
+        this.residentSearchIndex = residentSearchIndex;
+        this.context = context;
+        this.seed = seed;
+        this.apartments = apartments;
+        this.years = years;
+        this.lastMonth = lastMonth;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        YearMonth last = lastMonth.isBlank() ? YearMonth.now() : YearMonth.parse(lastMonth);
+        Map<String, Long> rows;
+        try (Connection connection = dataSource.getConnection()) {
+            rows = new SyntheticDataGenerator(seed, apartments, years, last, feeCalculator).generate(connection);
+        }
+        rows.forEach((table, count) -> log.info("{}: {} rows", table, count));
+
+        invoiceTotalsService.rebuild(false);
+        feeCatalog.invalidate();
+        residentSearchIndex.rebuild();
+        log.info("Synthetic data generated in {} s", (System.nanoTime() - started) / 1_000_000_000);
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
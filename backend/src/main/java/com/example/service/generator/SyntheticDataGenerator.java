@@ -0,0 +1,382 @@
+package com.example.service.generator;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.GenderEnum;
+import com.example.constant.PaymentEnum;
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.entity.Fee;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.Money;
+import com.example.service.fee.PricingPlan;
+import com.github.javafaker.Faker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Synthetic building of a configurable size: towers of 30 floors with 20 units each, 1-5 residents per
+ * occupied unit with their cars and motorbikes, a fee catalog, a monthly invoice and utility bill per
+ * occupied unit for every month of the span and a quarterly contribution fund. The first fifth of the
+ * monthly invoices are left unpriced, as issued before amounts were frozen, the others have their lines.
+ * <p>
+ * The same seed and sizes give the same rows, so runs against different builds compare. Ids start at 1,
+ * so the target must be an empty schema, e.g. the one Hibernate creates on a first start.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    static final int UNITS_PER_FLOOR = 20;
+    static final int FLOORS = 30;
+    private static final int CHUNK = 1000; // apartments per flush and commit
+    private static final int[] HOUSEHOLD_SIZES = {1, 1, 1, 2, 2, 2, 2, 2, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 5, 5};
+    private static final int[] HOUSEHOLD_CARS = {0, 0, 0, 0, 0, 0, 1, 1, 1, 2};
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    private final long seed;
+    private final int apartments;
+    private final int years;
+    private final YearMonth lastMonth;
+    private final FeeCalculator feeCalculator;
+
+    // Occupied apartments, in load order, with what their bills are priced from
+    private final List<Long> billed = new ArrayList<>();
+    private final List<Double> billedArea = new ArrayList<>();
+    private final List<Long> billedCars = new ArrayList<>();
+    private final List<Long> billedMotorbikes = new ArrayList<>();
+
+    public SyntheticDataGenerator(long seed, int apartments, int years, YearMonth lastMonth, FeeCalculator feeCalculator) {
+        if (apartments < 1 || years < 1) {
+            throw new IllegalArgumentException("apartments and years must be positive");
+        }
+        this.seed = seed;
+        this.apartments = apartments;
+        this.years = years;
+        this.lastMonth = lastMonth;
+        this.feeCalculator = feeCalculator;
+    }
+
+    /**
+     * Address number of the apartment at the given position: tower, floor and unit, e.g. 20517 is unit 17
+     * on floor 5 of tower 2. The load driver derives the apartments to query from it.
+     */
+    public static long addressNumber(int index) {
+        int tower = index / (UNITS_PER_FLOOR * FLOORS);
+        int floor = index / UNITS_PER_FLOOR % FLOORS;
+        int unit = index % UNITS_PER_FLOOR;
+        return (tower + 1) * 10_000L + (floor + 1) * 100L + unit + 1;
+    }
+
+    /**
+     * Load every table and return the rows loaded per table
+     */
+    public Map<String, Long> generate(Connection connection) throws SQLException {
+        requireEmpty(connection);
+        billed.clear();
+        billedArea.clear();
+        billedCars.clear();
+        billedMotorbikes.clear();
+        Random random = new Random(seed);
+        Faker faker = new Faker(Locale.of("vi"), random);
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try (BulkLoader loader = BulkLoader.open(connection)) {
+            log.info("Generating {} apartments and {} years of bills with seed {} ({})",
+                    apartments, years, seed, loader.isCopy() ? "COPY" : "JDBC batches");
+            loadBuilding(loader, connection, random, faker, rows);
+            loadBilling(loader, random, rows);
+        }
+        return rows;
+    }
+
+    // Private helper methods
+
+    private void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM apartments")) {
+            result.next();
+            if (result.getLong(1) > 0) {
+                throw new IllegalStateException("The apartments table is not empty, generate into an empty database");
+            }
+        }
+    }
+
+    private void loadBuilding(BulkLoader loader, Connection connection, Random random, Faker faker,
+                              Map<String, Long> rows) throws SQLException {
+        BulkLoader.Table apartmentTable = loader.table("apartments",
+                "address_number", "area", "status", "owner_phone", "created_at");
+        BulkLoader.Table residentTable = loader.table("residents",
+                "id", "name", "dob", "gender", "cic", "address_number", "status", "is_active", "status_date");
+        BulkLoader.Table vehicleTable = loader.table("vehicles", "id", "category", "address_id", "register_date");
+        LocalDate today = lastMonth.atEndOfMonth();
+        Instant opened = firstMonth().atDay(1).atStartOfDay(ZONE).toInstant();
+        long[] owners = new long[apartments];
+        long residentId = 0;
+        long vehicleSeq = 0;
+
+        for (int a = 0; a < apartments; a++) {
+            if (a > 0 && a % CHUNK == 0) {
+                flush(loader, apartmentTable, residentTable, vehicleTable);
+            }
+            long address = addressNumber(a);
+            int roll = random.nextInt(100);
+            ApartmentEnum status = roll < 8 ? ApartmentEnum.Vacant : roll < 15 ? ApartmentEnum.Business : ApartmentEnum.Residential;
+            double area = 45 + random.nextInt(191) * 0.5; // 45-140 m2
+            Long phone = status == ApartmentEnum.Vacant ? null : 84_900_000_000L + random.nextInt(100_000_000);
+            apartmentTable.row(address, area, status.name(), phone, opened.minus(random.nextInt(3650), ChronoUnit.DAYS));
+            if (status == ApartmentEnum.Vacant) {
+                continue;
+            }
+
+            int people = status == ApartmentEnum.Business ? 1 + random.nextInt(2) : HOUSEHOLD_SIZES[random.nextInt(HOUSEHOLD_SIZES.length)];
+            for (int r = 0; r < people; r++) {
+                residentId++;
+                GenderEnum gender = random.nextBoolean() ? GenderEnum.Male : GenderEnum.Female;
+                LocalDate dob = today.minusYears(r == 0 ? 25 + random.nextInt(50) : random.nextInt(80))
+                        .minusDays(random.nextInt(365));
+                residentTable.row(residentId, faker.name().fullName(), dob, gender.ordinal(), cic(residentId, gender, dob),
+                        address, (r == 0 ? ResidentEnum.Resident : residentStatus(random)).name(), 1,
+                        today.minusDays(random.nextInt(3650)));
+                if (r == 0) {
+                    owners[a] = residentId;
+                }
+            }
+
+            long cars = status == ApartmentEnum.Business ? random.nextInt(2) : HOUSEHOLD_CARS[random.nextInt(HOUSEHOLD_CARS.length)];
+            long motorbikes = random.nextInt(status == ApartmentEnum.Business ? 2 : 4);
+            for (int v = 0; v < cars + motorbikes; v++) {
+                vehicleSeq++;
+                vehicleTable.row(plate(vehicleSeq), (v < cars ? VehicleEnum.Car : VehicleEnum.Motorbike).ordinal(),
+                        address, today.minusDays(random.nextInt(365 * (years + 3))));
+            }
+            billed.add(address);
+            billedArea.add(area);
+            billedCars.add(cars);
+            billedMotorbikes.add(motorbikes);
+        }
+        flush(loader, apartmentTable, residentTable, vehicleTable);
+
+        // owners reference residents, which reference apartments, so they are set once both are in
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE apartments SET owner_id = ? WHERE address_number = ?")) {
+            int pending = 0;
+            for (int a = 0; a < apartments; a++) {
+                if (owners[a] == 0) {
+                    continue;
+                }
+                statement.setLong(1, owners[a]);
+                statement.setLong(2, addressNumber(a));
+                statement.addBatch();
+                if (++pending % CHUNK == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        loader.commit();
+        rows.put("apartments", apartmentTable.getRows());
+        rows.put("residents", residentTable.getRows());
+        rows.put("vehicles", vehicleTable.getRows());
+    }
+
+    private void loadBilling(BulkLoader loader, Random random, Map<String, Long> rows) throws SQLException {
+        LocalDate catalogDate = firstMonth().atDay(1).minusDays(1);
+        List<Fee> fees = List.of(
+                fee(1L, "Phí quản lý chung cư", FeeTypeEnum.DepartmentFee, 7000),
+                fee(2L, "Phí gửi xe", FeeTypeEnum.VehicleFee, 1200000),
+                fee(3L, "Quỹ vì người nghèo", FeeTypeEnum.ContributionFund, 0),
+                fee(4L, "Quỹ khuyến học", FeeTypeEnum.ContributionFund, 0),
+                fee(5L, "Quỹ phòng chống thiên tai", FeeTypeEnum.ContributionFund, 0));
+        BulkLoader.Table feeTable = loader.table("fees",
+                "id", "name", "description", "fee_type_enum", "unit_price", "created_at");
+        for (Fee fee : fees) {
+            feeTable.row(fee.getId(), fee.getName(), null, fee.getFeeTypeEnum().name(), fee.getUnitPrice(), catalogDate);
+        }
+        feeTable.flush();
+
+        // One invoice per month, and a contribution fund each quarter with the funds taking turns
+        int months = years * 12;
+        BulkLoader.Table invoiceTable = loader.table("invoices",
+                "id", "name", "description", "is_active", "updated_at", "created_at");
+        BulkLoader.Table feeInvoiceTable = loader.table("fee_invoice", "id", "fee_id", "invoice_id");
+        long feeInvoiceId = 0;
+        for (int m = 0; m < months; m++) {
+            YearMonth month = firstMonth().plusMonths(m);
+            invoiceTable.row(monthlyInvoiceId(month), String.format("Hóa đơn tháng %02d/%d", month.getMonthValue(), month.getYear()),
+                    null, 1, issuedAt(month), month.atDay(1));
+            feeInvoiceTable.row(++feeInvoiceId, 1L, monthlyInvoiceId(month));
+            feeInvoiceTable.row(++feeInvoiceId, 2L, monthlyInvoiceId(month));
+            if (isQuarterStart(month)) {
+                invoiceTable.row(fundInvoiceId(month), "Quỹ đóng góp quý " + quarter(month) + "/" + month.getYear(),
+                        null, 1, issuedAt(month), month.atDay(1));
+                feeInvoiceTable.row(++feeInvoiceId, fundFeeId(month), fundInvoiceId(month));
+            }
+        }
+        invoiceTable.flush();
+        feeInvoiceTable.flush();
+        loader.commit();
+
+        // Frozen amounts are the same every month, the building does not change over the span
+        int size = billed.size();
+        double[] area = new double[size];
+        long[] cars = new long[size];
+        long[] motorbikes = new long[size];
+        for (int i = 0; i < size; i++) {
+            area[i] = billedArea.get(i);
+            cars[i] = billedCars.get(i);
+            motorbikes[i] = billedMotorbikes.get(i);
+        }
+        PricingPlan plan = feeCalculator.compile(fees.subList(0, 2));
+        List<Long> pricedFeeIds = new ArrayList<>();
+        List<long[]> lineAmounts = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (plan.isPriced(i)) {
+                pricedFeeIds.add(plan.getFeeId(i));
+                lineAmounts.add(plan.lineAmounts(i, area, cars, motorbikes));
+            }
+        }
+
+        BulkLoader.Table invoiceApartmentTable = loader.table("invoice_apartment",
+                "id", "invoice_id", "apartment_id", "payment_status", "priced_at", "version");
+        BulkLoader.Table lineTable = loader.table("invoice_apartment_lines", "invoice_apartment_id", "fee_id", "amount");
+        BulkLoader.Table feeAmountTable = loader.table("invoice_apartment_fees", "invoice_apartment_id", "fee_id", "amount");
+        BulkLoader.Table billTable = loader.table("utility_bills",
+                "apartment_address_number", "name", "electricity", "water", "internet", "payment_status", "created_at", "version");
+        long invoiceApartmentId = 0;
+        for (int m = 0; m < months; m++) {
+            YearMonth month = firstMonth().plusMonths(m);
+            int age = months - 1 - m; // 0 for the last month
+            boolean frozen = m >= months / 5;
+            Instant pricedAt = frozen ? issuedAt(month) : null;
+            for (int i = 0; i < size; i++) {
+                invoiceApartmentId++;
+                invoiceApartmentTable.row(invoiceApartmentId, monthlyInvoiceId(month), billed.get(i),
+                        paymentStatus(random, age).ordinal(), pricedAt, 0);
+                if (frozen) {
+                    for (int f = 0; f < pricedFeeIds.size(); f++) {
+                        lineTable.row(invoiceApartmentId, pricedFeeIds.get(f), Money.toDouble(lineAmounts.get(f)[i]));
+                    }
+                }
+                billTable.row(billed.get(i), String.format("Tiền điện nước tháng %02d/%d", month.getMonthValue(), month.getYear()),
+                        electricity(random, month), 15_000.0 * (4 + random.nextInt(27)),
+                        random.nextInt(10) < 7 ? 165_000.0 + 55_000 * random.nextInt(3) : 0.0,
+                        paymentStatus(random, age).ordinal(), month.plusMonths(1).atDay(1), 0);
+            }
+            if (isQuarterStart(month)) {
+                long fundFeeId = fundFeeId(month);
+                for (int i = 0; i < size; i++) {
+                    invoiceApartmentId++;
+                    boolean gave = random.nextInt(10) < 6;
+                    invoiceApartmentTable.row(invoiceApartmentId, fundInvoiceId(month), billed.get(i),
+                            (gave ? PaymentEnum.Paid : PaymentEnum.Unpaid).ordinal(), null, 0);
+                    if (gave) {
+                        feeAmountTable.row(invoiceApartmentId, fundFeeId, 50_000.0 * (1 + random.nextInt(20)));
+                    }
+                }
+            }
+            flush(loader, invoiceApartmentTable, lineTable, feeAmountTable, billTable);
+            log.info("Billed {}", month);
+        }
+
+        loader.restartIdentity("fees", "id", fees.size() + 1);
+        loader.restartIdentity("fee_invoice", "id", feeInvoiceId + 1);
+        loader.restartIdentity("invoice_apartment", "id", invoiceApartmentId + 1);
+        loader.commit();
+        rows.put("fees", feeTable.getRows());
+        rows.put("invoices", invoiceTable.getRows());
+        rows.put("fee_invoice", feeInvoiceTable.getRows());
+        rows.put("invoice_apartment", invoiceApartmentTable.getRows());
+        rows.put("invoice_apartment_lines", lineTable.getRows());
+        rows.put("invoice_apartment_fees", feeAmountTable.getRows());
+        rows.put("utility_bills", billTable.getRows());
+    }
+
+    private static void flush(BulkLoader loader, BulkLoader.Table... tables) throws SQLException {
+        for (BulkLoader.Table table : tables) {
+            table.flush();
+        }
+        loader.commit();
+    }
+
+    private YearMonth firstMonth() {
+        return lastMonth.minusMonths(years * 12L - 1);
+    }
+
+    private static Instant issuedAt(YearMonth month) {
+        return month.atDay(1).atTime(8, 0).atZone(ZONE).toInstant();
+    }
+
+    private static String monthlyInvoiceId(YearMonth month) {
+        return String.format("HD-%d-%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static String fundInvoiceId(YearMonth month) {
+        return "QUY-" + month.getYear() + "-Q" + quarter(month);
+    }
+
+    private static boolean isQuarterStart(YearMonth month) {
+        return month.getMonthValue() % 3 == 1;
+    }
+
+    private static int quarter(YearMonth month) {
+        return (month.getMonthValue() + 2) / 3;
+    }
+
+    private static long fundFeeId(YearMonth month) {
+        return 3 + quarter(month) % 3;
+    }
+
+    // Almost everything older than three months is paid, recent months are still being collected
+    private static PaymentEnum paymentStatus(Random random, int age) {
+        int paidPercent = age >= 3 ? 97 : 30 + age * 20;
+        return random.nextInt(100) < paidPercent ? PaymentEnum.Paid : PaymentEnum.Unpaid;
+    }
+
+    // 100-500 kWh, a third more in the hot months
+    private static double electricity(Random random, YearMonth month) {
+        double kwh = 100 + random.nextInt(400);
+        if (month.getMonthValue() >= 5 && month.getMonthValue() <= 8) {
+            kwh *= 1.35;
+        }
+        return Math.round(kwh) * 3_000.0;
+    }
+
+    private static ResidentEnum residentStatus(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 85 ? ResidentEnum.Resident : roll < 92 ? ResidentEnum.Temporary : roll < 96 ? ResidentEnum.Absent : ResidentEnum.Moved;
+    }
+
+    // 12 digits as on a citizen identity card: province, century and gender, birth year, serial.
+    // Province and serial come from the id, so CICs are unique.
+    private static String cic(long id, GenderEnum gender, LocalDate dob) {
+        int century = dob.getYear() >= 2000 ? 2 : 0;
+        return String.format("%03d%d%02d%06d", 1 + id / 1_000_000 % 96, century + gender.ordinal(),
+                dob.getYear() % 100, id % 1_000_000);
+    }
+
+    // e.g. 29A-123.45, unique per sequence number
+    private static String plate(long seq) {
+        long serial = seq % 100_000;
+        return String.format("%02d%c-%03d.%02d", 11 + seq / 2_600_000 % 89, (char) ('A' + seq / 100_000 % 26),
+                serial / 100, serial % 100);
+    }
+
+    private static Fee fee(long id, String name, FeeTypeEnum type, long unitPrice) {
+        Fee fee = new Fee();
+        fee.setId(id);
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(BigDecimal.valueOf(unitPrice));
+        return fee;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a CSV file (RFC 4180: quoted fields, doubled quotes, line breaks inside quotes) record by record,
+ * so memory does not grow with the number of rows. The separator is ',' unless given.
+ */
+public final class CsvRowReader {
+    private CsvRowReader() {
+    }
+
+    public static void read(Reader reader, int columns, RowHandler handler) throws IOException {
+        read(reader, ',', columns, handler);
+    }
+
+    public static void read(Reader reader, char separator, int columns, RowHandler handler) throws IOException {
+        String[] cells = new String[columns];
+        List<String> fields = new ArrayList<>(columns);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int rowNum = 0;
+        int c = reader.read();
+        if (c == '\uFEFF') { // byte order mark written by Excel
+            c = reader.read();
+        }
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (ch == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (ch == '\n' || ch == '\r') {
+                int next = reader.read();
+                if (ch == '\r' && next == '\n') {
+                    next = reader.read();
+                }
+                fields.add(field.toString());
+                emit(rowNum++, fields, cells, handler);
+                field.setLength(0);
+                fields.clear();
+                fieldStarted = false;
+                c = next;
+                continue;
+            } else {
+                field.append(ch);
+                fieldStarted = true;
+            }
+            c = reader.read();
+        }
+        if (fieldStarted || field.length() > 0 || !fields.isEmpty()) { // last record without line break
+            fields.add(field.toString());
+            emit(rowNum, fields, cells, handler);
+        }
+    }
+
+    private static void emit(int rowNum, List<String> fields, String[] cells, RowHandler handler) {
+        Arrays.fill(cells, null);
+        for (int i = 0; i < Math.min(fields.size(), cells.length); i++) {
+            String value = fields.get(i).trim();
+            cells[i] = value.isEmpty() ? null : value;
+        }
+        handler.row(rowNum, cells);
+    }
+}
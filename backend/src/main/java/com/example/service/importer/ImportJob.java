@@ -0,0 +1,97 @@
+package com.example.service.importer;
+
+import com.example.constant.ImportJobEnum;
+import com.example.dto.response.ImportJobResponse;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background import, written by the worker thread and read by polling requests
+ */
+public class ImportJob {
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final String kind;
+    private final String name;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<ImportJobResponse.RejectedRow> rejectedRows = new ArrayList<>();
+    @Getter
+    private volatile ImportJobEnum status = ImportJobEnum.Queued;
+    private volatile Instant startedAt;
+    @Getter
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public ImportJob(String kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = ImportJobEnum.Running;
+    }
+
+    public void accepted() {
+        rowsProcessed.incrementAndGet();
+    }
+
+    public void rejected(int rowNum, String reason) {
+        rowsProcessed.incrementAndGet();
+        if (rowsRejected.incrementAndGet() <= MAX_REPORTED_REJECTIONS) {
+            synchronized (rejectedRows) {
+                rejectedRows.add(new ImportJobResponse.RejectedRow(rowNum + 1, reason));
+            }
+        }
+    }
+
+    public void committed(int rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = ImportJobEnum.Completed;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = ImportJobEnum.Failed;
+    }
+
+    public ImportJobResponse toResponse() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = startedAt == null ? 0 : Duration.between(startedAt, end).toMillis() / 1000.0;
+        List<ImportJobResponse.RejectedRow> rejected;
+        synchronized (rejectedRows) {
+            rejected = List.copyOf(rejectedRows);
+        }
+        return ImportJobResponse.builder()
+                .jobId(id)
+                .name(name)
+                .status(status)
+                .rowsProcessed(rowsProcessed.get())
+                .rowsImported(rowsImported.get())
+                .rowsRejected(rowsRejected.get())
+                .rowsPerSecond(seconds > 0 ? rowsProcessed.get() / seconds : 0)
+                .rejectedRows(rejected)
+                .error(error)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.service.importer;
+
+import com.example.dto.response.ImportJobResponse;
+import com.example.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs file imports as background jobs on the import executor and keeps their progress for polling.
+ * The upload is staged to a temp file, rows are parsed one by one by a {@link RowImport}: invalid rows are
+ * rejected with a reason and the valid ones are committed in chunks of BATCH_SIZE, each chunk in its own
+ * transaction. Each run is timed as {@code <kind>.import}, tagged with its final status.
+ */
+@Component
+@Slf4j
+public class ImportJobRunner {
+    public static final int BATCH_SIZE = 1000;
+    private static final Duration KEEP_FINISHED_JOBS = Duration.ofHours(1);
+
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobRunner(PlatformTransactionManager transactionManager,
+                           @Qualifier("importExecutor") Executor importExecutor,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importExecutor = importExecutor;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    /**
+     * Queue the import of an uploaded file and return at once; poll getJob with the returned job id
+     *
+     * @param kind   import type, e.g. resident; jobs are only returned for their own kind
+     * @param suffix extension of the staged temp file, the readers pick the format from the file content
+     */
+    public ImportJobResponse submit(final String kind, final MultipartFile file, final String name,
+                                    final String suffix, final RowImport<?> rowImport) {
+        evictFinishedJobs();
+        final Path upload;
+        try {
+            // the multipart file is deleted when the request ends
+            upload = Files.createTempFile(kind + "-", suffix);
+            file.transferTo(upload);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to store " + kind + " file", e);
+        }
+
+        final var job = new ImportJob(kind, name);
+        jobs.put(job.getId(), job);
+        try {
+            importExecutor.execute(() -> run(job, upload, rowImport));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(upload);
+            throw new RuntimeException("Too many imports in progress, try again later");
+        }
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getJob(final String kind, final String jobId) {
+        final var job = jobs.get(jobId);
+        if (job == null || !job.getKind().equals(kind)) {
+            throw new ResourceNotFoundException("Import job " + jobId + " not found");
+        }
+        return job.toResponse();
+    }
+
+    <T> void run(final ImportJob job, final Path upload, final RowImport<T> rowImport) {
+        final long startedAt = System.nanoTime();
+        job.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> rowImport.prepare());
+            final List<T> chunk = new ArrayList<>(BATCH_SIZE);
+            rowImport.read(upload, (rowNum, cells) -> {
+                if (rowNum == 0) { // header
+                    return;
+                }
+                try {
+                    final T row = rowImport.parse(rowNum, cells);
+                    if (row == null) {
+                        return;
+                    }
+                    chunk.add(row);
+                    job.accepted();
+                } catch (RuntimeException e) {
+                    job.rejected(rowNum, e.getMessage());
+                }
+                if (chunk.size() == BATCH_SIZE) {
+                    commit(job, rowImport, chunk);
+                }
+            });
+            commit(job, rowImport, chunk);
+            job.complete();
+        } catch (Exception e) {
+            log.error("{} import {} failed", job.getKind(), job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            deleteQuietly(upload);
+            recordDuration(job, System.nanoTime() - startedAt);
+        }
+    }
+
+    private <T> void commit(final ImportJob job, final RowImport<T> rowImport, final List<T> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> rowImport.insert(chunk));
+        rowImport.committed(chunk);
+        job.committed(chunk.size());
+        chunk.clear();
+    }
+
+    // Runs on the import executor, outside any proxy, so the timer is recorded here rather than with @Timed
+    private void recordDuration(final ImportJob job, final long nanos) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer.builder(job.getKind() + ".import")
+                .description("Import job duration")
+                .tag("status", job.getStatus().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void evictFinishedJobs() {
+        final var cutoff = Instant.now().minus(KEEP_FINISHED_JOBS);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+}
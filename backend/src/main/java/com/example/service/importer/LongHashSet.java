@@ -0,0 +1,73 @@
+package com.example.service.importer;
+
+/**
+ * Set of primitive longs with open addressing, for id lookups over a whole table
+ * without boxing every id into a HashSet entry.
+ */
+public class LongHashSet {
+    private static final long EMPTY = 0L; // 0 is tracked by containsZero
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.table = new long[capacity];
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        int mask = table.length - 1;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            if (table[i] == EMPTY) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+            if (table[i] == value) {
+                return false;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        for (int i = mix(value) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        size = 0;
+        for (long value : old) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
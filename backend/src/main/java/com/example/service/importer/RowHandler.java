@@ -0,0 +1,13 @@
+package com.example.service.importer;
+
+/**
+ * Receives the rows of a file read by XlsxRowReader or CsvRowReader, one at a time
+ */
+@FunctionalInterface
+public interface RowHandler {
+    /**
+     * @param rowNum 0-based row number in the file, the header is row 0
+     * @param cells  the columns of the row, null for blank cells; the array may be reused for the next row
+     */
+    void row(int rowNum, String[] cells);
+}
@@ -0,0 +1,37 @@
+package com.example.service.importer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One import run as seen by {@link ImportJobRunner}: how the file is read, how a row becomes an entity
+ * and how a chunk of entities is inserted. A new instance is created per submitted file, so it may keep
+ * the lookup sets loaded in prepare.
+ */
+public interface RowImport<T> {
+    /**
+     * Load what parse needs before the first row; runs on the worker thread inside a transaction
+     */
+    default void prepare() {
+    }
+
+    void read(Path file, RowHandler handler) throws Exception;
+
+    /**
+     * The entity of one data row (the header row is never passed), or null to skip the row without counting it
+     *
+     * @throws RuntimeException with the reason the row is rejected
+     */
+    T parse(int rowNum, String[] cells);
+
+    /**
+     * Insert one chunk of at most ImportJobRunner.BATCH_SIZE entities; runs inside its own transaction
+     */
+    void insert(List<T> chunk);
+
+    /**
+     * Called once a chunk is committed
+     */
+    default void committed(List<T> chunk) {
+    }
+}
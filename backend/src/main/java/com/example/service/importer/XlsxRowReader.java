@@ -0,0 +1,82 @@
+package com.example.service.importer;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads the first sheet of an .xlsx file row by row with the POI SAX event model, so memory
+ * does not grow with the number of rows. Numeric cells are passed unformatted (e.g. "1234.5").
+ */
+public final class XlsxRowReader {
+    // Raw numbers instead of the cell display format, "1,234" would not parse
+    private static final DataFormatter RAW_VALUES = new DataFormatter() {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return NumberToTextConverter.toText(value);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            return NumberToTextConverter.toText(value);
+        }
+    };
+
+    private XlsxRowReader() {
+    }
+
+    public static void read(Path file, int columns, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                    new ReadOnlySharedStringsTable(pkg), new RowCollector(columns, handler), RAW_VALUES, false));
+            try (InputStream sheet = reader.getSheetsData().next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final String[] cells;
+        private final RowHandler handler;
+        private int rowNum;
+
+        RowCollector(int columns, RowHandler handler) {
+            this.cells = new String[columns];
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            this.rowNum = rowNum;
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (column < cells.length && formattedValue != null && !formattedValue.isBlank()) {
+                cells[column] = formattedValue;
+            }
+        }
+    }
+}
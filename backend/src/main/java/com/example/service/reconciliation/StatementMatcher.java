@@ -0,0 +1,202 @@
+package com.example.service.reconciliation;
+
+import com.example.constant.ReconciliationEnum;
+import com.example.dto.projection.InvoiceApartmentAmountRow;
+import com.example.dto.projection.UtilityBillAmountRow;
+import com.example.dto.response.ReconciliationResponse;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches bank transfers to unpaid rows held in memory: keys are extracted from the free text of each
+ * transfer and looked up in hash maps of the unpaid InvoiceApartment and UtilityBill rows.
+ * A transfer is matched only when exactly one unpaid row fits it and its amount pays that row: the exact
+ * bill amount for a utility bill, at least the frozen line total for an invoice. Anything else becomes an exception.
+ */
+public class StatementMatcher {
+    // "Apt 101", "can ho 101", "CH101", "phong 101", "P.101"
+    private static final Pattern APARTMENT = Pattern.compile("\\b(?:APARTMENT|APT|CAN HO|CANHO|CH|PHONG|ROOM|P)\\s*[.:#-]?\\s*(\\d{1,9})\\b");
+    // "UB 42", "UB-42", "utility 42"
+    private static final Pattern UTILITY_BILL = Pattern.compile("\\b(?:UB|UTILITY|DIEN NUOC)\\s*[.:#-]?\\s*(\\d{1,18})\\b");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^A-Z0-9_.-]+");
+    private static final double AMOUNT_TOLERANCE = 0.5;
+
+    private record InvoiceApartmentKey(long apartmentId, String invoiceId) {
+    }
+
+    private final Map<InvoiceApartmentKey, InvoiceApartmentAmountRow> unpaidInvoiceApartments = new HashMap<>();
+    // Invoice ids as they may appear in a transfer (upper case, with or without separators)
+    private final Map<String, String> invoiceIdsByToken = new HashMap<>();
+    private final Map<Long, UtilityBillAmountRow> unpaidUtilityBills = new HashMap<>();
+    private final Set<Long> matchedInvoiceApartments = new HashSet<>();
+    private final Set<Long> matchedUtilityBills = new HashSet<>();
+    private final List<ReconciliationResponse.Match> matches = new ArrayList<>();
+    private final List<ReconciliationResponse.Issue> issues = new ArrayList<>();
+
+    public void addInvoiceApartment(InvoiceApartmentAmountRow row) {
+        unpaidInvoiceApartments.put(new InvoiceApartmentKey(row.getApartmentId(), row.getInvoiceId()), row);
+        String token = normalize(row.getInvoiceId());
+        invoiceIdsByToken.put(token, row.getInvoiceId());
+        invoiceIdsByToken.putIfAbsent(token.replaceAll("[^A-Z0-9]", ""), row.getInvoiceId());
+    }
+
+    public void addUtilityBill(UtilityBillAmountRow row) {
+        unpaidUtilityBills.put(row.getId(), row);
+    }
+
+    public Set<Long> getMatchedInvoiceApartments() {
+        return matchedInvoiceApartments;
+    }
+
+    public Set<Long> getMatchedUtilityBills() {
+        return matchedUtilityBills;
+    }
+
+    public List<ReconciliationResponse.Match> getMatches() {
+        return matches;
+    }
+
+    public List<ReconciliationResponse.Issue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Match one transfer, adding it to the matches or to the exceptions
+     */
+    public void match(int line, String description, Double amount) {
+        String text = normalize(description == null ? "" : description);
+        Set<Long> apartments = new LinkedHashSet<>();
+        Matcher apartmentMatcher = APARTMENT.matcher(text);
+        while (apartmentMatcher.find()) {
+            apartments.add(Long.parseLong(apartmentMatcher.group(1)));
+        }
+        Set<String> invoices = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            String invoiceId = invoiceIdsByToken.get(stripTrailingDots(token));
+            if (invoiceId != null) {
+                invoices.add(invoiceId);
+            }
+        }
+        Set<Long> bills = new LinkedHashSet<>();
+        Matcher billMatcher = UTILITY_BILL.matcher(text);
+        while (billMatcher.find()) {
+            bills.add(Long.parseLong(billMatcher.group(1)));
+        }
+
+        // Candidates: every (apartment, invoice) pair and every bill the text names that is still unpaid
+        List<ReconciliationResponse.Match> candidates = new ArrayList<>();
+        for (Long apartmentId : apartments) {
+            for (String invoiceId : invoices) {
+                InvoiceApartmentAmountRow row = unpaidInvoiceApartments.get(new InvoiceApartmentKey(apartmentId, invoiceId));
+                if (row != null) {
+                    candidates.add(new ReconciliationResponse.Match(line, "InvoiceApartment", row.getId(), apartmentId, invoiceId, amount));
+                }
+            }
+        }
+        for (Long billId : bills) {
+            UtilityBillAmountRow bill = unpaidUtilityBills.get(billId);
+            if (bill != null && (apartments.isEmpty() || apartments.contains(bill.getApartmentId()))) {
+                candidates.add(new ReconciliationResponse.Match(line, "UtilityBill", billId, bill.getApartmentId(), null, amount));
+            }
+        }
+
+        ReconciliationResponse.Issue issue = check(candidates, apartments, invoices, bills, line, description, amount);
+        if (issue != null) {
+            issues.add(issue);
+        } else {
+            matches.add(candidates.get(0));
+        }
+    }
+
+    // The reason the transfer cannot be matched automatically, null when its single candidate is a match
+    private ReconciliationResponse.Issue check(List<ReconciliationResponse.Match> candidates, Set<Long> apartments,
+                                               Set<String> invoices, Set<Long> bills,
+                                               int line, String description, Double amount) {
+        if (candidates.size() > 1) {
+            return issue(line, description, amount, ReconciliationEnum.Ambiguous, candidates.size() + " unpaid rows fit this transfer");
+        }
+        if (candidates.isEmpty()) {
+            if (bills.isEmpty() && apartments.isEmpty()) {
+                return issue(line, description, amount, ReconciliationEnum.NoApartmentReference, null);
+            }
+            if (bills.isEmpty() && invoices.isEmpty()) {
+                return issue(line, description, amount, ReconciliationEnum.NoInvoiceReference, null);
+            }
+            return issue(line, description, amount, ReconciliationEnum.NotFoundOrPaid, "apartments " + apartments
+                    + (invoices.isEmpty() ? "" : ", invoices " + invoices) + (bills.isEmpty() ? "" : ", utility bills " + bills));
+        }
+
+        ReconciliationResponse.Match match = candidates.get(0);
+        boolean utilityBill = match.getKind().equals("UtilityBill");
+        if (utilityBill) {
+            double expected = unpaidUtilityBills.get(match.getId()).getAmount();
+            if (amount == null || Math.abs(amount - expected) > AMOUNT_TOLERANCE) {
+                return issue(line, description, amount, ReconciliationEnum.AmountMismatch, "utility bill " + match.getId() + " is " + expected);
+            }
+        } else {
+            // a debit, refund or partial transfer does not pay the invoice
+            InvoiceApartmentAmountRow row = unpaidInvoiceApartments.get(new InvoiceApartmentKey(match.getApartmentId(), match.getInvoiceId()));
+            if (row.getPricedAt() == null) {
+                return issue(line, description, amount, ReconciliationEnum.AmountMismatch,
+                        "invoice " + row.getInvoiceId() + " has no frozen amounts, recalculate it first");
+            }
+            double expected = row.getAmount() == null ? 0.0 : row.getAmount();
+            if (amount == null || amount <= 0 || amount < expected - AMOUNT_TOLERANCE) {
+                return issue(line, description, amount, ReconciliationEnum.AmountMismatch,
+                        "invoice " + row.getInvoiceId() + " for apartment " + row.getApartmentId() + " is " + expected);
+            }
+        }
+        if (!(utilityBill ? matchedUtilityBills : matchedInvoiceApartments).add(match.getId())) {
+            return issue(line, description, amount, ReconciliationEnum.Duplicate,
+                    match.getKind() + " " + match.getId() + " was matched by an earlier line");
+        }
+        return null;
+    }
+
+    /**
+     * Parse a bank amount: "1,250,000", "1.250.000", "1250000.00" and "1.250.000,50" are all accepted
+     */
+    public static Double parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = value.replaceAll("[^0-9.,-]", "");
+        int lastDot = cleaned.lastIndexOf('.');
+        int lastComma = cleaned.lastIndexOf(',');
+        if (lastDot >= 0 && lastComma >= 0) {
+            char decimal = lastDot > lastComma ? '.' : ',';
+            cleaned = cleaned.replace(decimal == '.' ? "," : ".", "").replace(decimal, '.');
+        } else if (lastDot >= 0 || lastComma >= 0) {
+            char separator = lastDot >= 0 ? '.' : ',';
+            int last = Math.max(lastDot, lastComma);
+            boolean grouping = cleaned.indexOf(separator) != last || cleaned.length() - last - 1 == 3;
+            cleaned = grouping ? cleaned.replace(String.valueOf(separator), "") : cleaned.replace(separator, '.');
+        }
+        try {
+            return cleaned.isEmpty() ? null : Double.parseDouble(cleaned);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Upper case without Vietnamese accents, so "Căn hộ" and "CAN HO" read the same
+    public static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return decomposed.replace('đ', 'd').replace('Đ', 'D').toUpperCase(Locale.ROOT);
+    }
+
+    private static String stripTrailingDots(String token) {
+        int end = token.length();
+        while (end > 0 && token.charAt(end - 1) == '.') {
+            end--;
+        }
+        return token.substring(0, end);
+    }
+
+    private static ReconciliationResponse.Issue issue(int line, String description, Double amount, ReconciliationEnum reason, String detail) {
+        return new ReconciliationResponse.Issue(line, description, amount, reason, detail);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.projection.ApartmentListItem;
+import com.example.dto.request.ApartmentUpdateRequest;
+import com.example.dto.response.PaginatedResponse;
+import com.example.entity.Apartment;
+import com.example.entity.Resident;
+import com.example.entity.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Checks the projected apartment list against the counts Apartment.onLoad computes from the collections
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ApartmentService.class, PageTotals.class})
+public class ApartmentListQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApartmentService apartmentService;
+
+    @MockBean
+    private ResidentService residentService;
+
+    @BeforeEach
+    void setUp() {
+        for (long i = 1; i <= 5; i++) {
+            Apartment apartment = Apartment.builder()
+                    .addressNumber(200 + i)
+                    .area(30 + i * 10)
+                    .status(i % 2 == 0 ? ApartmentEnum.Business : ApartmentEnum.Residential)
+                    .build();
+            entityManager.persist(apartment);
+            for (long r = 0; r < i; r++) {
+                Resident resident = Resident.builder()
+                        .id(i * 100 + r)
+                        .name("Resident " + i + "-" + r)
+                        .status(r == 0 ? ResidentEnum.Moved : ResidentEnum.Resident)
+                        .apartment(apartment)
+                        .build();
+                entityManager.persist(resident);
+                if (r == 1) {
+                    apartment.setOwner(resident);
+                }
+            }
+            for (int v = 0; v < i % 3; v++) {
+                entityManager.persist(Vehicle.builder().id("CAR-" + i + "-" + v).category(VehicleEnum.Car).apartment(apartment).build());
+            }
+            for (int v = 0; v < i % 2; v++) {
+                entityManager.persist(Vehicle.builder().id("BIKE-" + i + "-" + v).category(VehicleEnum.Motorbike).apartment(apartment).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testGetAll_MatchesEntityCounts() {
+        PaginatedResponse<ApartmentListItem> page = apartmentService.getAll(null,
+                PageRequest.of(0, 3, Sort.by("addressNumber").descending()));
+
+        assertEquals(2, page.getTotalPages());
+        List<ApartmentListItem> items = page.getResult();
+        assertEquals(List.of(205L, 204L, 203L), items.stream().map(ApartmentListItem::getAddressNumber).toList());
+        for (ApartmentListItem item : items) {
+            Apartment apartment = entityManager.find(Apartment.class, item.getAddressNumber());
+            assertEquals(apartment.getNumberOfMembers().longValue(), item.getNumberOfMembers());
+            assertEquals(apartment.getNumberOfCars(), item.getNumberOfCars());
+            assertEquals(apartment.getNumberOfMotorbikes(), item.getNumberOfMotorbikes());
+            assertEquals(apartment.getOwner().getId(), item.getOwner().getId());
+            assertEquals(apartment.getOwner().getName(), item.getOwner().getName());
+            assertEquals(apartment.getResidentList().stream().map(Resident::getId).sorted().toList(),
+                    item.getResidentList().stream().map(ApartmentListItem.Member::getId).toList());
+            assertEquals(apartment.getVehicleList().stream().map(Vehicle::getId).sorted().toList(),
+                    item.getVehicleList().stream().map(ApartmentListItem.VehicleItem::getId).toList());
+        }
+    }
+
+    @Test
+    void testUpdate_FromListRowKeepsResidents() {
+        when(residentService.fetchResidentById(anyLong())).thenAnswer(invocation -> entityManager.find(Resident.class, invocation.getArgument(0)));
+        ApartmentListItem item = apartmentService.getAll(null, "", 10).getResult().stream()
+                .filter(row -> row.getAddressNumber() == 204L).findFirst().orElseThrow();
+        entityManager.clear();
+
+        // what the edit form opened from the table sends back when only the area changes
+        apartmentService.update(item.getAddressNumber(), ApartmentUpdateRequest.builder()
+                .ownerId(item.getOwner().getId())
+                .area(95.0)
+                .ownerPhone(item.getOwnerPhone())
+                .status(item.getStatus().name())
+                .residents(item.getResidentList().stream().map(ApartmentListItem.Member::getId).toList())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Apartment apartment = entityManager.find(Apartment.class, 204L);
+        assertEquals(95.0, apartment.getArea());
+        assertEquals(List.of(400L, 401L, 402L, 403L), apartment.getResidentList().stream()
+                .map(Resident::getId).sorted(Comparator.naturalOrder()).toList());
+    }
+
+    @Test
+    void testGetAll_Cursor() {
+        PaginatedResponse<ApartmentListItem> first = apartmentService.getAll(null, "", 3);
+        PaginatedResponse<ApartmentListItem> second = apartmentService.getAll(null, first.getNextCursor(), 3);
+
+        assertEquals(List.of(201L, 202L, 203L), first.getResult().stream().map(ApartmentListItem::getAddressNumber).toList());
+        assertEquals(List.of(204L, 205L), second.getResult().stream().map(ApartmentListItem::getAddressNumber).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testGetAll_AppliesSpecification() {
+        Specification<Apartment> business = (root, query, cb) -> cb.equal(root.get("status"), ApartmentEnum.Business);
+
+        PaginatedResponse<ApartmentListItem> page = apartmentService.getAll(business, PageRequest.of(0, 10));
+
+        assertEquals(List.of(202L, 204L), page.getResult().stream().map(ApartmentListItem::getAddressNumber).sorted().toList());
+        assertTrue(page.getResult().stream().allMatch(item -> item.getStatus() == ApartmentEnum.Business));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.service;
 
 import com.example.constant.ApartmentEnum;
+import com.example.dto.projection.ApartmentListItem;
 import com.example.dto.request.ApartmentCreateRequest;
 import com.example.dto.request.ApartmentUpdateRequest;
 import com.example.dto.response.PaginatedResponse;
@@ -102,24 +103,24 @@ public class ApartmentServiceTest {
     @Test
     void testGetAll_Success() {
         // Mock
-        Page<Apartment> page = new PageImpl<>(Arrays.asList(apartment));
-        // Sử dụng Lambda để chỉ định rõ phương thức findAll từ JpaSpecificationExecutor
-        doAnswer(invocation -> page)
-                .when(apartmentRepository)
-                .findAll((Specification<Apartment>) eq(null), any(Pageable.class));
+        Page<ApartmentListItem> page = new PageImpl<>(Arrays.asList(new ApartmentListItem(1L, 50.0,
+                ApartmentEnum.Residential, apartment.getCreatedAt(), null, 1L, "Owner", 1234567890L, 2L, 0L, 1L)));
+        when(apartmentRepository.findListItems(null, PageRequest.of(0, 10))).thenReturn(page);
 
         // Call method
-        PaginatedResponse<Apartment> result = apartmentService.getAll(null, PageRequest.of(0, 10));
+        PaginatedResponse<ApartmentListItem> result = apartmentService.getAll(null, PageRequest.of(0, 10));
 
         // Assertions
         assertNotNull(result);
         assertEquals(10, result.getPageSize());
         assertEquals(0, result.getCurPage());
         assertEquals(1, result.getResult().size());
+        assertEquals(2L, result.getResult().get(0).getNumberOfMembers());
+        assertEquals(1L, result.getResult().get(0).getOwner().getId());
 
-        // Verify với Lambda
-        verify(apartmentRepository)
-                .findAll((Specification<Apartment>) eq(null), any(Pageable.class));
+        // Entities are not loaded for the list
+        verify(apartmentRepository).findListItems(null, PageRequest.of(0, 10));
+        verify(apartmentRepository, never()).findAll(any(Specification.class), any(Pageable.class));
     }
 
     @Test
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.BulkPaymentEnum;
+import com.example.constant.PaymentEnum;
+import com.example.dto.request.BulkPaymentRequest;
+import com.example.dto.response.BulkPaymentResponse;
+import com.example.entity.*;
+import com.example.repository.InvoiceApartmentFeeRepository;
+import com.example.repository.InvoiceApartmentLineRepository;
+import com.example.repository.UtilityBillJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bulk payment statements against H2: outcomes per requested row and the resulting payment status
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({InvoiceService.class, UtilityBillService.class, InvoiceApartmentLineRepository.class, InvoiceApartmentFeeRepository.class,
+        UtilityBillJdbcRepository.class, PageTotals.class, FeeCatalog.class, InvoiceTotalsService.class})
+@ComponentScan("com.example.service.fee")
+public class BulkPaymentTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private UtilityBillService utilityBillService;
+
+    private final List<InvoiceApartment> invoiceApartments = new ArrayList<>();
+    private final List<UtilityBill> utilityBills = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Invoice invoice = new Invoice();
+        invoice.setId("INV-PAY");
+        invoice.setName("Collection day");
+        entityManager.persist(invoice);
+        for (long i = 1; i <= 4; i++) {
+            Apartment apartment = Apartment.builder().addressNumber(200 + i).area(50).status(ApartmentEnum.Residential).build();
+            entityManager.persist(apartment);
+            InvoiceApartment invoiceApartment = new InvoiceApartment();
+            invoiceApartment.setInvoice(invoice);
+            invoiceApartment.setApartment(apartment);
+            invoiceApartment.setPaymentStatus(i == 4 ? PaymentEnum.Paid : PaymentEnum.Unpaid);
+            invoiceApartments.add(entityManager.persist(invoiceApartment));
+            UtilityBill bill = UtilityBill.builder().apartment(apartment).name("May").paymentStatus(i == 4 ? PaymentEnum.Paid : PaymentEnum.Unpaid).build();
+            utilityBills.add(entityManager.persist(bill));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testPayInvoiceApartments_ByIdAndPair() {
+        BulkPaymentRequest request = new BulkPaymentRequest(
+                List.of(invoiceApartments.get(0).getId(), invoiceApartments.get(3).getId(), 999_999L),
+                List.of(new BulkPaymentRequest.InvoiceApartmentKey("INV-PAY", 202L),
+                        new BulkPaymentRequest.InvoiceApartmentKey("INV-OTHER", 203L)));
+
+        BulkPaymentResponse response = invoiceService.payInvoiceApartments(request);
+        entityManager.clear();
+
+        assertEquals(List.of(BulkPaymentEnum.Paid, BulkPaymentEnum.AlreadyPaid, BulkPaymentEnum.NotFound,
+                        BulkPaymentEnum.Paid, BulkPaymentEnum.NotFound),
+                response.getOutcomes().stream().map(BulkPaymentResponse.Outcome::getOutcome).collect(Collectors.toList()));
+        assertEquals(2, response.getPaid());
+        assertEquals(1, response.getAlreadyPaid());
+        assertEquals(2, response.getNotFound());
+        assertEquals(invoiceApartments.get(1).getId(), response.getOutcomes().get(3).getId());
+        assertEquals(List.of(PaymentEnum.Paid, PaymentEnum.Paid, PaymentEnum.Unpaid, PaymentEnum.Paid),
+                invoiceApartments.stream()
+                        .map(ia -> entityManager.find(InvoiceApartment.class, ia.getId()).getPaymentStatus())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testPayUtilityBills_ManyChunks() {
+        // ids beyond the first chunk do not exist, they only make the request span several IN lists
+        List<Long> ids = new ArrayList<>(utilityBills.stream().map(UtilityBill::getId).toList());
+        LongStream.range(0, BulkPayments.CHUNK_SIZE * 2L).forEach(i -> ids.add(1_000_000 + i));
+
+        BulkPaymentResponse response = utilityBillService.payUtilityBills(new BulkPaymentRequest(ids, List.of()));
+        entityManager.clear();
+
+        assertEquals(3, response.getPaid());
+        assertEquals(1, response.getAlreadyPaid());
+        assertEquals(BulkPayments.CHUNK_SIZE * 2, response.getNotFound());
+        utilityBills.forEach(bill ->
+                assertEquals(PaymentEnum.Paid, entityManager.find(UtilityBill.class, bill.getId()).getPaymentStatus()));
+    }
+
+    @Test
+    void testChunks_AscendingAcrossChunks() {
+        // two postings naming the same rows in different orders lock them in the same order
+        List<Long> ids = LongStream.rangeClosed(1, BulkPayments.CHUNK_SIZE + 5).map(i -> BulkPayments.CHUNK_SIZE + 6 - i)
+                .boxed().collect(Collectors.toList());
+        ids.add(3L);
+
+        List<List<Long>> chunks = BulkPayments.chunks(ids);
+
+        assertEquals(2, chunks.size());
+        assertEquals(LongStream.rangeClosed(1, BulkPayments.CHUNK_SIZE).boxed().toList(), chunks.get(0));
+        assertEquals(LongStream.rangeClosed(BulkPayments.CHUNK_SIZE + 1, BulkPayments.CHUNK_SIZE + 5).boxed().toList(), chunks.get(1));
+    }
+
+    @Test
+    void testPayUtilityBills_RejectsPairsAndEmptyRequests() {
+        RuntimeException pairs = assertThrows(RuntimeException.class, () -> utilityBillService.payUtilityBills(
+                new BulkPaymentRequest(List.of(), List.of(new BulkPaymentRequest.InvoiceApartmentKey("INV-PAY", 201L)))));
+        assertEquals("Utility bills are paid by id only", pairs.getMessage());
+
+        RuntimeException empty = assertThrows(RuntimeException.class, () -> invoiceService.payInvoiceApartments(new BulkPaymentRequest()));
+        assertEquals("No payment to post", empty.getMessage());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.service;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.dto.projection.InvoiceFeeLink;
+import com.example.dto.response.FeeCatalogStatsResponse;
+import com.example.entity.Fee;
+import com.example.repository.FeeInvoiceRepository;
+import com.example.repository.FeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeeCatalogTest {
+    @Mock
+    private FeeRepository feeRepository;
+
+    @Mock
+    private FeeInvoiceRepository feeInvoiceRepository;
+
+    private FeeCatalog feeCatalog;
+    private Fee departmentFee;
+    private Fee vehicleFee;
+
+    @BeforeEach
+    void setUp() {
+        feeCatalog = new FeeCatalog(feeRepository, feeInvoiceRepository, Duration.ofMinutes(10));
+        departmentFee = fee(1L, "Department Fee", FeeTypeEnum.DepartmentFee);
+        vehicleFee = fee(2L, "Vehicle Fee", FeeTypeEnum.VehicleFee);
+        when(feeRepository.findAll()).thenReturn(List.of(departmentFee, vehicleFee));
+        when(feeInvoiceRepository.findAllLinks()).thenReturn(List.of(
+                new InvoiceFeeLink("INV001", 2L), new InvoiceFeeLink("INV001", 1L), new InvoiceFeeLink("INV002", 1L)));
+    }
+
+    @Test
+    void testFeesOf_LoadsOnceThenServesFromSnapshot() {
+        assertEquals(List.of("Vehicle Fee", "Department Fee"), names(feeCatalog.feesOf("INV001")));
+        assertEquals(List.of("Department Fee"), names(feeCatalog.feesOf("INV002")));
+        assertTrue(feeCatalog.feesOf("UNKNOWN").isEmpty());
+
+        verify(feeRepository, times(1)).findAll();
+        verify(feeInvoiceRepository, times(1)).findAllLinks();
+        FeeCatalogStatsResponse stats = feeCatalog.stats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getReloads());
+        assertEquals(2, stats.getFees());
+        assertEquals(2, stats.getInvoices());
+    }
+
+    @Test
+    void testFeesOf_ReturnsDetachedCopies() {
+        Fee cached = feeCatalog.feesOf("INV002").get(0);
+        departmentFee.setName("Renamed");
+
+        assertNotSame(departmentFee, cached);
+        assertEquals("Department Fee", cached.getName());
+    }
+
+    @Test
+    void testInvalidate_ReloadsOnNextRead() {
+        feeCatalog.feesOf("INV001");
+        long version = feeCatalog.snapshot().version();
+
+        when(feeRepository.findAll()).thenReturn(List.of(departmentFee));
+        feeCatalog.invalidate();
+
+        assertEquals(List.of("Department Fee"), names(feeCatalog.feesOf("INV001")));
+        assertTrue(feeCatalog.snapshot().version() > version);
+        verify(feeRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testInvalidate_InsideTransaction_DropsSnapshotAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feeCatalog.invalidate();
+            // read between the write and the commit
+            feeCatalog.feesOf("INV001");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        feeCatalog.feesOf("INV001");
+        verify(feeRepository, times(2)).findAll();
+    }
+
+    private List<String> names(List<Fee> fees) {
+        return fees.stream().map(Fee::getName).toList();
+    }
+
+    private Fee fee(Long id, String name, FeeTypeEnum type) {
+        Fee fee = new Fee();
+        fee.setId(id);
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(BigDecimal.TEN);
+        return fee;
+    }
+}
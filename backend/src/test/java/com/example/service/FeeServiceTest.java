@@ -3,23 +3,18 @@ package com.example.service;
 import com.example.constant.FeeTypeEnum;
 import com.example.dto.request.FeeCreateRequest;
 import com.example.dto.response.ApiResponse;
-import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Fee;
 import com.example.repository.FeeRepository;
+import com.example.service.fee.VehicleFeeStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +27,12 @@ public class FeeServiceTest {
     @Mock
     private FeeRepository feeRepository;
 
+    @Mock
+    private FeeCatalog feeCatalog;
+
+    @Mock
+    private VehicleFeeStrategy vehicleFeeStrategy;
+
     @InjectMocks
     private FeeService feeService;
 
@@ -57,22 +58,21 @@ public class FeeServiceTest {
     }
 
     @Test
-    void testFetchAllFees_Success() {
-        // Mock data
-        List<Fee> fees = new ArrayList<>();
-        fees.add(fee);
-        Page<Fee> page = new PageImpl<>(fees);
-        when(feeRepository.findAll(nullable(Specification.class), any(PageRequest.class))).thenReturn(page);
+    void testMigrateVehicleFeePlaceholders_UsesCarRate() {
+        when(vehicleFeeStrategy.getCarRate()).thenReturn(BigDecimal.valueOf(1200000));
+        when(feeRepository.replaceVehicleFeePlaceholders(BigDecimal.valueOf(1200000))).thenReturn(2);
 
-        // Call method
-        PaginatedResponse<Fee> result = feeService.fetchAllFees(null, PageRequest.of(0, 10));
+        assertEquals(2, feeService.migrateVehicleFeePlaceholders());
+        verify(feeCatalog).invalidate();
+    }
 
-        // Assertions
-        assertNotNull(result);
-        assertEquals(1, result.getResult().size());
-        assertEquals(10, result.getPageSize());
-        assertEquals(0, result.getCurPage());
-        verify(feeRepository).findAll(nullable(Specification.class), any(PageRequest.class));
+    @Test
+    void testMigrateVehicleFeePlaceholders_NothingToMigrate() {
+        when(vehicleFeeStrategy.getCarRate()).thenReturn(BigDecimal.valueOf(1200000));
+        when(feeRepository.replaceVehicleFeePlaceholders(any())).thenReturn(0);
+
+        assertEquals(0, feeService.migrateVehicleFeePlaceholders());
+        verifyNoInteractions(feeCatalog);
     }
 
     @Test
@@ -113,6 +113,7 @@ public class FeeServiceTest {
         assertEquals("Department Fee", result.getName());
         assertEquals(BigDecimal.valueOf(1000), result.getUnitPrice());
         verify(feeRepository).save(any(Fee.class));
+        verify(feeCatalog).invalidate();
     }
 
     @Test
@@ -150,6 +151,7 @@ public class FeeServiceTest {
         RuntimeException exception = assertThrows(RuntimeException.class, () -> feeService.createFee(feeCreateRequest));
         assertEquals("Unit price must be provided and greater than 0 for DepartmentFee or VehicleFee", exception.getMessage());
         verify(feeRepository, never()).save(any(Fee.class));
+        verify(feeCatalog, never()).invalidate();
     }
 
     @Test
@@ -173,6 +175,7 @@ public class FeeServiceTest {
         assertEquals(BigDecimal.valueOf(2000), result.getUnitPrice());
         verify(feeRepository).findById(1L);
         verify(feeRepository).save(any(Fee.class));
+        verify(feeCatalog).invalidate();
     }
 
     @Test
@@ -207,6 +210,7 @@ public class FeeServiceTest {
         assertNull(result.getData());
         verify(feeRepository).findById(1L);
         verify(feeRepository).delete(any(Fee.class));
+        verify(feeCatalog).invalidate();
     }
 
     @Test
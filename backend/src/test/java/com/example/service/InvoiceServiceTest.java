@@ -2,21 +2,27 @@ package com.example.service;
 
 import com.example.constant.FeeTypeEnum;
 import com.example.constant.PaymentEnum;
+import com.example.dto.projection.ApartmentBillingSummary;
+import com.example.dto.projection.ApartmentInvoiceFeeRow;
+import com.example.dto.projection.InvoiceApartmentBillingRow;
+import com.example.dto.projection.InvoiceFeeAmountRow;
 import com.example.dto.request.InvoiceRequest;
 import com.example.dto.response.*;
 import com.example.entity.*;
 import com.example.repository.*;
+import com.example.service.fee.ContributionFundStrategy;
+import com.example.service.fee.DepartmentFeeStrategy;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.VehicleFeeStrategy;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -24,6 +30,7 @@ import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +52,22 @@ public class InvoiceServiceTest {
     @Mock
     private InvoiceApartmentRepository invoiceApartmentRepository;
 
+    @Mock
+    private InvoiceApartmentLineRepository invoiceApartmentLineRepository;
+
+    @Mock
+    private FeeCatalog feeCatalog;
+
+    @Mock
+    private InvoiceTotalsService invoiceTotalsService;
+
+    @Mock
+    private InvoiceApartmentFeeRepository invoiceApartmentFeeRepository;
+
+    @Spy
+    private FeeCalculator feeCalculator = new FeeCalculator(List.of(
+            new DepartmentFeeStrategy(), new VehicleFeeStrategy(BigDecimal.valueOf(1200000), BigDecimal.valueOf(70000)), new ContributionFundStrategy()));
+
     @InjectMocks
     private InvoiceService invoiceService;
 
@@ -54,6 +77,7 @@ public class InvoiceServiceTest {
     private InvoiceApartment invoiceApartment;
     private InvoiceRequest invoiceRequest;
     private FeeInvoice feeInvoice;
+    private ApartmentBillingSummary billingSummary;
 
     @BeforeEach
     void setUp() {
@@ -83,6 +107,7 @@ public class InvoiceServiceTest {
         apartment.setArea(50.0);
         apartment.setNumberOfCars(1L);
         apartment.setNumberOfMotorbikes(2L);
+        billingSummary = new ApartmentBillingSummary(1L, 50.0, 1L, 2L);
 
         invoiceApartment = new InvoiceApartment();
         invoiceApartment.setId(1L);
@@ -103,30 +128,11 @@ public class InvoiceServiceTest {
                 .build();
     }
 
-    @Test
-    void testFetchAllInvoices_Success() {
-        // Mock data
-        List<Invoice> invoices = new ArrayList<>();
-        invoices.add(invoice);
-        Page<Invoice> page = new PageImpl<>(invoices);
-        when(invoiceRepository.findAll(nullable(Specification.class), any(PageRequest.class))).thenReturn(page);
-
-        // Call method
-        PaginatedResponse<InvoiceResponse> result = invoiceService.fetchAllInvoices(null, PageRequest.of(0, 10));
-
-        // Assertions
-        assertNotNull(result);
-        assertEquals(1, result.getResult().size());
-        assertEquals(10, result.getPageSize());
-        assertEquals(0, result.getCurPage());
-        verify(invoiceRepository).findAll(nullable(Specification.class), any(PageRequest.class));
-    }
-
     @Test
     void testFetchInvoiceById_Success() {
         // Mock data
         when(invoiceRepository.findById("INV001")).thenReturn(Optional.of(invoice));
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(feeCatalog.feesOf("INV001")).thenReturn(Arrays.asList(fee));
 
         // Call method
         InvoiceResponse result = invoiceService.fetchInvoiceById("INV001");
@@ -137,7 +143,7 @@ public class InvoiceServiceTest {
         assertEquals(1, result.getIsActive());
         assertEquals(1, result.getFeeList().size());
         verify(invoiceRepository).findById("INV001");
-        verify(feeInvoiceRepository).findFeesByInvoiceId("INV001");
+        verify(feeInvoiceRepository, never()).findFeesByInvoiceId(anyString());
     }
 
     @Test
@@ -166,14 +172,9 @@ public class InvoiceServiceTest {
     @Test
     void testFetchAllInvoicesByApartmentId_Success_DepartmentFee() {
         // Mock data
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.of(apartment));
-        InvoiceApartmentResponse response = new InvoiceApartmentResponse(
-                "INV001", "Monthly Invoice", "Monthly fees", invoice.getUpdatedAt(),
-                LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, null
-        );
-        when(invoiceApartmentRepository.findInvoicesByApartmentId(1L)).thenReturn(Arrays.asList(response));
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.of(billingSummary));
+        when(invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(1L)).thenReturn(Arrays.asList(feeRow(PaymentEnum.Unpaid)));
+        when(invoiceApartmentRepository.findFeeAmountsByApartmentId(1L)).thenReturn(feeAmountRows());
 
         // Call method
         List<InvoiceApartmentResponse> result = invoiceService.fetchAllInvoicesByApartmentId(1L);
@@ -187,25 +188,22 @@ public class InvoiceServiceTest {
         assertEquals("Department Fee", result.get(0).getFeeList().get(0).getName());
         // Kiểm tra amount (DepartmentFee based on area: 1000 * 50)
         assertEquals(50000.0, result.get(0).getFeeList().get(0).getAmount(), 0.01);
-        verify(apartmentRepository).findById(1L);
-        verify(invoiceApartmentRepository).findInvoicesByApartmentId(1L);
-        verify(feeInvoiceRepository).findFeesByInvoiceId("INV001");
+        verify(apartmentRepository).findBillingSummaryById(1L);
+        verify(invoiceApartmentRepository).findInvoiceFeeRowsByApartmentId(1L);
+        verify(feeInvoiceRepository, never()).findFeesByInvoiceId(anyString());
     }
 
     @Test
     void testFetchAllInvoicesByApartmentId_Success_VehicleFee() {
         // Sửa fee thành VehicleFee
         fee.setFeeTypeEnum(FeeTypeEnum.VehicleFee);
+        // placeholder unit price of the old fee form, billed at the configured car rate
+        fee.setUnitPrice(BigDecimal.ONE);
 
         // Mock data
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.of(apartment));
-        InvoiceApartmentResponse response = new InvoiceApartmentResponse(
-                "INV001", "Monthly Invoice", "Monthly fees", invoice.getUpdatedAt(),
-                LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, null
-        );
-        when(invoiceApartmentRepository.findInvoicesByApartmentId(1L)).thenReturn(Arrays.asList(response));
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.of(billingSummary));
+        when(invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(1L)).thenReturn(Arrays.asList(feeRow(PaymentEnum.Unpaid)));
+        when(invoiceApartmentRepository.findFeeAmountsByApartmentId(1L)).thenReturn(feeAmountRows());
 
         // Call method
         List<InvoiceApartmentResponse> result = invoiceService.fetchAllInvoicesByApartmentId(1L);
@@ -216,9 +214,9 @@ public class InvoiceServiceTest {
         assertEquals(1, result.get(0).getFeeList().size());
         // Kiểm tra amount (VehicleFee: 1 car * 1,200,000 + 2 motorbikes * 70,000)
         assertEquals(1200000 + 2 * 70000, result.get(0).getFeeList().get(0).getAmount(), 0.01);
-        verify(apartmentRepository).findById(1L);
-        verify(invoiceApartmentRepository).findInvoicesByApartmentId(1L);
-        verify(feeInvoiceRepository).findFeesByInvoiceId("INV001");
+        verify(apartmentRepository).findBillingSummaryById(1L);
+        verify(invoiceApartmentRepository).findInvoiceFeeRowsByApartmentId(1L);
+        verify(feeInvoiceRepository, never()).findFeesByInvoiceId(anyString());
     }
 
     @Test
@@ -227,14 +225,9 @@ public class InvoiceServiceTest {
         fee.setFeeTypeEnum(FeeTypeEnum.ContributionFund);
 
         // Mock data
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.of(apartment));
-        InvoiceApartmentResponse response = new InvoiceApartmentResponse(
-                "INV001", "Monthly Invoice", "Monthly fees", invoice.getUpdatedAt(),
-                LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, null
-        );
-        when(invoiceApartmentRepository.findInvoicesByApartmentId(1L)).thenReturn(Arrays.asList(response));
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.of(billingSummary));
+        when(invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(1L)).thenReturn(Arrays.asList(feeRow(PaymentEnum.Unpaid)));
+        when(invoiceApartmentRepository.findFeeAmountsByApartmentId(1L)).thenReturn(feeAmountRows());
 
         // Call method
         List<InvoiceApartmentResponse> result = invoiceService.fetchAllInvoicesByApartmentId(1L);
@@ -245,20 +238,36 @@ public class InvoiceServiceTest {
         assertEquals(1, result.get(0).getFeeList().size());
         // Kiểm tra amount (ContributionFund: lấy từ feeAmounts)
         assertEquals(500.0, result.get(0).getFeeList().get(0).getAmount(), 0.01);
-        verify(apartmentRepository).findById(1L);
-        verify(invoiceApartmentRepository).findInvoicesByApartmentId(1L);
-        verify(feeInvoiceRepository).findFeesByInvoiceId("INV001");
+        verify(apartmentRepository).findBillingSummaryById(1L);
+        verify(invoiceApartmentRepository).findInvoiceFeeRowsByApartmentId(1L);
+        verify(feeInvoiceRepository, never()).findFeesByInvoiceId(anyString());
+    }
+
+    @Test
+    void testFetchAllInvoicesByApartmentId_Success_FrozenLineAmount() {
+        // Invoice priced when the apartment was 40m2, the apartment is 50m2 now
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.of(billingSummary));
+        when(invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(1L)).thenReturn(Arrays.asList(
+                feeRow(PaymentEnum.Unpaid, Instant.parse("2025-05-01T00:00:00Z"), 40000.0)));
+        when(invoiceApartmentRepository.findFeeAmountsByApartmentId(1L)).thenReturn(feeAmountRows());
+
+        // Call method
+        List<InvoiceApartmentResponse> result = invoiceService.fetchAllInvoicesByApartmentId(1L);
+
+        // Assertions
+        assertEquals(1, result.size());
+        assertEquals(40000.0, result.get(0).getFeeList().get(0).getAmount(), 0.01);
     }
 
     @Test
     void testFetchAllInvoicesByApartmentId_NotFound() {
         // Mock data
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.empty());
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.empty());
 
         // Call method and expect exception
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> invoiceService.fetchAllInvoicesByApartmentId(1L));
         assertEquals("Not found apartment 1", exception.getMessage());
-        verify(apartmentRepository).findById(1L);
+        verify(apartmentRepository).findBillingSummaryById(1L);
     }
 
     @Test
@@ -269,16 +278,13 @@ public class InvoiceServiceTest {
         // Mock data
         Map<Long, Double> feeAmounts = new HashMap<>();
         feeAmounts.put(1L, 600.0);
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(invoiceApartmentRepository.save(any(InvoiceApartment.class))).thenReturn(invoiceApartment);
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.of(apartment));
-        InvoiceApartmentResponse response = new InvoiceApartmentResponse(
-                "INV001", "Monthly Invoice", "Monthly fees", invoice.getUpdatedAt(),
-                LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, null
-        );
-        when(invoiceApartmentRepository.findInvoicesByApartmentId(1L)).thenReturn(Arrays.asList(response));
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(invoiceApartmentRepository.touch("INV001", 1L)).thenReturn(1);
+        when(invoiceApartmentRepository.findInvoiceFeeRows("INV001", 1L)).thenReturn(Arrays.asList(feeRow(PaymentEnum.Unpaid)));
+        when(invoiceApartmentFeeRepository.findAmounts(1L)).thenReturn(Map.of(1L, 500.0));
+        when(apartmentRepository.findBillingSummaryById(1L)).thenReturn(Optional.of(billingSummary));
+        when(invoiceApartmentRepository.findInvoiceFeeRowsByApartmentId(1L)).thenReturn(Arrays.asList(feeRow(PaymentEnum.Unpaid)));
+        when(invoiceApartmentRepository.findFeeAmountsByApartmentId(1L)).thenReturn(List.of(new InvoiceFeeAmountRow(1L, 1L, 600.0)));
+        when(feeCatalog.feesOf("INV001")).thenReturn(List.of(fee));
 
         // Call method
         List<InvoiceApartmentResponse> result = invoiceService.updateContributionFund(1L, "INV001", feeAmounts);
@@ -287,8 +293,66 @@ public class InvoiceServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(600.0, result.get(0).getFeeList().get(0).getAmount(), 0.01); // Updated contribution amount
-        verify(invoiceApartmentRepository, times(2)).findByInvoiceIdAndApartmentAddressNumber("INV001", 1L); // Cho phép gọi 2 lần
-        verify(invoiceApartmentRepository).save(any(InvoiceApartment.class));
+        verify(invoiceApartmentFeeRepository).upsert(1L, Map.of(1L, 500.0), feeAmounts);
+        verify(invoiceTotalsService).recordContribution("INV001", PaymentEnum.Unpaid, 10000L); // 500 -> 600, in minor units
+    }
+
+    @Test
+    void testUpdateContributionFundLine_ReturnsOnlyChangedInvoice() {
+        fee.setFeeTypeEnum(FeeTypeEnum.ContributionFund);
+        when(invoiceApartmentRepository.touch("INV001", 1L)).thenReturn(1);
+        when(invoiceApartmentRepository.findInvoiceFeeRows("INV001", 1L))
+                .thenReturn(Arrays.asList(feeRow(PaymentEnum.Paid, Instant.now(), null)));
+        when(invoiceApartmentFeeRepository.findAmounts(1L)).thenReturn(Map.of());
+        when(feeCatalog.feesOf("INV001")).thenReturn(List.of(fee));
+
+        InvoiceApartmentResponse result = invoiceService.updateContributionFundLine(1L, "INV001", Map.of(1L, 250.0));
+
+        assertEquals("INV001", result.getId());
+        assertEquals(250.0, result.getFeeList().get(0).getAmount(), 0.01);
+        verify(invoiceApartmentFeeRepository).upsert(1L, Map.of(), Map.of(1L, 250.0));
+        verify(invoiceTotalsService).recordContribution("INV001", PaymentEnum.Paid, 25000L);
+        // frozen invoice: neither the apartment nor its other invoices are read
+        verify(apartmentRepository, never()).findBillingSummaryById(anyLong());
+        verify(invoiceApartmentRepository, never()).findInvoiceFeeRowsByApartmentId(anyLong());
+    }
+
+    @Test
+    void testUpdateContributionFundLine_NotFound() {
+        when(invoiceApartmentRepository.touch("INV001", 1L)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> invoiceService.updateContributionFundLine(1L, "INV001", Map.of(1L, 250.0)));
+        verifyNoInteractions(invoiceApartmentFeeRepository);
+    }
+
+    @Test
+    void testPayAndUpdateContributionFund_PaysThenMergesLine() {
+        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
+        when(invoiceApartmentRepository.findById(1L)).thenReturn(Optional.of(invoiceApartment));
+        when(invoiceApartmentRepository.save(any(InvoiceApartment.class))).thenReturn(invoiceApartment);
+        when(invoiceApartmentRepository.touch("INV001", 1L)).thenReturn(1);
+        when(invoiceApartmentRepository.findInvoiceFeeRows("INV001", 1L))
+                .thenReturn(Arrays.asList(feeRow(PaymentEnum.Paid, Instant.now(), null)));
+        when(invoiceApartmentFeeRepository.findAmounts(1L)).thenReturn(Map.of());
+        when(feeCatalog.feesOf("INV001")).thenReturn(List.of(fee));
+
+        Object result = invoiceService.payAndUpdateContributionFund(1L, "INV001", Map.of(1L, 250.0), false);
+
+        assertEquals("INV001", ((InvoiceApartmentResponse) result).getId());
+        assertEquals(PaymentEnum.Paid, invoiceApartment.getPaymentStatus());
+        verify(invoiceTotalsService).recordPayments(List.of(1L));
+        verify(invoiceApartmentFeeRepository).upsert(1L, Map.of(), Map.of(1L, 250.0));
+    }
+
+    @Test
+    void testPayAndUpdateContributionFund_NotFound() {
+        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(null);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> invoiceService.payAndUpdateContributionFund(1L, "INV001", Map.of(1L, 250.0), false));
+        assertEquals("Not found invoice INV001 of apartment 1", exception.getMessage());
+        verify(invoiceApartmentRepository, never()).save(any());
+        verifyNoInteractions(invoiceApartmentFeeRepository, invoiceTotalsService);
     }
 
     @Test
@@ -305,6 +369,7 @@ public class InvoiceServiceTest {
         assertEquals(PaymentEnum.Paid, result.getPaymentStatus());
         verify(invoiceApartmentRepository).findById(1L);
         verify(invoiceApartmentRepository).save(any(InvoiceApartment.class));
+        verify(invoiceTotalsService).recordPayments(List.of(1L));
     }
 
     @Test
@@ -367,10 +432,8 @@ public class InvoiceServiceTest {
         when(invoiceRepository.findById("INV001")).thenReturn(Optional.empty())
                 .thenReturn(Optional.of(invoice)); // Lần thứ hai trả về invoice để lấy updatedAt
         when(invoiceRepository.save(any(Invoice.class))).thenReturn(invoice);
-        when(feeRepository.findAllById(anyList())).thenReturn(Arrays.asList(fee));
-        when(feeInvoiceRepository.save(any(FeeInvoice.class))).thenReturn(new FeeInvoice());
-        when(apartmentRepository.findAll()).thenReturn(Arrays.asList(apartment));
-        when(invoiceApartmentRepository.save(any(InvoiceApartment.class))).thenReturn(invoiceApartment);
+        when(feeInvoiceRepository.insertForInvoice("INV001", List.of(1L))).thenReturn(1);
+        when(invoiceApartmentRepository.insertForAllApartments("INV001", PaymentEnum.Unpaid.ordinal())).thenReturn(30);
         when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
 
         // Call method
@@ -389,8 +452,12 @@ public class InvoiceServiceTest {
         assertEquals(1, result.getFeeList().size());
         verify(invoiceRepository, times(1)).findById("INV001");
         verify(invoiceRepository).save(any(Invoice.class));
-        verify(feeInvoiceRepository, atLeastOnce()).save(any(FeeInvoice.class));
-        verify(invoiceApartmentRepository, atLeastOnce()).save(any(InvoiceApartment.class));
+        verify(feeInvoiceRepository).insertForInvoice("INV001", List.of(1L));
+        verify(invoiceApartmentRepository).insertForAllApartments("INV001", PaymentEnum.Unpaid.ordinal());
+        // Bulk issuance never loads apartments nor saves rows one by one
+        verify(apartmentRepository, never()).findAll();
+        verify(feeInvoiceRepository, never()).save(any(FeeInvoice.class));
+        verify(invoiceApartmentRepository, never()).save(any(InvoiceApartment.class));
     }
 
     @Test
@@ -421,30 +488,15 @@ public class InvoiceServiceTest {
     }
 
     @Test
-    void testGetAllTotalInvoices_Success() {
-        // Mock data
-        when(apartmentRepository.findAll()).thenReturn(Arrays.asList(apartment));
-        when(apartmentRepository.findById(1L)).thenReturn(Optional.of(apartment));
-        InvoiceApartmentResponse response = new InvoiceApartmentResponse(
-                "INV001", "Monthly Invoice", "Monthly fees", invoice.getUpdatedAt(),
-                LocalDate.of(2025, 5, 30), PaymentEnum.Paid, null
-        );
-        when(invoiceApartmentRepository.findInvoicesByApartmentId(1L)).thenReturn(Arrays.asList(response));
-        when(invoiceApartmentRepository.findByInvoiceIdAndApartmentAddressNumber("INV001", 1L)).thenReturn(invoiceApartment);
-        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+    void testGetAllTotalInvoices_ReadsReadModel() {
+        TotalInvoiceResponse total = new TotalInvoiceResponse("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30),
+                1000.0, 500.0, 0.0, 2, 1);
+        when(invoiceTotalsService.findAll()).thenReturn(List.of(total));
 
-        // Call method
         List<TotalInvoiceResponse> result = invoiceService.getAllTotalInvoices();
 
-        // Assertions
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("INV001", result.get(0).getId());
-        assertEquals(50000.0, result.get(0).getTotalAmount(), 0.01);
-        assertEquals(50000.0, result.get(0).getPaidAmount(), 0.01);
-        assertEquals(0.0, result.get(0).getContributionAmount(), 0.01);
-        verify(apartmentRepository).findAll();
-        verify(apartmentRepository).findById(1L);
+        assertEquals(List.of(total), result);
+        verifyNoInteractions(invoiceApartmentRepository);
     }
 
     @Test
@@ -468,6 +520,8 @@ public class InvoiceServiceTest {
         verify(invoiceRepository).save(any(Invoice.class));
         verify(feeInvoiceRepository).deleteByInvoiceId("INV001");
         verify(feeInvoiceRepository, atLeastOnce()).save(any(FeeInvoice.class));
+        // Same fees as before, so the frozen amounts are kept
+        verify(invoiceApartmentLineRepository, never()).deleteUnpaidByInvoiceId(anyString());
     }
 
     @Test
@@ -512,4 +566,52 @@ public class InvoiceServiceTest {
         assertEquals("Invoice with code = INV001 is not found", exception.getMessage());
         verify(invoiceRepository).findById("INV001");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRecalculateInvoice_Success() {
+        // Mock data
+        when(invoiceRepository.findById("INV001")).thenReturn(Optional.of(invoice));
+        when(feeInvoiceRepository.findFeesByInvoiceId("INV001")).thenReturn(Arrays.asList(fee));
+        when(invoiceApartmentRepository.findUnpaidBillingRowsByInvoiceId("INV001")).thenReturn(Arrays.asList(
+                new InvoiceApartmentBillingRow(1L, 50.0, 1L, 2L),
+                new InvoiceApartmentBillingRow(2L, 80.0, 0L, 0L)));
+
+        // Call method
+        ApiResponse<String> response = invoiceService.recalculateInvoice("INV001");
+
+        // Assertions
+        assertEquals(HttpStatus.OK.value(), response.getCode());
+        assertEquals("2 apartments priced", response.getData());
+        verify(invoiceApartmentLineRepository).deleteUnpaidByInvoiceId("INV001");
+        verify(invoiceApartmentLineRepository).insertLines(aryEq(new long[]{1L, 2L}), eq(1L), aryEq(new double[]{50000.0, 80000.0}));
+        verify(invoiceApartmentRepository).markUnpaidPriced(eq("INV001"), any(Instant.class));
+    }
+
+    @Test
+    void testRecalculateInvoice_NotFound() {
+        // Mock data
+        when(invoiceRepository.findById("INV001")).thenReturn(Optional.empty());
+
+        // Call method and expect exception
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> invoiceService.recalculateInvoice("INV001"));
+        assertEquals("Invoice with code = INV001 is not found", exception.getMessage());
+        verify(invoiceApartmentLineRepository, never()).deleteUnpaidByInvoiceId(anyString());
+    }
+
+    // One (invoice, fee) row of apartment 1 built from the shared invoice and fee
+    private ApartmentInvoiceFeeRow feeRow(PaymentEnum paymentStatus) {
+        return feeRow(paymentStatus, null, null);
+    }
+
+    private ApartmentInvoiceFeeRow feeRow(PaymentEnum paymentStatus, Instant pricedAt, Double lineAmount) {
+        return new ApartmentInvoiceFeeRow(invoiceApartment.getId(), "INV001", "Monthly Invoice", "Monthly fees",
+                invoice.getUpdatedAt(), LocalDate.of(2025, 5, 30), paymentStatus, pricedAt,
+                fee.getId(), fee.getName(), fee.getFeeTypeEnum(), fee.getUnitPrice(), lineAmount);
+    }
+
+    private List<InvoiceFeeAmountRow> feeAmountRows() {
+        return invoiceApartment.getFeeAmounts().entrySet().stream()
+                .map(entry -> new InvoiceFeeAmountRow(invoiceApartment.getId(), entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
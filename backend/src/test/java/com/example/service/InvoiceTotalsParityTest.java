@@ -0,0 +1,259 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.PaymentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.request.BulkPaymentRequest;
+import com.example.dto.request.InvoiceRequest;
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.*;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.InvoiceApartmentFeeRepository;
+import com.example.repository.InvoiceApartmentLineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs both total computations against the same H2 data and compares them invoice by invoice
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({InvoiceService.class, InvoiceTotalsService.class, InvoiceApartmentLineRepository.class, InvoiceApartmentFeeRepository.class, PageTotals.class, FeeCatalog.class})
+@ComponentScan("com.example.service.fee")
+public class InvoiceTotalsParityTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private InvoiceTotalsService invoiceTotalsService;
+
+    @Autowired
+    private FeeCatalog feeCatalog;
+
+    private Long contributionFeeId;
+    private Long departmentFeeId;
+    private Long vehicleFeeId;
+
+    @BeforeEach
+    void setUp() {
+        Fee departmentFee = fee("Department Fee", FeeTypeEnum.DepartmentFee, 7000);
+        Fee vehicleFee = fee("Vehicle Fee", FeeTypeEnum.VehicleFee, 1);
+        Fee contributionFee = fee("Flood relief", FeeTypeEnum.ContributionFund, 0);
+        contributionFeeId = contributionFee.getId();
+        departmentFeeId = departmentFee.getId();
+        vehicleFeeId = vehicleFee.getId();
+        Fee otherContributionFee = fee("Children fund", FeeTypeEnum.ContributionFund, 0);
+
+        List<Apartment> apartments = new ArrayList<>();
+        for (long i = 1; i <= 6; i++) {
+            Apartment apartment = Apartment.builder()
+                    .addressNumber(100 + i)
+                    .area(40.5 + i * 7.25)
+                    .status(ApartmentEnum.Residential)
+                    .build();
+            entityManager.persist(apartment);
+            for (int v = 0; v < i % 3; v++) {
+                entityManager.persist(Vehicle.builder().id("CAR-" + i + "-" + v).category(VehicleEnum.Car).apartment(apartment).build());
+            }
+            for (int v = 0; v < i % 4; v++) {
+                entityManager.persist(Vehicle.builder().id("BIKE-" + i + "-" + v).category(VehicleEnum.Motorbike).apartment(apartment).build());
+            }
+            apartments.add(apartment);
+        }
+
+        // Monthly invoice billed to every apartment, half of them paid
+        Invoice monthly = invoice("INV-2025-05", departmentFee, vehicleFee);
+        for (Apartment apartment : apartments) {
+            invoiceApartment(monthly, apartment,
+                    apartment.getAddressNumber() % 2 == 0 ? PaymentEnum.Paid : PaymentEnum.Unpaid, null);
+        }
+
+        // Contribution invoice billed to two apartments, one amount recorded for a fee not on the invoice
+        Invoice contribution = invoice("INV-FUND", contributionFee, departmentFee);
+        invoiceApartment(contribution, apartments.get(0), PaymentEnum.Paid,
+                Map.of(contributionFee.getId(), 250000.0, otherContributionFee.getId(), 99.0));
+        invoiceApartment(contribution, apartments.get(3), PaymentEnum.Unpaid,
+                Map.of(contributionFee.getId(), 125000.5));
+
+        entityManager.flush();
+        entityManager.clear();
+        // fees were inserted directly, a catalog snapshot of an earlier test would not know them
+        feeCatalog.invalidate();
+    }
+
+    @Test
+    void testGetAllTotalInvoices_MatchesPerApartmentComputation() {
+        Map<String, TotalInvoiceResponse> expected = byId(PerApartmentInvoiceTotals.compute(invoiceService, apartmentRepository.findAll()));
+        entityManager.clear();
+        // rows were inserted directly, so the read model only has them after a rebuild
+        assertEquals(List.of("INV-2025-05", "INV-FUND"), invoiceTotalsService.rebuild(false).getDrifted());
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, TotalInvoiceResponse> actual = byId(invoiceService.getAllTotalInvoices());
+
+        assertEquals(Set.of("INV-2025-05", "INV-FUND"), expected.keySet());
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((id, want) -> {
+            TotalInvoiceResponse got = actual.get(id);
+            assertEquals(want.getName(), got.getName());
+            assertEquals(want.getCreateDate(), got.getCreateDate());
+            assertEquals(want.getTotalAmount(), got.getTotalAmount(), 0.01);
+            assertEquals(want.getPaidAmount(), got.getPaidAmount(), 0.01);
+            assertEquals(want.getContributionAmount(), got.getContributionAmount(), 0.01);
+        });
+        assertEquals(6, actual.get("INV-2025-05").getApartmentCount());
+        assertEquals(3, actual.get("INV-2025-05").getUnpaidCount());
+        assertTrue(invoiceTotalsService.rebuild(true).getDrifted().isEmpty());
+    }
+
+    @Test
+    void testRecalculateInvoice_FreezesAmounts() {
+        invoiceService.recalculateInvoice("INV-2025-05");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Frozen amounts match the live computation they were priced from
+        Map<String, TotalInvoiceResponse> expected = byId(PerApartmentInvoiceTotals.compute(invoiceService, apartmentRepository.findAll()));
+        entityManager.clear();
+        Map<String, TotalInvoiceResponse> frozen = byId(invoiceService.getAllTotalInvoices());
+        assertEquals(expected.get("INV-2025-05").getTotalAmount(), frozen.get("INV-2025-05").getTotalAmount(), 0.01);
+        assertEquals(expected.get("INV-2025-05").getPaidAmount(), frozen.get("INV-2025-05").getPaidAmount(), 0.01);
+
+        // A vehicle registered afterwards does not change the issued invoice, only the live one
+        Apartment apartment = entityManager.find(Apartment.class, 101L);
+        entityManager.persist(Vehicle.builder().id("CAR-NEW").category(VehicleEnum.Car).apartment(apartment).build());
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, TotalInvoiceResponse> after = byId(invoiceService.getAllTotalInvoices());
+        assertEquals(frozen.get("INV-2025-05").getTotalAmount(), after.get("INV-2025-05").getTotalAmount(), 0.01);
+
+        // Recalculating picks the new vehicle up
+        invoiceService.recalculateInvoice("INV-2025-05");
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, TotalInvoiceResponse> recalculated = byId(invoiceService.getAllTotalInvoices());
+        assertEquals(frozen.get("INV-2025-05").getTotalAmount() + 1200000, recalculated.get("INV-2025-05").getTotalAmount(), 0.01);
+    }
+
+    @Test
+    void testIncrementalUpdates_MatchRebuild() {
+        invoiceService.recalculateInvoice("INV-2025-05");
+        invoiceService.recalculateInvoice("INV-FUND");
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> unpaid = entityManager.getEntityManager()
+                .createQuery("SELECT ia.id FROM InvoiceApartment ia WHERE ia.paymentStatus = com.example.constant.PaymentEnum.Unpaid " +
+                        "AND ia.invoice.id = 'INV-2025-05' ORDER BY ia.id", Long.class)
+                .getResultList();
+
+        invoiceService.payInvoiceApartments(new BulkPaymentRequest(unpaid.subList(0, 2), null));
+        invoiceService.updateInvoiceApartment(unpaid.get(2));
+        invoiceService.updateContributionFund(104L, "INV-FUND", Map.of(contributionFeeId, 130000.0));
+        entityManager.flush();
+        entityManager.clear();
+
+        TotalInvoiceResponse monthly = byId(invoiceService.getAllTotalInvoices()).get("INV-2025-05");
+        assertEquals(0, monthly.getUnpaidCount());
+        assertEquals(monthly.getTotalAmount(), monthly.getPaidAmount(), 0.01);
+        assertEquals(250000.0 + 130000.0, byId(invoiceService.getAllTotalInvoices()).get("INV-FUND").getContributionAmount(), 0.01);
+        assertTrue(invoiceTotalsService.rebuild(true).getDrifted().isEmpty());
+    }
+
+    @Test
+    void testUpdateInvoice_RepricesUnpaidRowsOnlyWhenFeesChange() {
+        invoiceService.recalculateInvoice("INV-2025-05");
+        entityManager.flush();
+        entityManager.clear();
+        Long paidRow = entityManager.getEntityManager()
+                .createQuery("SELECT ia.id FROM InvoiceApartment ia WHERE ia.invoice.id = 'INV-2025-05' AND ia.apartment.addressNumber = 101", Long.class)
+                .getSingleResult();
+        invoiceService.payInvoiceApartments(new BulkPaymentRequest(List.of(paidRow), null));
+        entityManager.flush();
+        entityManager.clear();
+        double paidLines = lineTotal(101L);
+        double unpaidLines = lineTotal(103L);
+
+        // A rename keeps every frozen amount, even with a vehicle registered since issuance
+        Apartment apartment = entityManager.find(Apartment.class, 103L);
+        entityManager.persist(Vehicle.builder().id("CAR-NEW").category(VehicleEnum.Car).apartment(apartment).build());
+        entityManager.flush();
+        entityManager.clear();
+        invoiceService.updateInvoice(InvoiceRequest.builder().invoiceId("INV-2025-05").name("Renamed")
+                .feeIds(List.of(vehicleFeeId, departmentFeeId)).build());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(paidLines, lineTotal(101L), 0.01);
+        assertEquals(unpaidLines, lineTotal(103L), 0.01);
+
+        // Dropping the vehicle fee prices the unpaid rows again; the paid row keeps what was paid
+        invoiceService.updateInvoice(InvoiceRequest.builder().invoiceId("INV-2025-05").name("Renamed")
+                .feeIds(List.of(departmentFeeId)).build());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(paidLines, lineTotal(101L), 0.01);
+        assertEquals(7000 * (40.5 + 3 * 7.25), lineTotal(103L), 0.01);
+        // the fund invoice was inserted directly and never went through the service
+        assertEquals(List.of("INV-FUND"), invoiceTotalsService.rebuild(true).getDrifted());
+    }
+
+    // Sum of the frozen line amounts of one apartment on the monthly invoice
+    private double lineTotal(Long apartmentId) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT COALESCE(SUM(VALUE(la)), 0.0) FROM InvoiceApartment ia JOIN ia.lineAmounts la " +
+                        "WHERE ia.invoice.id = 'INV-2025-05' AND ia.apartment.addressNumber = :apartmentId", Double.class)
+                .setParameter("apartmentId", apartmentId)
+                .getSingleResult();
+    }
+
+    private Map<String, TotalInvoiceResponse> byId(List<TotalInvoiceResponse> responses) {
+        return responses.stream().collect(Collectors.toMap(TotalInvoiceResponse::getId, Function.identity()));
+    }
+
+    private Fee fee(String name, FeeTypeEnum type, long unitPrice) {
+        Fee fee = new Fee();
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(BigDecimal.valueOf(unitPrice));
+        return entityManager.persist(fee);
+    }
+
+    private Invoice invoice(String id, Fee... fees) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setName("Invoice " + id);
+        entityManager.persist(invoice);
+        for (Fee fee : fees) {
+            FeeInvoice feeInvoice = new FeeInvoice();
+            feeInvoice.setFee(fee);
+            feeInvoice.setInvoice(invoice);
+            entityManager.persist(feeInvoice);
+        }
+        return invoice;
+    }
+
+    private void invoiceApartment(Invoice invoice, Apartment apartment, PaymentEnum status, Map<Long, Double> feeAmounts) {
+        InvoiceApartment invoiceApartment = new InvoiceApartment();
+        invoiceApartment.setInvoice(invoice);
+        invoiceApartment.setApartment(apartment);
+        invoiceApartment.setPaymentStatus(status);
+        invoiceApartment.setFeeAmounts(feeAmounts == null ? new HashMap<>() : new HashMap<>(feeAmounts));
+        entityManager.persist(invoiceApartment);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.service;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.PaymentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.projection.InvoiceAmountSummary;
+import com.example.dto.projection.InvoiceAreaSummary;
+import com.example.dto.projection.InvoiceVehicleSummary;
+import com.example.dto.projection.UnpaidInvoiceSummary;
+import com.example.dto.response.InvoiceTotalsRebuildResponse;
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.Fee;
+import com.example.entity.InvoiceTotals;
+import com.example.repository.InvoiceApartmentRepository;
+import com.example.repository.InvoiceTotalsRepository;
+import com.example.service.fee.ContributionFundStrategy;
+import com.example.service.fee.DepartmentFeeStrategy;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.fee.VehicleFeeStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InvoiceTotalsServiceTest {
+
+    @Mock
+    private InvoiceApartmentRepository invoiceApartmentRepository;
+
+    @Mock
+    private InvoiceTotalsRepository invoiceTotalsRepository;
+
+    @Mock
+    private FeeCatalog feeCatalog;
+
+    @Spy
+    private FeeCalculator feeCalculator = new FeeCalculator(List.of(
+            new DepartmentFeeStrategy(), new VehicleFeeStrategy(BigDecimal.valueOf(1200000), BigDecimal.valueOf(70000)), new ContributionFundStrategy()));
+
+    @InjectMocks
+    private InvoiceTotalsService invoiceTotalsService;
+
+    private Fee fee;
+
+    @BeforeEach
+    void setUp() {
+        fee = new Fee();
+        fee.setId(1L);
+        fee.setName("Department Fee");
+        fee.setFeeTypeEnum(FeeTypeEnum.DepartmentFee);
+        fee.setUnitPrice(BigDecimal.valueOf(1000));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testCompute_Success() {
+        // Mock data: one paid apartment of 50m2 with 1 car and 2 motorbikes, one unpaid apartment of 30m2
+        Fee vehicleFee = new Fee();
+        vehicleFee.setId(2L);
+        vehicleFee.setFeeTypeEnum(FeeTypeEnum.VehicleFee);
+        when(feeCatalog.snapshot()).thenReturn(snapshot(Map.of("INV001", List.of(fee, vehicleFee))));
+        when(invoiceApartmentRepository.sumAreaByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Arrays.asList(
+                new InvoiceAreaSummary("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30), PaymentEnum.Paid, 50.0, 1L),
+                new InvoiceAreaSummary("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, 30.0, 1L)
+        ));
+        when(invoiceApartmentRepository.countVehiclesByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Arrays.asList(
+                new InvoiceVehicleSummary("INV001", PaymentEnum.Paid, VehicleEnum.Car, 1L),
+                new InvoiceVehicleSummary("INV001", PaymentEnum.Paid, VehicleEnum.Motorbike, 2L)
+        ));
+        when(invoiceApartmentRepository.sumContributionsByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Collections.emptyList());
+
+        // Call method
+        Map<String, TotalInvoiceResponse> result = invoiceTotalsService.compute(List.of("INV001"));
+
+        // Assertions
+        assertEquals(1, result.size());
+        TotalInvoiceResponse total = result.get("INV001");
+        assertEquals("Monthly Invoice", total.getName());
+        assertEquals(80000.0 + 1200000 + 2 * 70000, total.getTotalAmount(), 0.01);
+        assertEquals(50000.0 + 1200000 + 2 * 70000, total.getPaidAmount(), 0.01);
+        assertEquals(0.0, total.getContributionAmount(), 0.01);
+        assertEquals(2, total.getApartmentCount());
+        assertEquals(1, total.getUnpaidCount());
+    }
+
+    @Test
+    void testCompute_ContributionFund() {
+        // Mock data
+        fee.setFeeTypeEnum(FeeTypeEnum.ContributionFund);
+        when(feeCatalog.snapshot()).thenReturn(snapshot(Map.of("INV001", List.of(fee))));
+        when(invoiceApartmentRepository.sumAreaByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Arrays.asList(
+                new InvoiceAreaSummary("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, 50.0, 1L)
+        ));
+        when(invoiceApartmentRepository.countVehiclesByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Collections.emptyList());
+        when(invoiceApartmentRepository.sumContributionsByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(Arrays.asList(
+                new InvoiceAmountSummary("INV001", PaymentEnum.Unpaid, 500.0)
+        ));
+
+        // Call method
+        TotalInvoiceResponse total = invoiceTotalsService.compute(List.of("INV001")).get("INV001");
+
+        // Assertions
+        assertEquals(500.0, total.getTotalAmount(), 0.01);
+        assertEquals(0.0, total.getPaidAmount(), 0.01);
+        assertEquals(500.0, total.getContributionAmount(), 0.01);
+    }
+
+    @Test
+    void testRecordPayments_AppliesDelta() {
+        List<Long> ids = List.of(1L, 2L);
+        when(invoiceApartmentRepository.sumUnpaidLineAmountsByIds(ids)).thenReturn(List.of(
+                new InvoiceAmountSummary("INV001", PaymentEnum.Unpaid, 3000.0)));
+        when(invoiceApartmentRepository.sumUnpaidContributionsByIds(ids)).thenReturn(List.of(
+                new InvoiceAmountSummary("INV001", PaymentEnum.Unpaid, 250.0)));
+        when(invoiceApartmentRepository.countUnpaidByIds(ids)).thenReturn(List.of(new UnpaidInvoiceSummary("INV001", 2L, 0L)));
+        when(invoiceTotalsRepository.addDelta(eq("INV001"), eq(0.0), eq(3250.0), eq(0.0), eq(-2L), any())).thenReturn(1);
+
+        invoiceTotalsService.recordPayments(ids);
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void testRecordPayments_UnpricedRows_RefreshBeforeCommit() {
+        List<Long> ids = List.of(1L);
+        when(invoiceApartmentRepository.countUnpaidByIds(ids)).thenReturn(List.of(new UnpaidInvoiceSummary("INV001", 1L, 1L)));
+
+        invoiceTotalsService.recordPayments(ids);
+
+        verify(invoiceTotalsRepository, never()).addDelta(anyString(), anyDouble(), anyDouble(), anyDouble(), anyLong(), any());
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    void testRecordContribution_PaidApartment() {
+        when(invoiceTotalsRepository.addDelta(eq("INV001"), eq(100.0), eq(100.0), eq(100.0), eq(0L), any())).thenReturn(1);
+
+        invoiceTotalsService.recordContribution("INV001", PaymentEnum.Paid, 10000L);
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void testRebuild_ReportsDrift() {
+        fee.setFeeTypeEnum(FeeTypeEnum.ContributionFund);
+        when(feeCatalog.snapshot()).thenReturn(snapshot(Map.of("INV001", List.of(fee))));
+        when(invoiceApartmentRepository.findBilledInvoiceIds()).thenReturn(List.of("INV001"));
+        when(invoiceApartmentRepository.sumAreaByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(List.of(
+                new InvoiceAreaSummary("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30), PaymentEnum.Unpaid, 50.0, 1L)));
+        when(invoiceApartmentRepository.sumContributionsByInvoiceAndPaymentStatus(List.of("INV001"))).thenReturn(List.of(
+                new InvoiceAmountSummary("INV001", PaymentEnum.Unpaid, 500.0)));
+        InvoiceTotals stale = new InvoiceTotals("INV001", "Monthly Invoice", LocalDate.of(2025, 5, 30));
+        stale.setTotalAmount(400.0);
+        InvoiceTotals removed = new InvoiceTotals("INV002", "Old Invoice", LocalDate.of(2025, 4, 30));
+        when(invoiceTotalsRepository.findAll()).thenReturn(List.of(stale, removed));
+
+        InvoiceTotalsRebuildResponse dryRun = invoiceTotalsService.rebuild(true);
+
+        assertEquals(List.of("INV001", "INV002"), dryRun.getDrifted());
+        assertEquals(400.0, stale.getTotalAmount(), 0.01);
+        verify(invoiceTotalsRepository, never()).saveAll(any());
+
+        invoiceTotalsService.rebuild(false);
+
+        assertEquals(500.0, stale.getTotalAmount(), 0.01);
+        assertEquals(1, stale.getUnpaidCount());
+        verify(invoiceTotalsRepository).saveAll(List.of(stale));
+        verify(invoiceTotalsRepository).deleteAll(List.of(removed));
+    }
+
+    private FeeCatalog.Snapshot snapshot(Map<String, List<Fee>> feesByInvoice) {
+        return new FeeCatalog.Snapshot(0, Map.of(), feesByInvoice);
+    }
+}
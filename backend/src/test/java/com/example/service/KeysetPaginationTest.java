@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.constant.PaymentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.response.PaginatedResponse;
+import com.example.entity.UtilityBill;
+import com.example.entity.Vehicle;
+import com.example.repository.UtilityBillRepository;
+import com.example.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Walks whole tables page by page with the "after" cursor
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+public class KeysetPaginationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UtilityBillRepository utilityBillRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 23; i++) {
+            entityManager.persist(UtilityBill.builder()
+                    .name("Bill " + i)
+                    .electricity(i)
+                    .paymentStatus(i % 3 == 0 ? PaymentEnum.Paid : PaymentEnum.Unpaid)
+                    .build());
+        }
+        for (int i = 0; i < 7; i++) {
+            entityManager.persist(Vehicle.builder().id("29A-" + (char) ('G' - i)).category(VehicleEnum.Car).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testScroll_VisitsEveryRowOnceInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        String after = "";
+        int pages = 0;
+        do {
+            PaginatedResponse<UtilityBill> page = KeysetPagination.scroll(utilityBillRepository, null,
+                    "id", Long.class, after, 5, bill -> bill);
+            page.getResult().forEach(bill -> ids.add(bill.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(5, pages);
+        assertEquals(23, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    @Test
+    void testScroll_AppliesSpecification() {
+        Specification<UtilityBill> unpaid = (root, query, cb) -> cb.equal(root.get("paymentStatus"), PaymentEnum.Unpaid);
+
+        PaginatedResponse<UtilityBill> first = KeysetPagination.scroll(utilityBillRepository, unpaid,
+                "id", Long.class, "", 10, bill -> bill);
+        PaginatedResponse<UtilityBill> second = KeysetPagination.scroll(utilityBillRepository, unpaid,
+                "id", Long.class, first.getNextCursor(), 10, bill -> bill);
+
+        assertEquals(10, first.getResult().size());
+        assertEquals(5, second.getResult().size());
+        assertTrue(first.getHasNext());
+        assertFalse(second.getHasNext());
+        assertNull(second.getNextCursor());
+        assertTrue(second.getResult().stream().allMatch(bill -> bill.getPaymentStatus() == PaymentEnum.Unpaid));
+        assertEquals(0, first.getTotalElements()); // no count query in cursor mode
+    }
+
+    @Test
+    void testScroll_StringId() {
+        PaginatedResponse<String> first = KeysetPagination.scroll(vehicleRepository, null,
+                "id", String.class, "", 4, Vehicle::getId);
+        PaginatedResponse<String> second = KeysetPagination.scroll(vehicleRepository, null,
+                "id", String.class, first.getNextCursor(), 4, Vehicle::getId);
+
+        assertEquals(List.of("29A-A", "29A-B", "29A-C", "29A-D"), first.getResult());
+        assertEquals(List.of("29A-E", "29A-F", "29A-G"), second.getResult());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testDecode_InvalidCursor() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> KeysetPagination.decode("not-a-number", Long.class));
+        assertEquals("Invalid page cursor: not-a-number", exception.getMessage());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.service;
+
+import com.example.constant.PaymentEnum;
+import com.example.dto.request.PageCountRequest;
+import com.example.dto.response.PaginatedResponse;
+import com.example.entity.UtilityBill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(PageTotals.class)
+public class PageTotalsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PageTotals pageTotals;
+
+    private final Specification<UtilityBill> unpaid = (root, query, cb) -> cb.equal(root.get("paymentStatus"), PaymentEnum.Unpaid);
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            bill(i, i % 5 == 0 ? PaymentEnum.Paid : PaymentEnum.Unpaid);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testPage_Exact() {
+        PaginatedResponse<UtilityBill> page = pageTotals.page(UtilityBill.class, unpaid,
+                PageRequest.of(1, 6, Sort.by("id")), PageCountRequest.of("exact", "status:'Unpaid'"), "bills", bill -> bill);
+
+        assertEquals(20, page.getTotalElements()); // all matching rows, not the page size
+        assertEquals(4, page.getTotalPages());
+        assertEquals(6, page.getResult().size());
+        assertTrue(page.getHasNext());
+    }
+
+    @Test
+    void testPage_ExactCountIsCachedPerFilter() {
+        PageCountRequest count = PageCountRequest.of("exact", "status:'Unpaid'");
+        pageTotals.page(UtilityBill.class, unpaid, PageRequest.of(0, 5), count, "bills", bill -> bill);
+        bill(100, PaymentEnum.Unpaid);
+        entityManager.flush();
+
+        PaginatedResponse<UtilityBill> cached = pageTotals.page(UtilityBill.class, unpaid, PageRequest.of(0, 5),
+                count, "bills", bill -> bill);
+        PaginatedResponse<UtilityBill> otherFilter = pageTotals.page(UtilityBill.class, unpaid, PageRequest.of(0, 5),
+                PageCountRequest.of("exact", "status : 'Unpaid'"), "bills", bill -> bill);
+
+        assertEquals(20, cached.getTotalElements());
+        assertEquals(21, otherFilter.getTotalElements());
+    }
+
+    @Test
+    void testPage_None() {
+        PaginatedResponse<UtilityBill> page = pageTotals.page(UtilityBill.class, null,
+                PageRequest.of(0, 10), PageCountRequest.of("none", null), "bills", bill -> bill);
+
+        assertEquals(0, page.getTotalElements());
+        assertEquals(0, page.getTotalPages());
+        assertEquals(10, page.getResult().size());
+        assertTrue(page.getHasNext());
+    }
+
+    @Test
+    void testPage_LastPageNeedsNoCount() {
+        PaginatedResponse<UtilityBill> page = pageTotals.page(UtilityBill.class, null,
+                PageRequest.of(2, 10), PageCountRequest.of("none", null), "bills", bill -> bill);
+
+        assertEquals(25, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertFalse(page.getHasNext());
+    }
+
+    @Test
+    void testPage_EstimateFallsBackToExactOutsidePostgres() {
+        PaginatedResponse<UtilityBill> page = pageTotals.page(UtilityBill.class, null,
+                PageRequest.of(0, 10), PageCountRequest.of("estimate", null), "bills", bill -> bill);
+
+        assertEquals(25, page.getTotalElements());
+    }
+
+    @Test
+    void testCountRequest_InvalidMode() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PageCountRequest.of("approximate", null));
+        assertEquals("Invalid count mode approximate", exception.getMessage());
+    }
+
+    private void bill(int i, PaymentEnum status) {
+        entityManager.persist(UtilityBill.builder().name("Bill " + i).paymentStatus(status).build());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.service;
+
+import com.example.constant.PaymentEnum;
+import com.example.entity.UtilityBill;
+import com.example.exception.IdempotencyConflictException;
+import com.example.repository.IdempotencyRecordRepository;
+import com.example.repository.UtilityBillRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Optimistic locking and Idempotency-Key replay against H2, every step in its own committed transaction
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(IdempotencyService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PaymentConcurrencyTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private UtilityBillRepository utilityBillRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private Long billId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        billId = transactionTemplate.execute(status -> {
+            EntityManager entityManager = entityManager();
+            UtilityBill bill = UtilityBill.builder().name("May").electricity(100).paymentStatus(PaymentEnum.Unpaid).build();
+            entityManager.persist(bill);
+            return bill.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> entityManager().createQuery("DELETE FROM UtilityBill").executeUpdate());
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testStaleUpdate_FailsWithOptimisticLock() {
+        EntityManager first = entityManagerFactory.createEntityManager();
+        UtilityBill stale = first.find(UtilityBill.class, billId);
+        first.detach(stale);
+        first.close();
+
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager().find(UtilityBill.class, billId).setPaymentStatus(PaymentEnum.Paid));
+
+        stale.setElectricity(200);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> utilityBillRepository.save(stale));
+        UtilityBill current = transactionTemplate.execute(status -> entityManager().find(UtilityBill.class, billId));
+        assertEquals(PaymentEnum.Paid, current.getPaymentStatus());
+        assertEquals(100, current.getElectricity());
+        assertEquals(1, current.getVersion());
+    }
+
+    @Test
+    void testExecute_ReplaysStoredResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Object first = idempotencyService.execute("key-1", "POST /payments", List.of(1L, 2L),
+                () -> List.of("paid-" + calls.incrementAndGet()));
+        Object retry = idempotencyService.execute("key-1", "POST /payments", List.of(1L, 2L),
+                () -> List.of("paid-" + calls.incrementAndGet()));
+
+        assertEquals(List.of("paid-1"), first);
+        assertEquals("paid-1", ((JsonNode) retry).get(0).asText());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_KeyReusedForOtherRequest_Conflict() {
+        idempotencyService.execute("key-1", "POST /payments", List.of(1L), () -> "ok");
+
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute("key-1", "POST /payments", List.of(2L), () -> "ok"));
+    }
+
+    @Test
+    void testExecute_FailedRequestCanBeRetried() {
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute("key-1", "POST /payments", 1L, () -> {
+            throw new RuntimeException("boom");
+        }));
+
+        assertEquals("ok", idempotencyService.execute("key-1", "POST /payments", 1L, () -> "ok"));
+    }
+
+    @Test
+    void testExecute_NoKey_AlwaysRuns() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(null, "POST /payments", 1L, calls::incrementAndGet);
+        idempotencyService.execute(null, "POST /payments", 1L, calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void testSweepExpired() {
+        idempotencyService.execute("key-1", "POST /payments", 1L, () -> "ok");
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.findById("key-1")
+                .orElseThrow().setExpiresAt(Instant.now().minusSeconds(1)));
+
+        idempotencyService.sweepExpired();
+
+        assertEquals(0, idempotencyRecordRepository.count());
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.service;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.constant.PaymentEnum;
+import com.example.dto.response.FeeResponse;
+import com.example.dto.response.InvoiceApartmentResponse;
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.entity.Apartment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invoice totals priced one apartment at a time through fetchAllInvoicesByApartmentId, as getAllTotalInvoices
+ * did before the invoice_totals read model. Kept as the reference the grouped computation is checked and
+ * benchmarked against.
+ */
+public final class PerApartmentInvoiceTotals {
+
+    private PerApartmentInvoiceTotals() {
+    }
+
+    public static List<TotalInvoiceResponse> compute(InvoiceService invoiceService, List<Apartment> apartments) {
+        Map<String, TotalInvoiceResponse> totalInvoiceMap = new HashMap<>();
+        for (Apartment apartment : apartments) {
+            for (InvoiceApartmentResponse invoiceResponse : invoiceService.fetchAllInvoicesByApartmentId(apartment.getAddressNumber())) {
+                double amountToAdd = invoiceResponse.getFeeList().stream().mapToDouble(FeeResponse::getAmount).sum();
+                double amountPaid = invoiceResponse.getPaymentStatus() == PaymentEnum.Unpaid ? 0 : amountToAdd;
+                double amountContribution = invoiceResponse.getFeeList().stream()
+                        .filter(feeResponse -> feeResponse.getFeeType() == FeeTypeEnum.ContributionFund)
+                        .mapToDouble(FeeResponse::getAmount).sum();
+                TotalInvoiceResponse total = totalInvoiceMap.computeIfAbsent(invoiceResponse.getId(), id -> {
+                    TotalInvoiceResponse response = new TotalInvoiceResponse();
+                    response.setId(id);
+                    response.setName(invoiceResponse.getName());
+                    response.setCreateDate(invoiceResponse.getCreatedAt());
+                    response.setTotalAmount(0.0);
+                    response.setPaidAmount(0.0);
+                    response.setContributionAmount(0.0);
+                    return response;
+                });
+                total.setTotalAmount(total.getTotalAmount() + amountToAdd);
+                total.setPaidAmount(total.getPaidAmount() + amountPaid);
+                total.setContributionAmount(total.getContributionAmount() + amountContribution);
+            }
+        }
+        return new ArrayList<>(totalInvoiceMap.values());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.service;
+
+import com.example.config.QueryBudgetFilter;
+import com.example.config.QueryCountConfig;
+import com.example.config.QueryCounter;
+import com.example.constant.ApartmentEnum;
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.entity.Apartment;
+import com.example.entity.Resident;
+import com.example.entity.Vehicle;
+import com.example.repository.ApartmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statement counting through the proxied DataSource, for the JUnit budget and the per-request filter
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({QueryCountConfig.class, ApartmentService.class, PageTotals.class})
+@ExtendWith(QueryCountExtension.class)
+public class QueryBudgetTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApartmentService apartmentService;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ResidentService residentService;
+
+    @BeforeEach
+    void setUp() {
+        for (long i = 1; i <= 5; i++) {
+            Apartment apartment = Apartment.builder()
+                    .addressNumber(500 + i)
+                    .area(45.0)
+                    .status(ApartmentEnum.Residential)
+                    .build();
+            entityManager.persist(apartment);
+            entityManager.persist(Resident.builder().id(50000 + i).name("Resident " + i)
+                    .status(ResidentEnum.Resident).apartment(apartment).build());
+            entityManager.persist(Vehicle.builder().id("CAR-5" + i).category(VehicleEnum.Car).apartment(apartment).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @QueryCountExtension.Budget(statements = 4, duplicates = 0)
+    void testApartmentList_ProjectionStaysWithinBudget() {
+        // page query, residents and vehicles of the page, and count, whatever the page size
+        assertEquals(5, apartmentService.getAll(null, PageRequest.of(0, 5)).getResult().size());
+    }
+
+    @Test
+    void testApartmentEntities_RevealPerRowQueries(QueryCounter.Stats stats) {
+        // Apartment.onLoad reads residentList and vehicleList, one query each per apartment
+        assertEquals(5, apartmentRepository.findAll().size());
+
+        assertTrue(stats.getStatements() >= 11, "statements: " + stats.getStatements());
+        assertTrue(stats.getDuplicates() >= 8, "duplicates: " + stats.getDuplicates());
+        assertEquals(5, stats.getMostRepeated().getValue());
+    }
+
+    @Test
+    void testFilter_AddsHeadersAndMetrics(QueryCounter.Stats testStats) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryBudgetFilter filter = new QueryBudgetFilter(2, true, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/apartments/501");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/apartments/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                // same shape three times, only the literal differs
+                for (int id = 501; id <= 503; id++) {
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM residents WHERE address_number = " + id, Long.class);
+                }
+                resp.getWriter().write("ok");
+            }
+        }));
+
+        assertEquals("3", response.getHeader(QueryBudgetFilter.COUNT_HEADER));
+        assertEquals("2", response.getHeader(QueryBudgetFilter.DUPLICATES_HEADER));
+        assertNotNull(response.getHeader(QueryBudgetFilter.TIME_HEADER));
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(3.0, registry.get("http.server.requests.queries").tag("uri", "/api/v1/apartments/{id}")
+                .summary().totalAmount());
+        assertEquals(1.0, registry.get("http.server.requests.queries.over.budget").counter().count());
+        // the request's scope is closed and its statements also counted in the enclosing test scope
+        assertSame(testStats, QueryCounter.current());
+        assertEquals(3, testStats.getStatements());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.service;
+
+import com.example.config.QueryCounter;
+import org.junit.jupiter.api.extension.*;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Counts the statements of each test method body (not @BeforeEach) with QueryCounter. A test annotated with
+ * {@link Budget} fails when it runs more; a QueryCounter.Stats parameter gives the counts to the test.
+ * The test context must import QueryCountConfig so the DataSource reports its statements.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Budget {
+        int statements();
+
+        int duplicates() default Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        stats(context);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter.Stats stats = stats(context);
+        stats.close();
+        Budget budget = context.getRequiredTestMethod().getAnnotation(Budget.class);
+        if (budget == null) {
+            return;
+        }
+        if (stats.getStatements() > budget.statements() || stats.getDuplicates() > budget.duplicates()) {
+            var repeated = stats.getMostRepeated();
+            fail(String.format("Ran %d statements with %d duplicates, budget is %d statements and %d duplicates; most repeated x%d: %s",
+                    stats.getStatements(), stats.getDuplicates(), budget.statements(), budget.duplicates(),
+                    repeated.getValue(), repeated.getKey()));
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCounter.Stats.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return stats(extensionContext);
+    }
+
+    // Parameters are resolved before beforeTestExecution, so whichever comes first starts the count
+    private static QueryCounter.Stats stats(ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent("stats", key -> QueryCounter.start(), QueryCounter.Stats.class);
+    }
+}
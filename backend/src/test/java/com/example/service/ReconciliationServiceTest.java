@@ -0,0 +1,155 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.PaymentEnum;
+import com.example.constant.ReconciliationEnum;
+import com.example.dto.response.ReconciliationResponse;
+import com.example.entity.Apartment;
+import com.example.entity.Invoice;
+import com.example.entity.InvoiceApartment;
+import com.example.entity.UtilityBill;
+import com.example.service.reconciliation.StatementMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statement lines against unpaid rows in H2: matches are marked paid, the rest is reported
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ReconciliationService.class, InvoiceTotalsService.class, FeeCatalog.class})
+@ComponentScan("com.example.service.fee")
+public class ReconciliationServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    private final Map<Long, InvoiceApartment> invoiceApartments = new HashMap<>();
+    private UtilityBill bill;
+
+    @BeforeEach
+    void setUp() {
+        Invoice invoice = new Invoice();
+        invoice.setId("INV-2025-05");
+        invoice.setName("May 2025");
+        entityManager.persist(invoice);
+        for (long number : List.of(101L, 102L, 103L, 104L)) {
+            Apartment apartment = Apartment.builder().addressNumber(number).area(50).status(ApartmentEnum.Residential).build();
+            entityManager.persist(apartment);
+            InvoiceApartment invoiceApartment = new InvoiceApartment();
+            invoiceApartment.setInvoice(invoice);
+            invoiceApartment.setApartment(apartment);
+            invoiceApartment.setPaymentStatus(number == 103L ? PaymentEnum.Paid : PaymentEnum.Unpaid);
+            // 104 was issued before amounts were frozen
+            if (number != 104L) {
+                invoiceApartment.setPricedAt(Instant.now());
+                invoiceApartment.setLineAmounts(new HashMap<>(Map.of(1L, 1000000.0, 2L, 250000.0)));
+            }
+            invoiceApartments.put(number, entityManager.persist(invoiceApartment));
+            if (number == 102L) {
+                bill = entityManager.persist(UtilityBill.builder().apartment(apartment).name("May")
+                        .electricity(300000).water(150000).internet(200000).paymentStatus(PaymentEnum.Unpaid).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testReconcile_MarksExactMatchesAndReportsTheRest() {
+        String statement = "Ngày,Số tiền,Nội dung\n"
+                + "01/05/2025,\"1,250,000\",Thanh toan can ho 101 INV-2025-05\n"
+                + "01/05/2025,650.000,CH102 UB" + bill.getId() + "\n"
+                + "02/05/2025,1250000,APT 101 INV202505 again\n"
+                + "02/05/2025,1250000,apt 103 INV-2025-05\n"
+                + "03/05/2025,100000,chuyen khoan\n"
+                + "03/05/2025,100000,Apt 102 tien nha\n";
+
+        ReconciliationResponse response = reconciliationService.reconcile(csv(statement), false);
+        entityManager.clear();
+
+        assertEquals(6, response.getTransactions());
+        assertEquals(2, response.getMatched());
+        assertEquals(1, response.getInvoiceApartmentsPaid());
+        assertEquals(1, response.getUtilityBillsPaid());
+        assertEquals(List.of(ReconciliationEnum.Duplicate, ReconciliationEnum.NotFoundOrPaid,
+                        ReconciliationEnum.NoApartmentReference, ReconciliationEnum.NoInvoiceReference),
+                response.getExceptions().stream().map(ReconciliationResponse.Issue::getReason).toList());
+        assertEquals(4, response.getExceptions().get(0).getLine());
+        assertEquals(PaymentEnum.Paid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(101L).getId()).getPaymentStatus());
+        assertEquals(PaymentEnum.Unpaid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(102L).getId()).getPaymentStatus());
+        assertEquals(PaymentEnum.Paid, entityManager.find(UtilityBill.class, bill.getId()).getPaymentStatus());
+    }
+
+    @Test
+    void testReconcile_DryRunAndAmountMismatch() {
+        String statement = "date,amount,description\n"
+                + "2025-05-01,600000,UB-" + bill.getId() + "\n"
+                + "2025-05-01,1250000,Apt 102 INV-2025-05\n";
+
+        ReconciliationResponse response = reconciliationService.reconcile(csv(statement), true);
+        entityManager.clear();
+
+        assertTrue(response.isDryRun());
+        assertEquals(1, response.getMatched());
+        assertEquals(ReconciliationEnum.AmountMismatch, response.getExceptions().get(0).getReason());
+        assertEquals(0, response.getInvoiceApartmentsPaid());
+        assertEquals(PaymentEnum.Unpaid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(102L).getId()).getPaymentStatus());
+    }
+
+    @Test
+    void testReconcile_InvoiceAmountMustCoverFrozenLines() {
+        String statement = "date,amount,description\n"
+                + "2025-05-01,-1250000,Refund apt 101 INV-2025-05\n"
+                + "2025-05-01,0,Apt 101 INV-2025-05\n"
+                + "2025-05-01,600000,Apt 101 INV-2025-05 part 1\n"
+                + "2025-05-01,1250000,Apt 104 INV-2025-05\n"
+                + "2025-05-02,1300000,Apt 102 INV-2025-05\n";
+
+        ReconciliationResponse response = reconciliationService.reconcile(csv(statement), false);
+        entityManager.clear();
+
+        assertEquals(List.of(ReconciliationEnum.AmountMismatch, ReconciliationEnum.AmountMismatch,
+                        ReconciliationEnum.AmountMismatch, ReconciliationEnum.AmountMismatch),
+                response.getExceptions().stream().map(ReconciliationResponse.Issue::getReason).toList());
+        assertEquals("invoice INV-2025-05 for apartment 101 is 1250000.0", response.getExceptions().get(2).getDetail());
+        assertEquals(1, response.getInvoiceApartmentsPaid());
+        assertEquals(PaymentEnum.Unpaid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(101L).getId()).getPaymentStatus());
+        assertEquals(PaymentEnum.Paid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(102L).getId()).getPaymentStatus());
+        assertEquals(PaymentEnum.Unpaid, entityManager.find(InvoiceApartment.class, invoiceApartments.get(104L).getId()).getPaymentStatus());
+    }
+
+    @Test
+    void testReconcile_MissingColumns() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reconciliationService.reconcile(csv("date,reference\n2025-05-01,Apt 101\n"), false));
+        assertEquals("Bank statement header must have an amount and a description column", exception.getMessage());
+    }
+
+    @Test
+    void testParseAmount() {
+        assertEquals(1250000.0, StatementMatcher.parseAmount("1,250,000"));
+        assertEquals(1250000.0, StatementMatcher.parseAmount("1.250.000 VND"));
+        assertEquals(1250000.5, StatementMatcher.parseAmount("1.250.000,50"));
+        assertEquals(1250.5, StatementMatcher.parseAmount("1250.50"));
+        assertNull(StatementMatcher.parseAmount("n/a"));
+    }
+
+    private MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "statement.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.GenderEnum;
+import com.example.constant.ImportJobEnum;
+import com.example.constant.ResidentEnum;
+import com.example.dto.response.ImportJobResponse;
+import com.example.entity.Apartment;
+import com.example.entity.Resident;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.ResidentJdbcRepository;
+import com.example.repository.ResidentRepository;
+import com.example.service.importer.ImportJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Resident imports against H2, so the JDBC batch insert is checked against the mapped residents table
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ResidentJdbcRepository.class, ResidentSearchIndex.class})
+public class ResidentImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private ResidentJdbcRepository residentJdbcRepository;
+
+    @Autowired
+    private ResidentSearchIndex residentSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ResidentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(Apartment.builder().addressNumber(401L).area(50.0).status(ApartmentEnum.Residential).build());
+        entityManager.persist(Resident.builder().id(111L).name("Existing").cic("111").status(ResidentEnum.Resident).build());
+        entityManager.flush();
+        entityManager.clear();
+        // the job runs on the calling thread so it has finished when submit returns
+        ImportJobRunner importJobRunner = new ImportJobRunner(transactionManager, Runnable::run,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        importService = new ResidentImportService(
+                residentRepository, apartmentRepository, residentJdbcRepository, residentSearchIndex, importJobRunner);
+    }
+
+    @Test
+    void testSubmit_RejectsInvalidRowsAndImportsTheRest() {
+        ImportJobResponse job = importService.submit(csv(
+                "CIC,Name,DOB,Gender,Status,ApartmentId",
+                "001200000001,Nguyen Van A,1990-04-02,Male,Resident,401",
+                "111,Duplicate Of Existing,,,,",
+                "001200000001,Duplicate In File,,,,",
+                "222,Unknown Apartment,,,,999",
+                "abc,Bad Cic,,,,",
+                "333,Bad Status,,,Gone,",
+                "",
+                "444,\"Tran, Thi B\",2001-12-31,female,Temporary,0"));
+
+        ImportJobResponse result = importService.getJob(job.getJobId());
+        assertEquals(ImportJobEnum.Completed, result.getStatus());
+        assertEquals(7, result.getRowsProcessed());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(5, result.getRowsRejected());
+        assertEquals(List.of(3, 4, 5, 6, 7), result.getRejectedRows().stream()
+                .map(ImportJobResponse.RejectedRow::getRowNumber).collect(Collectors.toList()));
+        assertEquals("Resident with id = 111 already exists", result.getRejectedRows().get(0).getReason());
+        assertEquals("CIC 001200000001 appears more than once in the file", result.getRejectedRows().get(1).getReason());
+        assertEquals("Apartment with id 999 not found", result.getRejectedRows().get(2).getReason());
+
+        entityManager.clear();
+        Resident imported = residentRepository.findById(1200000001L).orElseThrow();
+        assertEquals("001200000001", imported.getCic());
+        assertEquals(LocalDate.of(1990, 4, 2), imported.getDob());
+        assertEquals(GenderEnum.Male, imported.getGender());
+        assertEquals(401L, imported.getApartment().getAddressNumber());
+        assertEquals(1, imported.getIsActive());
+        assertEquals(LocalDate.now(), imported.getStatusDate());
+
+        Resident unassigned = residentRepository.findById(444L).orElseThrow();
+        assertEquals("Tran, Thi B", unassigned.getName());
+        assertEquals(GenderEnum.Female, unassigned.getGender());
+        assertEquals(ResidentEnum.Temporary, unassigned.getStatus());
+        assertNull(unassigned.getApartment());
+    }
+
+    @Test
+    void testSubmit_CommitsInBatches() {
+        String[] lines = IntStream.range(0, 2500)
+                .mapToObj(i -> (10_000 + i) + ",Resident " + i + ",,,,401")
+                .toArray(String[]::new);
+
+        ImportJobResponse job = importService.submit(csv(lines));
+
+        ImportJobResponse result = importService.getJob(job.getJobId());
+        assertEquals(ImportJobEnum.Completed, result.getStatus());
+        assertEquals(2499, result.getRowsImported()); // first line is read as the header
+        assertEquals(2500L, residentRepository.countAll());
+    }
+
+    private MockMultipartFile csv(String... lines) {
+        return new MockMultipartFile("file", "residents.csv", "text/csv",
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.service;
+
+import com.example.constant.ApartmentEnum;
+import com.example.constant.ResidentEnum;
+import com.example.constant.VehicleEnum;
+import com.example.dto.request.ResidentUpdateRequest;
+import com.example.entity.Apartment;
+import com.example.entity.Resident;
+import com.example.entity.Vehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Household move-out and owner deletion against H2: bulk statements keyed by apartment, same count for any household size
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect", "cache.statistics=true"})
+@Import({ResidentService.class, PageTotals.class, ResidentSearchIndex.class})
+public class ResidentMoveTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResidentService residentService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        household(301, 2);
+        household(302, 6);
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testOwnerMove_MovesWholeHousehold() {
+        long small = statementsFor(() -> residentService.updateResident(ResidentUpdateRequest.builder().id(30100L).status("Moved").build()));
+        long large = statementsFor(() -> residentService.updateResident(ResidentUpdateRequest.builder().id(30200L).status("Moved").build()));
+
+        assertEquals(small, large);
+        for (long id = 30200; id < 30206; id++) {
+            Resident resident = entityManager.find(Resident.class, id);
+            assertEquals(ResidentEnum.Moved, resident.getStatus());
+            assertEquals(0, resident.getIsActive());
+            assertNull(resident.getApartment());
+        }
+        // already moved before, keeps the date it moved
+        assertEquals(LocalDate.of(2020, 1, 1), entityManager.find(Resident.class, 30205L).getStatusDate());
+        assertEquals(LocalDate.now(), entityManager.find(Resident.class, 30201L).getStatusDate());
+        Apartment apartment = entityManager.find(Apartment.class, 302L);
+        assertNull(apartment.getOwner());
+        assertNull(apartment.getOwnerPhone());
+        // vehicles stay with the apartment on a move
+        assertEquals(2, apartment.getVehicleList().size());
+    }
+
+    @Test
+    void testOwnerDeletion_DeletesResidentsAndVehicles() {
+        long small = statementsFor(() -> residentService.deleteResident(30100L));
+        long large = statementsFor(() -> residentService.deleteResident(30200L));
+
+        assertEquals(small, large);
+        for (long id = 30200; id < 30206; id++) {
+            assertNull(entityManager.find(Resident.class, id));
+        }
+        Apartment apartment = entityManager.find(Apartment.class, 302L);
+        assertNull(apartment.getOwner());
+        assertTrue(apartment.getVehicleList().isEmpty());
+        assertTrue(entityManager.find(Apartment.class, 301L).getResidentList().isEmpty());
+    }
+
+    @Test
+    void testMemberDeletion_DeletesOnlyTheMember() throws Exception {
+        residentService.deleteResident(30203L);
+
+        assertNull(entityManager.find(Resident.class, 30203L));
+        Apartment apartment = entityManager.find(Apartment.class, 302L);
+        assertEquals(5, apartment.getResidentList().size());
+        assertEquals(30200L, apartment.getOwner().getId());
+    }
+
+    private long statementsFor(ThrowingRunnable action) {
+        statistics.clear();
+        try {
+            action.run();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    // Apartment with an owner, size - 1 members (the last one already moved) and two vehicles
+    private void household(long addressNumber, int size) {
+        Apartment apartment = Apartment.builder()
+                .addressNumber(addressNumber)
+                .area(60)
+                .status(ApartmentEnum.Residential)
+                .ownerPhone(912345678L)
+                .build();
+        entityManager.persist(apartment);
+        for (int r = 0; r < size; r++) {
+            Resident resident = Resident.builder()
+                    .id(addressNumber * 100 + r)
+                    .name("Resident " + addressNumber + "-" + r)
+                    .status(r == size - 1 && r > 1 ? ResidentEnum.Moved : ResidentEnum.Resident)
+                    .apartment(apartment)
+                    .build();
+            entityManager.persist(resident);
+            if (r == 0) {
+                apartment.setOwner(resident);
+            }
+        }
+        entityManager.persist(Vehicle.builder().id("CAR-" + addressNumber).category(VehicleEnum.Car).apartment(apartment).build());
+        entityManager.persist(Vehicle.builder().id("BIKE-" + addressNumber).category(VehicleEnum.Motorbike).apartment(apartment).build());
+        entityManager.flush();
+        // @PrePersist stamps today, give the already moved resident an older date
+        entityManager.getEntityManager().createQuery("UPDATE Resident r SET r.statusDate = :date WHERE r.status = com.example.constant.ResidentEnum.Moved")
+                .setParameter("date", LocalDate.of(2020, 1, 1))
+                .executeUpdate();
+    }
+}
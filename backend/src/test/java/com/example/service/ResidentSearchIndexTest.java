@@ -0,0 +1,81 @@
+package com.example.service;
+
+import com.example.dto.projection.ResidentSearchRow;
+import com.example.dto.response.ResidentSearchResponse;
+import com.example.entity.Resident;
+import com.example.repository.ResidentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResidentSearchIndexTest {
+    @Mock
+    private ResidentRepository residentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ResidentSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ResidentSearchIndex(residentRepository, transactionManager);
+        when(residentRepository.streamSearchRows()).thenAnswer(invocation -> Stream.of(
+                new ResidentSearchRow(1L, "Nguyễn Văn An", "001200000001"),
+                new ResidentSearchRow(2L, "Nguyễn Thị Ánh Nguyệt", "001200000002"),
+                new ResidentSearchRow(3L, "Trần Văn Nguyên", "001200000003"),
+                new ResidentSearchRow(4L, "Đỗ Đức Anh", "001200000004")));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void testSearch_FoldsDiacriticsAndMatchesWordPrefixes() {
+        assertEquals(List.of(1L, 2L, 3L), ids(searchIndex.search("nguy", 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search("do duc", 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search("ĐỖ", 10)));
+        assertTrue(searchIndex.search("guyen", 10).isEmpty()); // not a word prefix
+        assertTrue(searchIndex.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_RanksExactWordsAndNameStartFirst() {
+        // "nguyen" is a whole word of 1, 2 and 3, but only 1 and 2 start with it; 1 has the shorter name
+        assertEquals(List.of(1L, 2L, 3L), ids(searchIndex.search("nguyen", 10)));
+        // every word of the query must match
+        assertEquals(List.of(1L, 3L), ids(searchIndex.search("van ngu", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("nguyen", 1)));
+    }
+
+    @Test
+    void testSearch_ExactCicFirst() {
+        List<ResidentSearchResponse> results = searchIndex.search("001200000003", 10);
+        assertEquals(3L, results.get(0).getId());
+        assertEquals(1, results.size());
+        assertEquals(4, ids(searchIndex.search("0012", 10)).size());
+    }
+
+    @Test
+    void testPutAndRemove_AppliedOutsideTransaction() {
+        searchIndex.put(Resident.builder().id(2L).name("Lê Thị Hoa").cic("001200000002").build());
+        searchIndex.put(Resident.builder().id(5L).name("Lê Văn Nam").cic("001200000005").build());
+        searchIndex.remove(List.of(1L));
+
+        assertEquals(List.of(3L), ids(searchIndex.search("nguyen", 10)));
+        assertEquals(List.of(2L, 5L), ids(searchIndex.search("le", 10)));
+        assertEquals(4, searchIndex.size());
+    }
+
+    private static List<Long> ids(List<ResidentSearchResponse> results) {
+        return results.stream().map(ResidentSearchResponse::getId).toList();
+    }
+}
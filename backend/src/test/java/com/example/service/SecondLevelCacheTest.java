@@ -0,0 +1,175 @@
+package com.example.service;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.dto.response.CacheRegionStatsResponse;
+import com.example.entity.Fee;
+import com.example.entity.FeeInvoice;
+import com.example.entity.Invoice;
+import com.example.exception.StatisticsDisabledException;
+import com.example.repository.FeeInvoiceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Second-level cache regions from ehcache.xml against H2: hits after the first load, invalidation by bulk statements.
+// Cache entries are written on commit, so every step runs in its own committed transaction.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect", "cache.statistics=true"})
+@Import(CacheStatisticsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FeeInvoiceRepository feeInvoiceRepository;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Long departmentFeeId;
+    private Long vehicleFeeId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        inTransaction(entityManager -> {
+            Fee departmentFee = fee(entityManager, "Department Fee", FeeTypeEnum.DepartmentFee);
+            departmentFeeId = departmentFee.getId();
+            vehicleFeeId = fee(entityManager, "Vehicle Fee", FeeTypeEnum.VehicleFee).getId();
+            Invoice invoice = new Invoice();
+            invoice.setId("INV-CACHE");
+            invoice.setName("Cached invoice");
+            entityManager.persist(invoice);
+            FeeInvoice feeInvoice = new FeeInvoice();
+            feeInvoice.setFee(departmentFee);
+            feeInvoice.setInvoice(invoice);
+            entityManager.persist(feeInvoice);
+        });
+
+        // warm the invoice, its fee links and the fee
+        inTransaction(entityManager ->
+                assertEquals(1, entityManager.find(Invoice.class, "INV-CACHE").getFeeInvoices().size()));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(entityManager -> {
+            entityManager.createQuery("DELETE FROM FeeInvoice").executeUpdate();
+            entityManager.createQuery("DELETE FROM Invoice").executeUpdate();
+            entityManager.createQuery("DELETE FROM Fee").executeUpdate();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testFind_ServedFromSecondLevelCache() {
+        inTransaction(entityManager -> {
+            Invoice invoice = entityManager.find(Invoice.class, "INV-CACHE");
+            assertEquals("Department Fee", invoice.getFeeInvoices().get(0).getFee().getName());
+        });
+
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        assertTrue(statistics.getCacheRegionStatistics("com.example.entity.Invoice").getHitCount() > 0);
+        assertTrue(statistics.getCacheRegionStatistics("com.example.entity.Invoice.feeInvoices").getHitCount() > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBulkDelete_InvalidatesCachedFeeLinks() {
+        feeInvoiceRepository.deleteByInvoiceId("INV-CACHE");
+
+        inTransaction(entityManager ->
+                assertTrue(entityManager.find(Invoice.class, "INV-CACHE").getFeeInvoices().isEmpty()));
+        assertTrue(feeInvoiceRepository.findFeesByInvoiceId("INV-CACHE").isEmpty());
+    }
+
+    @Test
+    void testNativeInsert_InvalidatesOnlyFeeInvoiceSpaces() {
+        transactionTemplate.executeWithoutResult(status ->
+                feeInvoiceRepository.insertForInvoice("INV-CACHE", List.of(vehicleFeeId)));
+
+        inTransaction(entityManager ->
+                assertEquals(2, entityManager.find(Invoice.class, "INV-CACHE").getFeeInvoices().size()));
+        // fee rows were not written, so their region was kept
+        assertTrue(entityManagerFactory.getCache().contains(Fee.class, departmentFeeId));
+        assertTrue(entityManagerFactory.getCache().contains(Invoice.class, "INV-CACHE"));
+    }
+
+    @Test
+    void testFindFeesByInvoiceId_UsesQueryCache() {
+        assertEquals(1, feeInvoiceRepository.findFeesByInvoiceId("INV-CACHE").size());
+        assertEquals(1, feeInvoiceRepository.findFeesByInvoiceId("INV-CACHE").size());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testGetRegionStatistics() {
+        inTransaction(entityManager -> entityManager.find(Invoice.class, "INV-CACHE"));
+
+        List<CacheRegionStatsResponse> regions = cacheStatisticsService.getRegionStatistics();
+        CacheRegionStatsResponse invoiceRegion = regions.stream()
+                .filter(region -> region.getRegion().equals("com.example.entity.Invoice"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, invoiceRegion.getHits());
+        assertEquals(1.0, invoiceRegion.getHitRatio(), 0.001);
+    }
+
+    @Test
+    void testGetRegionStatistics_Disabled() {
+        statistics.setStatisticsEnabled(false);
+        try {
+            assertThrows(StatisticsDisabledException.class, () -> cacheStatisticsService.getRegionStatistics());
+        } finally {
+            statistics.setStatisticsEnabled(true);
+        }
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            work.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Fee fee(EntityManager entityManager, String name, FeeTypeEnum type) {
+        Fee fee = new Fee();
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(BigDecimal.TEN);
+        entityManager.persist(fee);
+        return fee;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.service;
+
+import com.example.config.MetricsConfig;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.UtilityBillJdbcRepository;
+import com.example.service.importer.ImportJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// @Timed service methods record through the TimedAspect of MetricsConfig, background imports time their own runs
+public class ServiceTimersTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class))
+            .withUserConfiguration(MetricsConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+            .withBean("importExecutor", SyncTaskExecutor.class, SyncTaskExecutor::new)
+            .withBean(UtilityBillJdbcRepository.class, () -> mock(UtilityBillJdbcRepository.class))
+            .withBean(ApartmentRepository.class, () -> {
+                ApartmentRepository apartmentRepository = mock(ApartmentRepository.class);
+                when(apartmentRepository.streamAllAddressNumbers()).thenAnswer(invocation -> Stream.empty());
+                return apartmentRepository;
+            })
+            .withBean(ImportJobRunner.class)
+            .withBean(UtilityBillImportService.class);
+
+    @Test
+    void testImportJob_RecordsTimer() {
+        contextRunner.run(context -> {
+            context.getBean(UtilityBillImportService.class).submit(emptySheet(), "May 2025");
+
+            Timer timer = context.getBean(MeterRegistry.class).get("utility-bill.import").timer();
+            assertEquals(1, timer.count());
+            assertEquals("Completed", timer.getId().getTag("status"));
+        });
+    }
+
+    private static MockMultipartFile emptySheet() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.createSheet().createRow(0).createCell(0).setCellValue("ApartmentId");
+            workbook.write(out);
+            return new MockMultipartFile("file", "bills.xlsx", null, out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.service;
+
+import com.example.dto.response.TotalInvoiceResponse;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.InvoiceApartmentFeeRepository;
+import com.example.repository.InvoiceApartmentLineRepository;
+import com.example.service.fee.FeeCalculator;
+import com.example.service.generator.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The generator loads over its own connection and commits, so the rows are removed after each test
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({InvoiceService.class, InvoiceTotalsService.class, InvoiceApartmentLineRepository.class, InvoiceApartmentFeeRepository.class, PageTotals.class, FeeCatalog.class})
+@ComponentScan("com.example.service.fee")
+public class SyntheticDataGeneratorTest {
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 6);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FeeCalculator feeCalculator;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private InvoiceTotalsService invoiceTotalsService;
+
+    @Autowired
+    private FeeCatalog feeCatalog;
+
+    @AfterTransaction
+    void cleanUp() {
+        for (String table : List.of("invoice_apartment_lines", "invoice_apartment_fees", "invoice_apartment", "invoice_totals",
+                "fee_invoice", "invoices", "fees", "utility_bills", "vehicles")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        jdbcTemplate.update("UPDATE apartments SET owner_id = NULL");
+        jdbcTemplate.update("DELETE FROM residents");
+        jdbcTemplate.update("DELETE FROM apartments");
+        feeCatalog.invalidate();
+    }
+
+    @Test
+    void testGenerate_LoadsConsistentRows() throws SQLException {
+        Map<String, Long> rows = generate(1234);
+
+        rows.forEach((table, count) -> assertEquals(count, count(table), table));
+        assertEquals(1234, rows.get("apartments"));
+        long occupied = count("apartments WHERE status <> 'Vacant'");
+        assertTrue(occupied > 1000 && occupied < 1234);
+        assertEquals(occupied, count("apartments WHERE owner_id IS NOT NULL"));
+        // 24 monthly invoices and 8 quarterly funds, each billed to every occupied apartment
+        assertEquals(32, rows.get("invoices"));
+        assertEquals(occupied * 32, rows.get("invoice_apartment"));
+        assertEquals(occupied * 24, rows.get("utility_bills"));
+        assertEquals(0, count("residents r WHERE (SELECT COUNT(*) FROM residents o WHERE o.cic = r.cic) > 1"));
+        // identities continue after the loaded ids
+        jdbcTemplate.update("INSERT INTO fee_invoice (fee_id, invoice_id) VALUES (1, 'HD-2025-06')");
+        assertEquals(rows.get("fee_invoice") + 1, jdbcTemplate.queryForObject("SELECT MAX(id) FROM fee_invoice", Long.class));
+    }
+
+    @Test
+    void testGenerate_TotalsMatchPerApartmentComputation() throws SQLException {
+        generate(200);
+        feeCatalog.invalidate();
+
+        Map<String, TotalInvoiceResponse> expected = byId(PerApartmentInvoiceTotals.compute(invoiceService, apartmentRepository.findAll()));
+        invoiceTotalsService.rebuild(false);
+        Map<String, TotalInvoiceResponse> actual = byId(invoiceService.getAllTotalInvoices());
+
+        assertEquals(32, expected.size());
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((id, want) -> {
+            TotalInvoiceResponse got = actual.get(id);
+            assertEquals(want.getTotalAmount(), got.getTotalAmount(), 0.01, id);
+            assertEquals(want.getPaidAmount(), got.getPaidAmount(), 0.01, id);
+            assertEquals(want.getContributionAmount(), got.getContributionAmount(), 0.01, id);
+        });
+        assertTrue(actual.get("HD-2025-06").getTotalAmount() > 0);
+        assertTrue(actual.get("QUY-2025-Q2").getContributionAmount() > 0);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testGenerate_SameSeedSameRows() throws SQLException {
+        generate(300);
+        List<Map<String, Object>> residents = jdbcTemplate.queryForList("SELECT id, name, dob, cic, address_number FROM residents ORDER BY id");
+        List<Map<String, Object>> bills = jdbcTemplate.queryForList("SELECT apartment_address_number, electricity, water, internet, payment_status FROM utility_bills ORDER BY id");
+        Double lines = jdbcTemplate.queryForObject("SELECT SUM(amount) FROM invoice_apartment_lines", Double.class);
+        cleanUp();
+
+        // no test transaction here, so no @AfterTransaction either
+        try {
+            generate(300);
+            assertEquals(residents, jdbcTemplate.queryForList("SELECT id, name, dob, cic, address_number FROM residents ORDER BY id"));
+            assertEquals(bills, jdbcTemplate.queryForList("SELECT apartment_address_number, electricity, water, internet, payment_status FROM utility_bills ORDER BY id"));
+            assertEquals(lines, jdbcTemplate.queryForObject("SELECT SUM(amount) FROM invoice_apartment_lines", Double.class));
+        } finally {
+            cleanUp();
+        }
+    }
+
+    @Test
+    void testGenerate_RefusesNonEmptyDatabase() throws SQLException {
+        generate(10);
+        assertThrows(IllegalStateException.class, () -> generate(10));
+    }
+
+    @Test
+    void testAddressNumber_TowerFloorUnit() {
+        assertEquals(10101, SyntheticDataGenerator.addressNumber(0));
+        assertEquals(10120, SyntheticDataGenerator.addressNumber(19));
+        assertEquals(10201, SyntheticDataGenerator.addressNumber(20));
+        assertEquals(13020, SyntheticDataGenerator.addressNumber(599));
+        assertEquals(20101, SyntheticDataGenerator.addressNumber(600));
+    }
+
+    private Map<String, Long> generate(int apartments) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return new SyntheticDataGenerator(7, apartments, 2, LAST_MONTH, feeCalculator).generate(connection);
+        }
+    }
+
+    private long count(String from) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Long.class);
+    }
+
+    private Map<String, TotalInvoiceResponse> byId(List<TotalInvoiceResponse> responses) {
+        return responses.stream().collect(Collectors.toMap(TotalInvoiceResponse::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.service;
+
+import com.example.constant.ImportJobEnum;
+import com.example.dto.response.ImportJobResponse;
+import com.example.entity.UtilityBill;
+import com.example.exception.ResourceNotFoundException;
+import com.example.repository.ApartmentRepository;
+import com.example.repository.UtilityBillJdbcRepository;
+import com.example.service.importer.ImportJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UtilityBillImportServiceTest {
+    @Mock
+    private ApartmentRepository apartmentRepository;
+
+    @Mock
+    private UtilityBillJdbcRepository utilityBillJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UtilityBillImportService importService;
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // the job runs on the calling thread so it has finished when submit returns
+        ImportJobRunner importJobRunner = new ImportJobRunner(transactionManager, Runnable::run,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        importService = new UtilityBillImportService(apartmentRepository, utilityBillJdbcRepository, importJobRunner);
+    }
+
+    private void stubRepositories() {
+        when(apartmentRepository.countAll()).thenReturn(3L);
+        when(apartmentRepository.streamAllAddressNumbers()).thenAnswer(invocation -> Stream.of(1L, 2L, 3L));
+        doAnswer(invocation -> {
+            List<UtilityBill> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return null;
+        }).when(utilityBillJdbcRepository).insertAll(any());
+    }
+
+    @Test
+    void testSubmit_RejectsInvalidRowsAndImportsTheRest() throws IOException {
+        stubRepositories();
+        ImportJobResponse job = importService.submit(excel(List.of(
+                new Object[]{1, 100, 50, 30},
+                new Object[]{99, 100, 50, 30},
+                new Object[]{2, "abc", 50, 30},
+                new Object[]{3, 120, 60, 30})), "May 2025");
+
+        ImportJobResponse result = importService.getJob(job.getJobId());
+        assertEquals(ImportJobEnum.Completed, result.getStatus());
+        assertEquals(4, result.getRowsProcessed());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        assertEquals(3, result.getRejectedRows().get(0).getRowNumber());
+        assertEquals("Apartment with id 99 not found", result.getRejectedRows().get(0).getReason());
+        assertEquals(4, result.getRejectedRows().get(1).getRowNumber());
+        assertEquals(List.of(2), chunkSizes);
+    }
+
+    @Test
+    void testSubmit_CommitsInChunks() throws IOException {
+        stubRepositories();
+        List<Object[]> rows = new ArrayList<>();
+        LongStream.range(0, 2500).forEach(i -> rows.add(new Object[]{1 + i % 3, 100, 50, 30}));
+
+        ImportJobResponse job = importService.submit(excel(rows), "May 2025");
+
+        ImportJobResponse result = importService.getJob(job.getJobId());
+        assertEquals(ImportJobEnum.Completed, result.getStatus());
+        assertEquals(2500, result.getRowsImported());
+        assertEquals(List.of(1000, 1000, 500), chunkSizes);
+        verify(transactionManager, times(4)).commit(any()); // apartment ids + three chunks
+    }
+
+    @Test
+    void testGetJob_NotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> importService.getJob("missing"));
+    }
+
+    private MockMultipartFile excel(List<Object[]> rows) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("ApartmentId");
+            header.createCell(1).setCellValue("Electricity");
+            header.createCell(2).setCellValue("Water");
+            header.createCell(3).setCellValue("Internet");
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                for (int c = 0; c < 4; c++) {
+                    Object value = rows.get(i)[c];
+                    if (value instanceof Number number) {
+                        row.createCell(c).setCellValue(number.doubleValue());
+                    } else {
+                        row.createCell(c).setCellValue(value.toString());
+                    }
+                }
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "bills.xlsx", null, out.toByteArray());
+        }
+    }
+}
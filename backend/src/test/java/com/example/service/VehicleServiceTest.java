@@ -2,7 +2,6 @@ package com.example.service;
 
 import com.example.constant.VehicleEnum;
 import com.example.dto.response.ApiResponse;
-import com.example.dto.response.PaginatedResponse;
 import com.example.entity.Apartment;
 import com.example.entity.Resident;
 import com.example.entity.Vehicle;
@@ -14,11 +13,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
 import java.util.Arrays;
@@ -97,25 +91,6 @@ public class VehicleServiceTest {
         verify(vehicleRepository, never()).findAllByApartment_AddressNumber(anyLong());
     }
 
-    @Test
-    void testGetAll_Success() {
-        // Mock
-        Page<Vehicle> page = new PageImpl<>(Arrays.asList(vehicle));
-        doAnswer(invocation -> page)
-                .when(vehicleRepository)
-                .findAll((Specification<Vehicle>) eq(null), any(Pageable.class));
-
-        // Call method
-        PaginatedResponse<Vehicle> result = vehicleService.getAll(null, PageRequest.of(0, 10));
-
-        // Assertions
-        assertNotNull(result);
-        assertEquals(10, result.getPageSize());
-        assertEquals(0, result.getCurPage());
-        assertEquals(1, result.getResult().size());
-        verify(vehicleRepository).findAll((Specification<Vehicle>) eq(null), any(Pageable.class));
-    }
-
     @Test
     void testCreate_Success() {
         // Mock
@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.config.ConcurrencyLimitFilter;
+import com.example.config.ImportConfig;
+import com.example.config.VirtualThreadConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadConfigTest {
+    // the shared conversion service reads "2s" as a Duration, as in the application
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(VirtualThreadConfig.class, ImportConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void testPlatformThreads_NoLimitAndPlatformImports() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("concurrencyLimitFilter"));
+            assertFalse(runsOnVirtualThread(context.getBean(ThreadPoolTaskExecutor.class)));
+        });
+    }
+
+    @Test
+    void testVirtualThreads_LimitFromPoolSizeAndVirtualImports() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "spring.datasource.hikari.maximum-pool-size=8")
+                .run(context -> {
+                    assertInstanceOf(FilterRegistrationBean.class, context.getBean("concurrencyLimitFilter"));
+                    assertEquals(16, context.getBean(MeterRegistry.class).get("http.server.requests.limit.available").gauge().value());
+                    assertTrue(runsOnVirtualThread(context.getBean(ThreadPoolTaskExecutor.class)));
+                });
+    }
+
+    @Test
+    void testConcurrencyLimit_RejectsWhenFullAndFreesOnCompletion() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> slow = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(request("/api/v1/residents"), response, new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                        entered.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain notCalled = new MockFilterChain();
+        filter.doFilter(request("/api/v1/invoices"), rejected, notCalled);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertNull(notCalled.getRequest());
+        assertEquals(1, meterRegistry.get("http.server.requests.limited").counter().count());
+
+        // health checks are not limited
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(request("/actuator/health"), health, new MockFilterChain());
+        assertEquals(200, health.getStatus());
+
+        release.countDown();
+        assertEquals(200, slow.get(5, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        MockFilterChain called = new MockFilterChain();
+        filter.doFilter(request("/api/v1/invoices"), after, called);
+        assertEquals(200, after.getStatus());
+        assertNotNull(called.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+
+    private static boolean runsOnVirtualThread(ThreadPoolTaskExecutor executor) throws Exception {
+        return executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS);
+    }
+}
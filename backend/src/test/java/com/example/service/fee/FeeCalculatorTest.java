@@ -0,0 +1,104 @@
+package com.example.service.fee;
+
+import com.example.constant.FeeTypeEnum;
+import com.example.dto.response.FeeResponse;
+import com.example.entity.Fee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeeCalculatorTest {
+
+    private FeeCalculator feeCalculator;
+    private Fee departmentFee;
+    private Fee vehicleFee;
+    private Fee contributionFee;
+
+    @BeforeEach
+    void setUp() {
+        feeCalculator = new FeeCalculator(List.of(
+                new DepartmentFeeStrategy(), new VehicleFeeStrategy(BigDecimal.valueOf(1200000), BigDecimal.valueOf(70000)), new ContributionFundStrategy()));
+        departmentFee = fee(1L, "Management Fee", FeeTypeEnum.DepartmentFee, "7000");
+        vehicleFee = fee(2L, "Parking", FeeTypeEnum.VehicleFee, "1");
+        contributionFee = fee(3L, "Flood relief", FeeTypeEnum.ContributionFund, "0");
+    }
+
+    @Test
+    void testPrice_OneAmountPerFee() {
+        PricingPlan plan = feeCalculator.compile(List.of(departmentFee, vehicleFee, contributionFee));
+
+        List<FeeResponse> result = plan.price(50.0, 1, 2, Map.of(3L, 500.0));
+
+        assertEquals(3, result.size());
+        assertEquals(350000.0, result.get(0).getAmount(), 0.01);
+        assertEquals(1200000 + 2 * 70000, result.get(1).getAmount(), 0.01);
+        assertEquals(500.0, result.get(2).getAmount(), 0.01);
+        assertEquals("Flood relief", result.get(2).getName());
+        assertEquals(FeeTypeEnum.ContributionFund, result.get(2).getFeeType());
+    }
+
+    @Test
+    void testPrice_MissingRecordedAmountAndUnknownTypeAreZero() {
+        Fee untyped = fee(4L, "Legacy", null, "10");
+        PricingPlan plan = feeCalculator.compile(List.of(contributionFee, untyped));
+
+        List<FeeResponse> result = plan.price(80.0, 3, 3, null);
+
+        assertEquals(0.0, result.get(0).getAmount(), 0.01);
+        assertEquals(0.0, result.get(1).getAmount(), 0.01);
+    }
+
+    @Test
+    void testTotals_MatchesPerApartmentPrice() {
+        PricingPlan plan = feeCalculator.compile(List.of(departmentFee, vehicleFee, contributionFee, departmentFee));
+        double[] area = {40.5, 75.25, 0};
+        long[] cars = {0, 2, 1};
+        long[] motorbikes = {3, 1, 0};
+
+        long[] totals = plan.totals(area, cars, motorbikes);
+
+        for (int i = 0; i < area.length; i++) {
+            long total = plan.price(area[i], cars[i], motorbikes[i], Map.of()).stream().mapToLong(fee -> Money.toMinor(fee.getAmount())).sum();
+            assertEquals(total, totals[i]);
+        }
+    }
+
+    @Test
+    void testPrice_VehicleFeeUsesUnitPricePerCar() {
+        PricingPlan plan = feeCalculator.compile(List.of(fee(5L, "Parking", FeeTypeEnum.VehicleFee, "1500000")));
+
+        List<FeeResponse> result = plan.price(60.0, 2, 1, null);
+
+        assertEquals(2 * 1500000 + 70000, result.get(0).getAmount(), 0.01);
+    }
+
+    @Test
+    void testLineAmounts_RoundedHalfUpToMinorUnits() {
+        PricingPlan plan = feeCalculator.compile(List.of(fee(6L, "Cleaning", FeeTypeEnum.DepartmentFee, "1000.22")));
+
+        long[] lines = plan.lineAmounts(0, new double[]{47.75, 10.1}, new long[2], new long[2]);
+
+        // 47760.505 and 10102.222
+        assertArrayEquals(new long[]{4776051, 1010222}, lines);
+    }
+
+    @Test
+    void testCompile_DuplicateStrategy() {
+        assertThrows(IllegalStateException.class,
+                () -> new FeeCalculator(List.of(new DepartmentFeeStrategy(), new DepartmentFeeStrategy())));
+    }
+
+    private Fee fee(Long id, String name, FeeTypeEnum type, String unitPrice) {
+        Fee fee = new Fee();
+        fee.setId(id);
+        fee.setName(name);
+        fee.setFeeTypeEnum(type);
+        fee.setUnitPrice(new BigDecimal(unitPrice));
+        return fee;
+    }
+}
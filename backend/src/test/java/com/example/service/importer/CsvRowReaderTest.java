@@ -0,0 +1,52 @@
+package com.example.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRowReaderTest {
+
+    @Test
+    void testRead_QuotedFieldsAndLineEndings() throws IOException {
+        String csv = "\uFEFFdate,amount,description\r\n"
+                + "2025-05-01,\"1,250,000\",\"Apt 101, \"\"INV-1\"\"\"\r\n"
+                + "2025-05-02,500,\"two\nlines\"\n"
+                + "\n"
+                + "2025-05-03,,last";
+
+        List<String[]> rows = read(csv, 3);
+
+        assertEquals(5, rows.size());
+        assertArrayEquals(new String[]{"date", "amount", "description"}, rows.get(0));
+        assertArrayEquals(new String[]{"2025-05-01", "1,250,000", "Apt 101, \"INV-1\""}, rows.get(1));
+        assertArrayEquals(new String[]{"2025-05-02", "500", "two\nlines"}, rows.get(2));
+        assertArrayEquals(new String[]{null, null, null}, rows.get(3));
+        assertArrayEquals(new String[]{"2025-05-03", null, "last"}, rows.get(4));
+    }
+
+    @Test
+    void testRead_ExtraColumnsAreDropped() throws IOException {
+        List<String[]> rows = read("a;b;c;d\n", ';', 2);
+
+        assertArrayEquals(new String[]{"a", "b"}, rows.get(0));
+    }
+
+    private List<String[]> read(String csv, int columns) throws IOException {
+        return read(csv, ',', columns);
+    }
+
+    private List<String[]> read(String csv, char separator, int columns) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        CsvRowReader.read(new StringReader(csv), separator, columns, (rowNum, cells) -> {
+            assertEquals(rows.size(), rowNum);
+            rows.add(Arrays.copyOf(cells, cells.length));
+        });
+        return rows;
+    }
+}
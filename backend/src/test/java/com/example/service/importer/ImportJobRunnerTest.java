@@ -0,0 +1,65 @@
+package com.example.service.importer;
+
+import com.example.dto.response.ImportJobResponse;
+import com.example.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ImportJobRunnerTest {
+
+    private static final RowImport<String> NO_ROWS = new RowImport<>() {
+        @Override
+        public void read(Path file, RowHandler handler) {
+        }
+
+        @Override
+        public String parse(int rowNum, String[] cells) {
+            return cells[0];
+        }
+
+        @Override
+        public void insert(List<String> chunk) {
+        }
+    };
+
+    @Test
+    void testGetJob_OtherKindNotFound() {
+        ImportJobRunner runner = runner(Runnable::run);
+
+        ImportJobResponse job = runner.submit("resident", file(), "residents.csv", ".csv", NO_ROWS);
+
+        assertEquals(job.getJobId(), runner.getJob("resident", job.getJobId()).getJobId());
+        assertThrows(ResourceNotFoundException.class, () -> runner.getJob("utility-bill", job.getJobId()));
+    }
+
+    @Test
+    void testSubmit_RejectedWhenExecutorIsFull() {
+        ImportJobRunner runner = runner(task -> {
+            throw new TaskRejectedException("full");
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> runner.submit("resident", file(), "residents.csv", ".csv", NO_ROWS));
+        assertEquals("Too many imports in progress, try again later", e.getMessage());
+    }
+
+    private static ImportJobRunner runner(Executor executor) {
+        return new ImportJobRunner(mock(PlatformTransactionManager.class), executor,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "residents.csv", null, new byte[0]);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void testAddAndContains_MatchesHashSet() {
+        LongHashSet set = new LongHashSet(16); // grows past the expected size
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextInt(20_000) - 100;
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = -200; value < 20_100; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "value " + value);
+        }
+    }
+
+    @Test
+    void testZero() {
+        LongHashSet set = new LongHashSet(0);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+}
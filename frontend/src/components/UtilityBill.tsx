@@ -7,6 +7,7 @@ import { toast } from "react-toastify";
 
 // Constants
 const API_ENDPOINT = "http://localhost:8080/api/v1/utilitybills/import";
+const JOB_POLL_INTERVAL_MS = 1000;
 
 // Types
 interface ExcelData {
@@ -16,6 +17,17 @@ interface ExcelData {
   internet: number;
 }
 
+// The import runs in the background; POST returns the job and GET /import/{jobId} its progress
+interface ImportJob {
+  jobId: string;
+  status: "Queued" | "Running" | "Completed" | "Failed";
+  rowsProcessed: number;
+  rowsImported: number;
+  rowsRejected: number;
+  rejectedRows: { rowNumber: number; reason: string }[] | null;
+  error: string | null;
+}
+
 // Component
 const UtilityBill = () => {
   // State management
@@ -23,6 +35,8 @@ const UtilityBill = () => {
   const [fileName, setFileName] = useState("");
   const [selectedFile, setSelectedFile] = useState<File | null>(null);
   const [billName, setBillName] = useState("");
+  const [importJob, setImportJob] = useState<ImportJob | null>(null);
+  const [isImporting, setIsImporting] = useState(false);
 
   // Handlers
   const handleFileChange = (event: React.ChangeEvent<HTMLInputElement>) => {
@@ -39,11 +53,14 @@ const UtilityBill = () => {
       return;
     }
 
+    setIsImporting(true);
     try {
-      await submitUtilityBill();
-      showSuccessMessage();
+      const job = await submitUtilityBill();
+      showImportResult(await waitForImport(job));
     } catch (error) {
       handleSubmissionError(error);
+    } finally {
+      setIsImporting(false);
     }
   };
 
@@ -65,11 +82,29 @@ const UtilityBill = () => {
       headers: { "Content-Type": "multipart/form-data" },
     });
 
-    return response.data;
+    return response.data.data as ImportJob;
+  };
+
+  const waitForImport = async (submitted: ImportJob): Promise<ImportJob> => {
+    let job = submitted;
+    setImportJob(job);
+    while (job.status === "Queued" || job.status === "Running") {
+      await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+      const response = await axios.get(`${API_ENDPOINT}/${job.jobId}`);
+      job = response.data.data as ImportJob;
+      setImportJob(job);
+    }
+    return job;
   };
 
-  const showSuccessMessage = () => {
-    toast.success("Add Utility Bill Successfully!");
+  const showImportResult = (job: ImportJob) => {
+    if (job.status === "Failed") {
+      toast.error(`Import failed: ${job.error || "unknown error"}`);
+    } else if (job.rowsRejected > 0) {
+      toast.warn(`Imported ${job.rowsImported} rows, ${job.rowsRejected} rejected.`);
+    } else {
+      toast.success(`Add Utility Bill Successfully! ${job.rowsImported} rows imported.`);
+    }
   };
 
   const handleSubmissionError = (error: any) => {
@@ -127,6 +162,28 @@ const UtilityBill = () => {
     </Table>
   );
 
+  const renderImportStatus = () =>
+    importJob && (
+      <div className="import-status">
+        <p>
+          {importJob.status}: {importJob.rowsProcessed} processed,{" "}
+          {importJob.rowsImported} imported, {importJob.rowsRejected} rejected
+        </p>
+        {importJob.error && <p>{importJob.error}</p>}
+        {importJob.rejectedRows?.map((row) => (
+          <p key={row.rowNumber}>
+            Row {row.rowNumber}: {row.reason}
+          </p>
+        ))}
+        {importJob.rejectedRows &&
+          importJob.rowsRejected > importJob.rejectedRows.length && (
+            <p>
+              and {importJob.rowsRejected - importJob.rejectedRows.length} more
+            </p>
+          )}
+      </div>
+    );
+
   const renderBillNameInput = () => (
     <div className="inputName">
       <label id="lbName" htmlFor="billName">
@@ -148,8 +205,14 @@ const UtilityBill = () => {
         <label id="utilityLabel">Utility Bill</label>
         {renderDataTable()}
         {renderBillNameInput()}
-        <button type="submit" className="saveBtn" onClick={handleSubmit}>
-          Save
+        {renderImportStatus()}
+        <button
+          type="submit"
+          className="saveBtn"
+          onClick={handleSubmit}
+          disabled={isImporting}
+        >
+          {isImporting ? "Importing..." : "Save"}
         </button>
       </div>
     </div>
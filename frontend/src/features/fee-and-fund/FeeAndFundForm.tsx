@@ -98,7 +98,7 @@ export default function FeeAndFundForm({ feeOrFund }: FeeAndFundFormProps) {
 
     const data = {
       name: formValues.name,
-      unitPrice: formValues.feeTypeEnum === "VehicleFee" ? "1" : formValues.unitPrice,
+      unitPrice: formValues.unitPrice,
       description: formValues.description,
       feeTypeEnum: formValues.feeTypeEnum,
     };
@@ -116,7 +116,7 @@ export default function FeeAndFundForm({ feeOrFund }: FeeAndFundFormProps) {
   const handleUnitPriceClick = () => {
     if (formValues.feeTypeEnum === "VehicleFee") {
       toast.info(
-        "Unit Price is not applicable for VehicleFee. Fees are automatically calculated based on vehicle count (70,000 VND/motorcycle, 1,200,000 VND/car)."
+        "For VehicleFee the unit price is the monthly rate per car. Motorcycles are billed at 70,000 VND each."
       );
     }
   };